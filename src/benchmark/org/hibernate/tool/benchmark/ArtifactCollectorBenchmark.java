@@ -0,0 +1,59 @@
+package org.hibernate.tool.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.tool.hbm2x.ArtifactCollector;
+import org.hibernate.tool.hbm2x.HibernateMappingExporter;
+import org.hibernate.tool.test.TestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link ArtifactCollector#formatFiles()} on the hbm.xml files generated for the schema.
+ * The files are generated once per trial and formatted in place by every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ArtifactCollectorBenchmark {
+
+	private ArtifactCollector collector;
+	private File outputDir;
+
+	@Setup(Level.Trial)
+	public void generateFiles(BenchmarkSchema schema) throws IOException {
+		JDBCMetaDataConfiguration cfg = schema.newConfiguration();
+		try {
+			cfg.readFromJDBC();
+			outputDir = ExporterBenchmark.createOutputDirectory("format");
+			collector = new ArtifactCollector();
+			HibernateMappingExporter exporter = new HibernateMappingExporter(cfg, outputDir);
+			exporter.setArtifactCollector(collector);
+			exporter.start();
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(cfg.getServiceRegistry());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanUp() {
+		TestHelper.deleteDir(outputDir);
+	}
+
+	@Benchmark
+	public void formatFiles() {
+		collector.formatFiles();
+	}
+}
@@ -0,0 +1,119 @@
+package org.hibernate.tool.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * An in-memory schema of tableCount tables with columnCount columns each, every table
+ * referencing the previous one by a foreign key.
+ *
+ * The driver, dialect and user come from hibernate.properties, i.e. from the active
+ * database profile; only the url is replaced by an in-memory one. HSQLDB and H2 are supported.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkSchema {
+
+	@Param({"50", "200"})
+	public int tableCount;
+
+	@Param("10")
+	public int columnCount;
+
+	private Properties properties;
+	private String[] dropSQL;
+
+	@Setup(Level.Trial)
+	public void createSchema() throws SQLException, ClassNotFoundException {
+		properties = new Properties();
+		properties.putAll(Environment.getProperties());
+		properties.setProperty(AvailableSettings.URL, getInMemoryUrl(properties.getProperty(AvailableSettings.DRIVER)));
+		properties.remove(AvailableSettings.DEFAULT_CATALOG);
+		properties.remove(AvailableSettings.DEFAULT_SCHEMA);
+		Class.forName(properties.getProperty(AvailableSettings.DRIVER));
+
+		String[] createSQL = new String[tableCount];
+		dropSQL = new String[tableCount];
+		for (int i = 0; i < tableCount; i++) {
+			StringBuffer sql = new StringBuffer("create table BENCH_TABLE").append(i).append(" (ID integer not null");
+			for (int c = 0; c < columnCount; c++) {
+				sql.append(", COL").append(c).append(c % 2 == 0 ? " varchar(40)" : " integer");
+			}
+			if (i > 0) {
+				sql.append(", PARENT_ID integer");
+			}
+			sql.append(", primary key (ID)");
+			if (i > 0) {
+				sql.append(", foreign key (PARENT_ID) references BENCH_TABLE").append(i - 1).append("(ID)");
+			}
+			createSQL[i] = sql.append(")").toString();
+			dropSQL[tableCount - 1 - i] = "drop table BENCH_TABLE" + i;
+		}
+		execute(createSQL);
+	}
+
+	@TearDown(Level.Trial)
+	public void dropSchema() throws SQLException {
+		execute(dropSQL);
+	}
+
+	/** @return a copy of the connection settings of the schema */
+	public Properties getProperties() {
+		Properties result = new Properties();
+		result.putAll(properties);
+		return result;
+	}
+
+	/** @return a configuration for the schema; {@link JDBCMetaDataConfiguration#readFromJDBC()} is not called yet */
+	public JDBCMetaDataConfiguration newConfiguration() {
+		JDBCMetaDataConfiguration cfg = new JDBCMetaDataConfiguration();
+		cfg.setProperties(getProperties());
+		return cfg;
+	}
+
+	private void execute(String[] sqls) throws SQLException {
+		Connection con = DriverManager.getConnection(
+				properties.getProperty(AvailableSettings.URL),
+				properties.getProperty(AvailableSettings.USER),
+				properties.getProperty(AvailableSettings.PASS, ""));
+		try {
+			Statement statement = con.createStatement();
+			try {
+				for (int i = 0; i < sqls.length; i++) {
+					statement.execute(sqls[i]);
+				}
+			}
+			finally {
+				statement.close();
+			}
+			if (!con.getAutoCommit()) {
+				con.commit();
+			}
+		}
+		finally {
+			con.close();
+		}
+	}
+
+	private static String getInMemoryUrl(String driver) {
+		if (driver != null && driver.startsWith("org.h2.")) {
+			return "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+		}
+		if (driver != null && driver.startsWith("org.hsqldb.")) {
+			return "jdbc:hsqldb:mem:benchmark";
+		}
+		throw new IllegalStateException("Benchmarks need HSQLDB or H2, not " + driver);
+	}
+}
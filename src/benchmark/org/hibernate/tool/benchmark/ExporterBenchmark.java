@@ -0,0 +1,80 @@
+package org.hibernate.tool.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.tool.hbm2x.ArtifactCollector;
+import org.hibernate.tool.hbm2x.Exporter;
+import org.hibernate.tool.hbm2x.ExporterSettings;
+import org.hibernate.tool.hbm2x.HibernateMappingExporter;
+import org.hibernate.tool.hbm2x.POJOExporter;
+import org.hibernate.tool.test.TestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the rendering of the reverse engineered schema by {@link POJOExporter} and
+ * {@link HibernateMappingExporter}. The schema is read once per trial; the hbm.xml run includes
+ * the formatting done by {@link ArtifactCollector#formatFiles()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExporterBenchmark {
+
+	@Param("1")
+	public int threads;
+
+	private JDBCMetaDataConfiguration cfg;
+	private File outputDir;
+
+	@Setup(Level.Trial)
+	public void readSchema(BenchmarkSchema schema) throws IOException {
+		cfg = schema.newConfiguration();
+		cfg.readFromJDBC();
+		outputDir = createOutputDirectory("exporter");
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanUp() {
+		StandardServiceRegistryBuilder.destroy(cfg.getServiceRegistry());
+		TestHelper.deleteDir(outputDir);
+	}
+
+	@Benchmark
+	public ArtifactCollector exportPOJOs() {
+		return export(new POJOExporter(cfg, outputDir));
+	}
+
+	@Benchmark
+	public ArtifactCollector exportMappings() {
+		return export(new HibernateMappingExporter(cfg, outputDir));
+	}
+
+	private ArtifactCollector export(Exporter exporter) {
+		ArtifactCollector collector = new ArtifactCollector();
+		exporter.setArtifactCollector(collector);
+		exporter.getProperties().setProperty(ExporterSettings.THREADS, Integer.toString(threads));
+		exporter.start();
+		return collector;
+	}
+
+	static File createOutputDirectory(String prefix) throws IOException {
+		File dir = File.createTempFile("hibernatetool-" + prefix, "");
+		if (!dir.delete() || !dir.mkdir()) {
+			throw new IOException("Could not create " + dir);
+		}
+		return dir;
+	}
+}
@@ -0,0 +1,43 @@
+package org.hibernate.tool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.JDBCBinder;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures a complete {@link JDBCBinder#readFromDatabase(String, String, org.hibernate.engine.spi.Mapping)}
+ * run as done by {@link JDBCMetaDataConfiguration#readFromJDBC()}, i.e. reading the schema and
+ * creating the persistent classes. Every invocation starts from a new configuration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JDBCBinderBenchmark {
+
+	@Param("false")
+	public boolean pipelined;
+
+	@Benchmark
+	public Metadata readFromDatabase(BenchmarkSchema schema) {
+		JDBCMetaDataConfiguration cfg = schema.newConfiguration();
+		cfg.setProperty(JDBCReaderFactory.READER_PIPELINED, Boolean.toString(pipelined));
+		try {
+			cfg.readFromJDBC();
+			return cfg.getMetadata();
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(cfg.getServiceRegistry());
+		}
+	}
+}
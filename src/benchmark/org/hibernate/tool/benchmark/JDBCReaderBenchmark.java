@@ -0,0 +1,60 @@
+package org.hibernate.tool.benchmark;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.service.ServiceRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link JDBCReader#readDatabaseSchema(org.hibernate.cfg.reveng.DatabaseCollector, String, String)}
+ * on its own, without binding the tables to a mapping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JDBCReaderBenchmark {
+
+	@Param("1")
+	public int readerThreads;
+
+	private ServiceRegistry serviceRegistry;
+	private JDBCReader reader;
+
+	@Setup(Level.Trial)
+	public void createReader(BenchmarkSchema schema) {
+		Properties properties = schema.getProperties();
+		properties.setProperty(JDBCReaderFactory.READER_THREADS, Integer.toString(readerThreads));
+		// every reader thread needs its own connection
+		properties.setProperty(AvailableSettings.POOL_SIZE, Integer.toString(readerThreads + 1));
+		serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		reader = JDBCReaderFactory.newJDBCReader(properties, new DefaultReverseEngineeringStrategy(), serviceRegistry);
+	}
+
+	@TearDown(Level.Trial)
+	public void destroyReader() {
+		StandardServiceRegistryBuilder.destroy(serviceRegistry);
+	}
+
+	@Benchmark
+	public DefaultDatabaseCollector readDatabaseSchema() {
+		DefaultDatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(dc, null, null);
+		return dc;
+	}
+}
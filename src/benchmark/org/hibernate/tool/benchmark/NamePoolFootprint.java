@@ -0,0 +1,89 @@
+package org.hibernate.tool.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.reveng.NamePool;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
+
+/**
+ * Measures the retained heap of the tables and columns rows of a schema of tableCount tables
+ * with columnCount columns each, once without and once with a {@link NamePool}.
+ *
+ * Every value is a new String, as a network driver returns it; HSQLDB and H2 in memory hand out
+ * shared instances, which would hide the difference. Not a JMH benchmark since JMH reports time,
+ * not retained heap:
+ *   mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=org.hibernate.tool.benchmark.NamePoolFootprint -Dexec.args="10000 5"
+ */
+public class NamePoolFootprint {
+
+	public static void main(String[] args) {
+		int tableCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int columnCount = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		// warm up the row and pool classes so their loading is not measured
+		readRows(10, columnCount, new NamePool());
+
+		long unpooled = measure(tableCount, columnCount, null);
+		NamePool names = new NamePool();
+		long pooled = measure(tableCount, columnCount, names);
+
+		int rows = tableCount * (columnCount + 1);
+		System.out.println(tableCount + " tables, " + rows + " rows");
+		System.out.println("without pool: " + unpooled / 1024 + " KiB");
+		System.out.println("with pool:    " + pooled / 1024 + " KiB (" + names.size() + " names)");
+	}
+
+	private static long measure(int tableCount, int columnCount, NamePool names) {
+		long before = usedHeap();
+		List<Map<String, Object>> rows = readRows(tableCount, columnCount, names);
+		long after = usedHeap();
+		if (rows.isEmpty()) {
+			throw new IllegalStateException("no rows read");
+		}
+		return after - before;
+	}
+
+	/** @return the rows getTables and getColumns would return, kept as the readers keep them */
+	private static List<Map<String, Object>> readRows(int tableCount, int columnCount, NamePool names) {
+		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(tableCount * (columnCount + 1));
+		MetaDataRow table = new MetaDataRow(MetaDataRow.TABLES, names);
+		MetaDataRow column = new MetaDataRow(MetaDataRow.COLUMNS, names);
+		for (int i = 0; i < tableCount; i++) {
+			table.clear();
+			setTable(table, i);
+			table.setString(MetaDataRow.TABLE_TYPE, new String("TABLE"));
+			result.add(MetaDataRow.copyOf(table));
+			for (int c = 0; c < columnCount; c++) {
+				column.clear();
+				setTable(column, i);
+				column.setString(MetaDataRow.COLUMN_NAME, "COL" + c);
+				column.setInt(MetaDataRow.DATA_TYPE, c % 2 == 0 ? 12 : 4);
+				column.setString(MetaDataRow.TYPE_NAME, new String(c % 2 == 0 ? "VARCHAR" : "INTEGER"));
+				column.setInt(MetaDataRow.NULLABLE, 1);
+				column.setInt(MetaDataRow.COLUMN_SIZE, c % 2 == 0 ? 40 : 10);
+				column.setInt(MetaDataRow.DECIMAL_DIGITS, 0);
+				result.add(MetaDataRow.copyOf(column));
+			}
+		}
+		return result;
+	}
+
+	private static void setTable(MetaDataRow row, int i) {
+		row.setString(MetaDataRow.TABLE_CAT, new String("BENCHMARK"));
+		row.setString(MetaDataRow.TABLE_SCHEM, new String("PUBLIC"));
+		row.setString(MetaDataRow.TABLE_NAME, "BENCH_TABLE" + i);
+	}
+
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
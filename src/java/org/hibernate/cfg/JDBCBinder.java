@@ -10,11 +10,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.DuplicateMappingException;
 import org.hibernate.FetchMode;
@@ -34,7 +39,9 @@ import org.hibernate.cfg.reveng.JDBCToHibernateTypeHelper;
 import org.hibernate.cfg.reveng.MappingsDatabaseCollector;
 import org.hibernate.cfg.reveng.RevEngUtils;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.SchemaFingerprints;
 import org.hibernate.cfg.reveng.TableIdentifier;
+import org.hibernate.cfg.reveng.TableReadListener;
 import org.hibernate.engine.OptimisticLockStyle;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
@@ -85,6 +92,13 @@ public class JDBCBinder {
 	private final String defaultCatalog;
 	private final String defaultSchema;
 
+	private SchemaFingerprints schemaFingerprints;
+	
+	/** column types guessed while the metadata was read, only set during a pipelined readFromDatabase */
+	private Map<Column, TypeGuess> typeGuesses;
+	
+	private int reusedTypeGuesses;
+
 	/**
 	 * @param mappings
 	 * @param configuration
@@ -106,15 +120,52 @@ public class JDBCBinder {
 	 *
 	 */
 	public void readFromDatabase(String catalog, String schema, Mapping mapping) {
+		TypeGuesser guesser = null;
+		if(Boolean.valueOf(properties.getProperty(JDBCReaderFactory.READER_PIPELINED)).booleanValue()) {
+			guesser = new TypeGuesser(mapping);
+		}
 		try {
-			DatabaseCollector collector = readDatabaseSchema(catalog, schema);
+			DatabaseCollector collector = readDatabaseSchema(catalog, schema, guesser);
+			if(schemaFingerprints!=null) {
+				schemaFingerprints.update(collector.iterateTables());
+			}
+			int guessed = 0;
+			if(guesser!=null) {
+				typeGuesses = guesser.finish();
+				guessed = typeGuesses.size();
+				reusedTypeGuesses = 0;
+			}
 			createPersistentClasses(collector, mapping); //move this to a different step!
+			if(guesser!=null) {
+				log.debug("Reused " + reusedTypeGuesses + " of " + guessed + " column types guessed while reading");
+			}
 			((InFlightMetadataCollectorImpl)metadataCollector).processSecondPasses(mdbc);
 		}
 		catch (SQLException e) {
 			JdbcServices jdbcServices = serviceRegistry.getService(JdbcServices.class);
 			throw jdbcServices.getSqlExceptionHelper().convert(e, "Reading from database", null);
 		}
+		finally {
+			if(guesser!=null) {
+				guesser.cancel();
+			}
+			typeGuesses = null;
+		}
+	}
+
+	/**
+	 * If set, the fingerprints are updated with the tables read before any classes are created.
+	 */
+	public void setSchemaFingerprints(SchemaFingerprints schemaFingerprints) {
+		this.schemaFingerprints = schemaFingerprints;
+	}
+
+	/**
+	 * @return the number of columns whose type guessed while reading was used by the last 
+	 * pipelined {@link #readFromDatabase(String, String, Mapping)}, 0 if it was not pipelined
+	 */
+	public int getReusedTypeGuessCount() {
+		return reusedTypeGuesses;
 	}
 
 	/**
@@ -126,12 +177,17 @@ public class JDBCBinder {
 	 * @throws SQLException
 	 */
 	public DatabaseCollector readDatabaseSchema(String catalog, String schema) throws SQLException {
+		return readDatabaseSchema(catalog, schema, null);
+	}
+	
+	private DatabaseCollector readDatabaseSchema(String catalog, String schema, TableReadListener listener) throws SQLException {
 	  	 // use default from settings if nothing else specified.
 	     catalog = catalog!=null ? catalog : properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
 	     schema = schema!=null ? schema : properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
 
 	     JDBCReader reader = JDBCReaderFactory.newJDBCReader(properties,revengStrategy,serviceRegistry);
 	     DatabaseCollector dbs = new MappingsDatabaseCollector(metadataCollector, reader.getMetaDataDialect());
+	     reader.setTableReadListener(listener);
 
 	     reader.readDatabaseSchema(dbs, catalog, schema);
 	     return dbs;
@@ -881,18 +937,31 @@ public class JDBCBinder {
 	private String guessAndAlignType(Table table, Column column, Mapping mapping, boolean generatedIdentifier) {
 		// TODO: this method mutates the column if the types does not match...not good.
 		// maybe we should copy the column instead before calling this method.
+		TypeGuess guess = typeGuesses==null ? null : typeGuesses.remove(column);
+		if(guess!=null && guess.matches(column, generatedIdentifier)) {
+			reusedTypeGuesses++;
+		} else {
+			guess = guessType(TableIdentifier.create(table), table, column, mapping, generatedIdentifier);
+		}
+		if(guess.alignedSqlTypeCode!=null) {
+			log.debug("Sql type mismatch for " + location(table, column) + " between DB and wanted hibernate type. Sql type set to " + typeCodeName( guess.sqlTypeCode ) + " instead of " + typeCodeName(guess.alignedSqlTypeCode.intValue()) );
+			column.setSqlTypeCode(guess.alignedSqlTypeCode);
+		}
+		return guess.hibernateType;
+	}
+
+	/**
+	 * Works out the hibernate type for the column without changing the column.
+	 */
+	private TypeGuess guessType(TableIdentifier tableIdentifier, Table table, Column column, Mapping mapping, boolean generatedIdentifier) {
 		Integer sqlTypeCode = column.getSqlTypeCode();
-		String location = 
-				"Table: " + 
-				TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getQuotedName() ) + 
-				" column: " + 
-				column.getQuotedName();
+		String location = location(table, column);
 		if(sqlTypeCode==null) {
 			throw new JDBCBinderException("sqltype is null for " + location);
 		}
 
 		String preferredHibernateType = revengStrategy.columnToHibernateTypeName(
-				TableIdentifier.create(table),
+				tableIdentifier,
 				column.getName(),
 				sqlTypeCode.intValue(),
 				column.getLength(), column.getPrecision(), column.getScale(), column.isNullable(), generatedIdentifier
@@ -900,6 +969,7 @@ public class JDBCBinder {
 
 		Type wantedType = metadataCollector.getTypeResolver().heuristicType(preferredHibernateType);
 
+		Integer alignedSqlTypeCode = null;
 		if(wantedType!=null) {
 			int[] wantedSqlTypes = wantedType.sqlTypes(mapping);
 
@@ -909,8 +979,7 @@ public class JDBCBinder {
 
 			int wantedSqlType = wantedSqlTypes[0];
 			if(wantedSqlType!=sqlTypeCode.intValue() ) {
-				log.debug("Sql type mismatch for " + location + " between DB and wanted hibernate type. Sql type set to " + typeCodeName( sqlTypeCode.intValue() ) + " instead of " + typeCodeName(wantedSqlType) );
-				column.setSqlTypeCode(new Integer(wantedSqlType));
+				alignedSqlTypeCode = new Integer(wantedSqlType);
 			}
 		}
 		else {
@@ -923,7 +992,119 @@ public class JDBCBinder {
 			throw new JDBCBinderException("Could not find javatype for " + typeCodeName(sqlTypeCode.intValue()));
 		}
 
-		return preferredHibernateType;
+		return new TypeGuess(column, generatedIdentifier, preferredHibernateType, alignedSqlTypeCode);
+	}
+
+	private String location(Table table, Column column) {
+		return "Table: " + 
+				TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getQuotedName() ) + 
+				" column: " + 
+				column.getQuotedName();
+	}
+
+	/**
+	 * The outcome of guessing the type of a column together with the column state it was based on.
+	 */
+	private static final class TypeGuess {
+		final int sqlTypeCode;
+		final int length;
+		final int precision;
+		final int scale;
+		final boolean nullable;
+		final boolean generatedIdentifier;
+		final String hibernateType;
+		final Integer alignedSqlTypeCode;
+
+		TypeGuess(Column column, boolean generatedIdentifier, String hibernateType, Integer alignedSqlTypeCode) {
+			this.sqlTypeCode = column.getSqlTypeCode().intValue();
+			this.length = column.getLength();
+			this.precision = column.getPrecision();
+			this.scale = column.getScale();
+			this.nullable = column.isNullable();
+			this.generatedIdentifier = generatedIdentifier;
+			this.hibernateType = hibernateType;
+			this.alignedSqlTypeCode = alignedSqlTypeCode;
+		}
+
+		boolean matches(Column column, boolean generatedIdentifier) {
+			return this.generatedIdentifier==generatedIdentifier
+					&& column.getSqlTypeCode()!=null && column.getSqlTypeCode().intValue()==sqlTypeCode
+					&& column.getLength()==length
+					&& column.getPrecision()==precision
+					&& column.getScale()==scale
+					&& column.isNullable()==nullable;
+		}
+	}
+
+	/**
+	 * Guesses the column types of every table as soon as the reader is done with it, on a 
+	 * separate thread, so the type guessing overlaps with reading the remaining tables and 
+	 * the foreign keys. Everything depending on foreign keys is still bound afterwards by 
+	 * createPersistentClasses, which picks up the guesses if the column did not change.
+	 * 
+	 * Single column primary keys are skipped as whether they are generated depends on the 
+	 * identifier strategy decided while binding.
+	 */
+	private final class TypeGuesser implements TableReadListener {
+
+		private final Mapping mapping;
+		private final Map<Column, TypeGuess> guesses = Collections.synchronizedMap(new IdentityHashMap<Column, TypeGuess>());
+		private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		TypeGuesser(Mapping mapping) {
+			this.mapping = mapping;
+		}
+
+		public void tableRead(final Table table) {
+			try {
+				executor.execute(new Runnable() {
+					public void run() {
+						guessTypes(table);
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+				// cancelled, the types are guessed while binding
+			}
+		}
+
+		private void guessTypes(Table table) {
+			// the same identifier createPersistentClasses will see once it has removed the default catalog/schema
+			String catalog = table.getCatalog()!=null && table.getCatalog().equals(defaultCatalog) ? null : table.getCatalog();
+			String schema = table.getSchema()!=null && table.getSchema().equals(defaultSchema) ? null : table.getSchema();
+			TableIdentifier tableIdentifier = new TableIdentifier(catalog, schema, table.getName());
+			Column singlePrimaryKeyColumn = null;
+			if(table.getPrimaryKey()!=null && table.getPrimaryKey().getColumnSpan()==1) {
+				singlePrimaryKeyColumn = table.getPrimaryKey().getColumn(0);
+			}
+			for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+				Column column = (Column) iter.next();
+				if(column==singlePrimaryKeyColumn) continue;
+				try {
+					guesses.put(column, guessType(tableIdentifier, table, column, mapping, false));
+				}
+				catch (RuntimeException e) {
+					// reported when the column is bound
+				}
+			}
+		}
+
+		/** Waits for the tables read so far and returns the guesses keyed by column identity. */
+		Map<Column, TypeGuess> finish() {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new JDBCBinderException("Interrupted while guessing column types", e);
+			}
+			return guesses;
+		}
+
+		void cancel() {
+			executor.shutdownNow();
+		}
 	}
 
 	private String typeCodeName(int sqlTypeCode) {
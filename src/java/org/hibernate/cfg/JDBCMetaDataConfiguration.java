@@ -4,6 +4,8 @@
  */
 package org.hibernate.cfg;
 
+import java.io.File;
+
 import org.dom4j.Element;
 import org.hibernate.MappingException;
 import org.hibernate.SessionFactory;
@@ -23,6 +25,7 @@ import org.hibernate.boot.spi.MetadataBuildingContext;
 import org.hibernate.boot.spi.MetadataBuildingOptions;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.SchemaFingerprints;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
@@ -54,6 +57,10 @@ public class JDBCMetaDataConfiguration extends Configuration {
 	private MetadataBuildingOptions metadataBuildingOptions = null;
 	private MetadataBuildingContext metadataBuildingContext = null;
 	private Metadata metadata = null;
+	private File fingerprintFile = null;
+	private SchemaFingerprints schemaFingerprints = null;
+	private String strategyDescription = null;
+	private int reusedTypeGuessCount = 0;
     
 	public Metadata getMetadata() {
 		if (metadata == null) {
@@ -123,10 +130,26 @@ public class JDBCMetaDataConfiguration extends Configuration {
 				getMetadataBuildingContext(), 
 				getReverseEngineeringStrategy(), 
 				preferBasicCompositeIds());
+		if(fingerprintFile!=null) {
+			schemaFingerprints = new SchemaFingerprints(fingerprintFile);
+			schemaFingerprints.setStrategyConfiguration(
+					getReverseEngineeringStrategy().getClass().getName()
+					+ "|preferBasicCompositeIds=" + preferBasicCompositeIds()
+					+ "|" + strategyDescription);
+			binder.setSchemaFingerprints(schemaFingerprints);
+		}
 		binder.readFromDatabase(
 				null, 
 				null, 
 				buildMapping(getMetadata()));		
+		reusedTypeGuessCount = binder.getReusedTypeGuessCount();
+	}
+	
+	/**
+	 * @return statistic of the last {@link #readFromJDBC()}, see {@link JDBCBinder#getReusedTypeGuessCount()}
+	 */
+	public int getReusedTypeGuessCount() {
+		return reusedTypeGuessCount;
 	}
 	
 	@Override 
@@ -203,6 +226,45 @@ public class JDBCMetaDataConfiguration extends Configuration {
 		return revEngStrategy;
 	}
 
+	/**
+	 * Enables incremental reverse engineering: table fingerprints of the previous run
+	 * are read from the file and exporters only regenerate artifacts for changed tables.
+	 * Everything is regenerated when the strategy class, {@link #setStrategyDescription(String)}
+	 * or the configuration of an exporter changed. Delete the file to force a full regeneration
+	 * after changes that are not covered, e.g. to the code of a custom strategy.
+	 */
+	public void setFingerprintFile(File fingerprintFile) {
+		this.fingerprintFile = fingerprintFile;
+	}
+
+	/**
+	 * Describes reverse engineering input that is not visible from the strategy class, e.g. its
+	 * settings and the contents of the reveng.xml files, for the fingerprint file.
+	 */
+	public void setStrategyDescription(String strategyDescription) {
+		this.strategyDescription = strategyDescription;
+	}
+
+	public File getFingerprintFile() {
+		return fingerprintFile;
+	}
+
+	/**
+	 * @return the fingerprints computed by {@link #readFromJDBC()} or null if not running incrementally.
+	 */
+	public SchemaFingerprints getSchemaFingerprints() {
+		return schemaFingerprints;
+	}
+
+	/**
+	 * Stores the fingerprints of the last read; call after all artifacts were generated.
+	 */
+	public void storeSchemaFingerprints() {
+		if(schemaFingerprints!=null) {
+			schemaFingerprints.store();
+		}
+	}
+
 	private static BasicTypeRegistry handleTypes(MetadataBuildingOptions options) {
 		final ClassLoaderService classLoaderService = options.getServiceRegistry().getService( ClassLoaderService.class );
 
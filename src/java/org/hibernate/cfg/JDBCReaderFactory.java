@@ -1,10 +1,12 @@
 package org.hibernate.cfg;
 
+import java.io.File;
 import java.util.Properties;
 
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.SnapshotMetaDataDialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.exception.spi.SQLExceptionConverter;
@@ -12,6 +14,29 @@ import org.hibernate.service.ServiceRegistry;
 
 final public class JDBCReaderFactory {
 
+	/** Number of threads (and connections) used to read table metadata. Default is 1, i.e. serial reading. */
+	public static final String READER_THREADS = "hibernatetool.metadatareader.threads";
+	
+	/** If true, metadata is read with one query per schema for dialects supporting it. Default is false. */
+	public static final String READER_BULK = "hibernatetool.metadatareader.bulk";
+	
+	/** 
+	 * If true, column types are guessed while the remaining tables are still being read. Default is false.
+	 * The type callbacks of the ReverseEngineeringStrategy (columnToHibernateTypeName) are then called 
+	 * on a separate thread, concurrently with the table callbacks made while reading; only enable this
+	 * with strategies that are safe for that.
+	 */
+	public static final String READER_PIPELINED = "hibernatetool.metadatareader.pipelined";
+	
+	/** Directory to store metadata snapshots in between runs. If not set, no snapshots are used. */
+	public static final String SNAPSHOT_DIR = "hibernatetool.metadatasnapshot.dir";
+	
+	/** 
+	 * Max age of a metadata snapshot in seconds. Default is no limit; dialects supporting it (Oracle, MySQL) 
+	 * are still checked for DDL changes. For other databases set a limit, otherwise schema changes are only 
+	 * seen after the snapshot is deleted.
+	 */
+	public static final String SNAPSHOT_TTL = "hibernatetool.metadatasnapshot.ttl";
 	
 	public static JDBCReader newJDBCReader(
 			Properties properties, 
@@ -21,8 +46,32 @@ final public class JDBCReaderFactory {
 				.createMetaDataDialect(
 						serviceRegistry.getService(JdbcServices.class).getDialect(), 
 						properties );
+		String snapshotDir = properties.getProperty(SNAPSHOT_DIR);
+		if(snapshotDir!=null) {
+			mdd = createSnapshotMetaDataDialect(mdd, new File(snapshotDir), properties);
+		}
 		return newJDBCReader(properties, revengStrategy, mdd, serviceRegistry);
 	}
+	
+	private static MetaDataDialect createSnapshotMetaDataDialect(MetaDataDialect mdd, File dir, Properties properties) {
+		String key = properties.getProperty(AvailableSettings.URL) 
+				+ "|" + properties.getProperty(AvailableSettings.USER)
+				+ "|" + properties.getProperty(AvailableSettings.DEFAULT_CATALOG)
+				+ "|" + properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
+		long timeToLive = 0;
+		String ttl = properties.getProperty(SNAPSHOT_TTL);
+		if(ttl!=null) {
+			try {
+				timeToLive = Long.parseLong(ttl.trim()) * 1000;
+			} 
+			catch (NumberFormatException e) {
+				throw new JDBCBinderException("Invalid value for " + SNAPSHOT_TTL + ": " + ttl, e);
+			}
+		}
+		// the key is stored in the snapshot as well, so a hash collision only causes a re-read.
+		File file = new File(dir, "metadata-" + Integer.toHexString(key.hashCode()) + ".snapshot");
+		return new SnapshotMetaDataDialect(mdd, file, key, timeToLive);
+	}
 
 	public static JDBCReader newJDBCReader(
 			Properties properties, 
@@ -39,13 +88,24 @@ final public class JDBCReaderFactory {
 				.getProperty(AvailableSettings.DEFAULT_CATALOG);
 		String defaultSchemaName = properties
 				.getProperty(AvailableSettings.DEFAULT_SCHEMA);
-		return new JDBCReader(
+		JDBCReader reader = new JDBCReader(
 				mdd, 
 				connectionProvider, 
 				sqlExceptionConverter, 
 				defaultCatalogName, 
 				defaultSchemaName, 
 				revengStrategy );
+		String threads = properties.getProperty(READER_THREADS);
+		if(threads!=null) {
+			try {
+				reader.setThreadCount(Integer.parseInt(threads.trim()));
+			} 
+			catch (NumberFormatException e) {
+				throw new JDBCBinderException("Invalid value for " + READER_THREADS + ": " + threads, e);
+			}
+		}
+		reader.setBulkRead(Boolean.valueOf(properties.getProperty(READER_BULK)).booleanValue());
+		return reader;
 	}
 
 }
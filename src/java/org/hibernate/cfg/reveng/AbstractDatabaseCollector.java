@@ -12,6 +12,7 @@ public abstract class AbstractDatabaseCollector implements DatabaseCollector {
 	private Map<String, List<ForeignKey>> oneToManyCandidates;
 	protected final Map<TableIdentifier, String> suggestedIdentifierStrategies;
 	private MetaDataDialect metaDataDialect;
+	private final NamePool namePool = new NamePool();
 
 	public AbstractDatabaseCollector(MetaDataDialect metaDataDialect) {
 		suggestedIdentifierStrategies = new HashMap<TableIdentifier, String>();
@@ -26,16 +27,27 @@ public abstract class AbstractDatabaseCollector implements DatabaseCollector {
 		return oneToManyCandidates;
 	}
 
-	public String getSuggestedIdentifierStrategy(String catalog, String schema, String name) {
+	public synchronized String getSuggestedIdentifierStrategy(String catalog, String schema, String name) {
 		TableIdentifier identifier = new TableIdentifier(catalog, schema, name);
 		return (String) suggestedIdentifierStrategies.get(identifier);
 	}
 
-	public void addSuggestedIdentifierStrategy(String catalog, String schema, String name, String idstrategy) {
+	// synchronized since primary keys can be read by multiple threads, see JDBCReader#setThreadCount
+	public synchronized void addSuggestedIdentifierStrategy(String catalog, String schema, String name, String idstrategy) {
 		TableIdentifier identifier = new TableIdentifier(catalog, schema, name);
 		suggestedIdentifierStrategies.put(identifier, idstrategy);
 	}
 	
+	/** @return the pool for the names read in this run */
+	public NamePool getNamePool() {
+		return namePool;
+	}
+	
+	/** @return the pool of the collector, null if it is not an {@link AbstractDatabaseCollector} */
+	public static NamePool getNamePool(DatabaseCollector dbs) {
+		return dbs instanceof AbstractDatabaseCollector ? ((AbstractDatabaseCollector) dbs).getNamePool() : null;
+	}
+	
 	protected String quote(String name) {
 		if (name == null)
 			return name;
@@ -7,6 +7,7 @@ import java.util.Map;
 import org.hibernate.JDBCException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Table;
 import org.hibernate.tool.util.TableNameQualifier;
@@ -22,25 +23,26 @@ public class BasicColumnProcessor {
 			ReverseEngineeringStrategy revengStrategy, 
 			String defaultSchema, String defaultCatalog, 
 			Table table, 
+			NamePool names,
 			ProgressListener progress) {
 		
 		String qualify = TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() );
-		Iterator<?> columnIterator = null;
+		Iterator<Map<String, Object>> columnIterator = null;
 		
 		try {
-			Map<?, ?> columnRs = null;
+			MetaDataRow row = new MetaDataRow(MetaDataRow.COLUMNS, names);
 			log.debug("Finding columns for " + qualify );
 			progress.startSubTask("Finding columns for " + qualify);
 			columnIterator = metaDataDialect.getColumns(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName(), null);
 			//dumpHeader(columnRs);
 			while (columnIterator.hasNext() ) {
 				//dumpRow(columnRs);
-				columnRs = (Map<?, ?>) columnIterator.next();
-				String tableName = (String) columnRs.get("TABLE_NAME");
-				int sqlType = ((Integer)columnRs.get("DATA_TYPE")).intValue();
-				//String sqlTypeName = (String) columnRs.get("TYPE_NAME");
-				String columnName = (String) columnRs.get("COLUMN_NAME");
-				String comment = (String) columnRs.get("REMARKS");
+				MetaDataRow columnRs = row.wrap(columnIterator.next());
+				String tableName = columnRs.getString(MetaDataRow.TABLE_NAME);
+				int sqlType = columnRs.getInt(MetaDataRow.DATA_TYPE);
+				//String sqlTypeName = columnRs.getString(MetaDataRow.TYPE_NAME);
+				String columnName = columnRs.getString(MetaDataRow.COLUMN_NAME);
+				String comment = columnRs.getString(MetaDataRow.REMARKS);
 				
 				TableIdentifier ti = RevEngUtils.createTableIdentifier(table, defaultCatalog, defaultSchema);
 				if(revengStrategy.excludeColumn(ti, columnName)) {
@@ -53,7 +55,7 @@ public class BasicColumnProcessor {
 				}
 				
 				//String columnDefaultValue = columnRs.getString("COLUMN_DEF"); TODO: only read if have a way to avoid issues with clobs/lobs and similar
-				int dbNullability = ((Integer)columnRs.get("NULLABLE")).intValue();
+				int dbNullability = columnRs.getInt(MetaDataRow.NULLABLE);
 				boolean isNullable = true;
 				switch (dbNullability) {
 				case DatabaseMetaData.columnNullable:
@@ -67,8 +69,8 @@ public class BasicColumnProcessor {
 					isNullable = true;
 				}
 				
-				int size = ((Integer)columnRs.get("COLUMN_SIZE")).intValue();
-				int decimalDigits = ((Integer)columnRs.get("DECIMAL_DIGITS")).intValue();
+				int size = columnRs.getInt(MetaDataRow.COLUMN_SIZE);
+				int decimalDigits = columnRs.getInt(MetaDataRow.DECIMAL_DIGITS);
 				
 				Column column = new Column();
 				column.setName(quote(columnName, metaDataDialect));
@@ -0,0 +1,178 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.mapping.Column;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers the names the delegate comes up with for tables, columns and foreignkeys.
+ *
+ * The binder, the OverrideRepository and the delegates themselves ask for the same names
+ * many times; the naming callbacks only depend on their arguments, so the answer is
+ * computed once per table, column or foreignkey. For foreignkeys only the names of the
+ * columns are taken into account, as documented on {@link ReverseEngineeringStrategy}.
+ *
+ * To be effective this strategy must be the root strategy of the {@link ReverseEngineeringSettings},
+ * so delegates asking the root for a class name get the cached one. Caching is switched
+ * on or off by {@link ReverseEngineeringSettings#getCacheNamingDecisions()} when the
+ * settings are set, and the cache is cleared as the settings can change the names.
+ */
+public class CachingReverseEngineeringStrategy extends DelegatingReverseEngineeringStrategy {
+
+	static final private Logger log = LoggerFactory.getLogger(CachingReverseEngineeringStrategy.class);
+
+	/** stands in for null names, which the maps cannot hold */
+	private static final Object NULL = new Object();
+
+	private final ConcurrentMap<Object, Object> classNames = new ConcurrentHashMap<Object, Object>();
+	private final ConcurrentMap<Object, Object> propertyNames = new ConcurrentHashMap<Object, Object>();
+	private final ConcurrentMap<Object, Object> collectionNames = new ConcurrentHashMap<Object, Object>();
+	private final ConcurrentMap<Object, Object> entityNames = new ConcurrentHashMap<Object, Object>();
+	private final ConcurrentMap<Object, Object> inverseEntityNames = new ConcurrentHashMap<Object, Object>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private volatile boolean enabled = true;
+
+	public CachingReverseEngineeringStrategy(ReverseEngineeringStrategy delegate) {
+		super(delegate);
+	}
+
+	public void setSettings(ReverseEngineeringSettings settings) {
+		super.setSettings(settings);
+		enabled = settings.getCacheNamingDecisions();
+		clear();
+	}
+
+	public void close() {
+		if(log.isDebugEnabled()) {
+			log.debug("Naming decisions: " + getHitCount() + " hits, " + getMissCount() + " misses");
+		}
+		super.close();
+	}
+
+	public String tableToClassName(TableIdentifier tableIdentifier) {
+		if(!enabled) {
+			return super.tableToClassName(tableIdentifier);
+		}
+		Object cached = classNames.get(tableIdentifier);
+		if(cached==null) {
+			cached = remember(classNames, tableIdentifier, super.tableToClassName(tableIdentifier));
+		} else {
+			hits.incrementAndGet();
+		}
+		return unwrap(cached);
+	}
+
+	public String columnToPropertyName(TableIdentifier table, String column) {
+		if(!enabled) {
+			return super.columnToPropertyName(table, column);
+		}
+		List<Object> key = Arrays.<Object>asList(table, column);
+		Object cached = propertyNames.get(key);
+		if(cached==null) {
+			cached = remember(propertyNames, key, super.columnToPropertyName(table, column));
+		} else {
+			hits.incrementAndGet();
+		}
+		return unwrap(cached);
+	}
+
+	public String foreignKeyToCollectionName(String keyname, TableIdentifier fromTable, List<?> fromColumns, TableIdentifier referencedTable, List<?> referencedColumns, boolean uniqueReference) {
+		if(!enabled) {
+			return super.foreignKeyToCollectionName(keyname, fromTable, fromColumns, referencedTable, referencedColumns, uniqueReference);
+		}
+		List<Object> key = foreignKey(keyname, fromTable, fromColumns, referencedTable, referencedColumns, uniqueReference);
+		Object cached = collectionNames.get(key);
+		if(cached==null) {
+			cached = remember(collectionNames, key, super.foreignKeyToCollectionName(keyname, fromTable, fromColumns, referencedTable, referencedColumns, uniqueReference));
+		} else {
+			hits.incrementAndGet();
+		}
+		return unwrap(cached);
+	}
+
+	public String foreignKeyToEntityName(String keyname, TableIdentifier fromTable, List<?> fromColumnNames, TableIdentifier referencedTable, List<?> referencedColumnNames, boolean uniqueReference) {
+		if(!enabled) {
+			return super.foreignKeyToEntityName(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference);
+		}
+		List<Object> key = foreignKey(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference);
+		Object cached = entityNames.get(key);
+		if(cached==null) {
+			cached = remember(entityNames, key, super.foreignKeyToEntityName(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference));
+		} else {
+			hits.incrementAndGet();
+		}
+		return unwrap(cached);
+	}
+
+	public String foreignKeyToInverseEntityName(String keyname, TableIdentifier fromTable, List<?> fromColumnNames, TableIdentifier referencedTable, List<?> referencedColumnNames, boolean uniqueReference) {
+		if(!enabled) {
+			return super.foreignKeyToInverseEntityName(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference);
+		}
+		List<Object> key = foreignKey(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference);
+		Object cached = inverseEntityNames.get(key);
+		if(cached==null) {
+			cached = remember(inverseEntityNames, key, super.foreignKeyToInverseEntityName(keyname, fromTable, fromColumnNames, referencedTable, referencedColumnNames, uniqueReference));
+		} else {
+			hits.incrementAndGet();
+		}
+		return unwrap(cached);
+	}
+
+	/** @return number of names answered from the cache */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/** @return number of names the delegate had to compute */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public void clear() {
+		classNames.clear();
+		propertyNames.clear();
+		collectionNames.clear();
+		entityNames.clear();
+		inverseEntityNames.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	private Object remember(ConcurrentMap<Object, Object> cache, Object key, String name) {
+		misses.incrementAndGet();
+		Object value = name==null ? NULL : name;
+		cache.put(key, value);
+		return value;
+	}
+
+	private static String unwrap(Object cached) {
+		return cached==NULL ? null : (String) cached;
+	}
+
+	private static List<Object> foreignKey(String keyname, TableIdentifier fromTable, List<?> fromColumns, TableIdentifier referencedTable, List<?> referencedColumns, boolean uniqueReference) {
+		return Arrays.<Object>asList(keyname, fromTable, columnNames(fromColumns), referencedTable, columnNames(referencedColumns), Boolean.valueOf(uniqueReference));
+	}
+
+	private static List<Object> columnNames(List<?> columns) {
+		if(columns==null) {
+			return null;
+		}
+		List<Object> names = new ArrayList<Object>(columns.size());
+		for (Iterator<?> iter = columns.iterator(); iter.hasNext();) {
+			Object column = iter.next();
+			names.add(column instanceof Column ? ((Column) column).getName() : column);
+		}
+		return names;
+	}
+}
@@ -14,12 +14,12 @@ import org.hibernate.tool.util.TableNameQualifier;
 
 public class DefaultDatabaseCollector extends AbstractDatabaseCollector  {
 
-	private Map<String, Table> tables;		
+	private Map<TableIdentifier, Table> tables;		
 	private Map<String, List<Table>> qualifiers;
 
 	public DefaultDatabaseCollector(MetaDataDialect metaDataDialect) {
 		super(metaDataDialect);
-		tables = new HashMap<String, Table>();
+		tables = new HashMap<TableIdentifier, Table>();
 		qualifiers = new HashMap<String, List<Table>>();
 	}
 	
@@ -31,7 +31,11 @@ public class DefaultDatabaseCollector extends AbstractDatabaseCollector  {
 			String catalog, 
 			String name) {
 		
-        String key = TableNameQualifier.qualify(quote(catalog), quote(schema), quote(name));
+		NamePool names = getNamePool();
+		schema = names.intern(schema);
+		catalog = names.intern(catalog);
+		name = names.intern(name);
+		TableIdentifier key = key(schema, catalog, name);
 		Table table = (Table) tables.get(key);
 		
 		if (table == null) {
@@ -42,7 +46,7 @@ public class DefaultDatabaseCollector extends AbstractDatabaseCollector  {
 			table.setCatalog(catalog);
 			tables.put(key, table);
 			
-			String qualifier = StringHelper.qualifier(key);
+			String qualifier = StringHelper.qualifier(TableNameQualifier.qualify(key.getCatalog(), key.getSchema(), key.getName()));
 			List<Table> schemaList = qualifiers.get(qualifier);
 			if(schemaList==null) {
 				schemaList = new ArrayList<Table>();
@@ -58,8 +62,11 @@ public class DefaultDatabaseCollector extends AbstractDatabaseCollector  {
 	}
 
 	public Table getTable(String schema, String catalog, String name) {
-        String key = TableNameQualifier.qualify(quote(catalog), quote(schema), quote(name));
-		return (Table) tables.get(key);
+		return (Table) tables.get(key(schema, catalog, name));
+	}
+	
+	private TableIdentifier key(String schema, String catalog, String name) {
+		return new TableIdentifier(quote(catalog), quote(schema), quote(name));
 	}
 
 	public Iterator<Entry<String, List<Table>>> getQualifierEntries() {
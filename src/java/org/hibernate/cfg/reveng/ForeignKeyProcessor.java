@@ -10,6 +10,7 @@ import org.hibernate.JDBCException;
 import org.hibernate.MappingException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Table;
@@ -44,20 +45,20 @@ public class ForeignKeyProcessor {
         log.debug("Calling getExportedKeys on " + referencedTable);
         progress.startSubTask("Finding exported foreignkeys on " + referencedTable.getName());
         try {
-        	Map<String, Object> exportedKeyRs = null;
+        	MetaDataRow row = new MetaDataRow(MetaDataRow.EXPORTED_KEYS, AbstractDatabaseCollector.getNamePool(dbs));
         	exportedKeyIterator = metaDataDialect.getExportedKeys(getCatalogForDBLookup(referencedTable.getCatalog(), defaultCatalog), getSchemaForDBLookup(referencedTable.getSchema(), defaultSchema), referencedTable.getName() );
         try {
 			while (exportedKeyIterator.hasNext() ) {
-				exportedKeyRs = exportedKeyIterator.next();
-				String fkCatalog = getCatalogForModel((String) exportedKeyRs.get("FKTABLE_CAT"), defaultCatalog);
-				String fkSchema = getSchemaForModel((String) exportedKeyRs.get("FKTABLE_SCHEM"), defaultSchema);
-				String fkTableName = (String) exportedKeyRs.get("FKTABLE_NAME");
-				String fkColumnName = (String) exportedKeyRs.get("FKCOLUMN_NAME");
-				String pkColumnName = (String) exportedKeyRs.get("PKCOLUMN_NAME");
-				String fkName = (String) exportedKeyRs.get("FK_NAME");
-				short keySeq = ((Short)exportedKeyRs.get("KEY_SEQ")).shortValue();
+				MetaDataRow exportedKeyRs = row.wrap(exportedKeyIterator.next());
+				String fkCatalog = getCatalogForModel(exportedKeyRs.getString(MetaDataRow.FKTABLE_CAT), defaultCatalog);
+				String fkSchema = getSchemaForModel(exportedKeyRs.getString(MetaDataRow.FKTABLE_SCHEM), defaultSchema);
+				String fkTableName = exportedKeyRs.getString(MetaDataRow.FKTABLE_NAME);
+				String fkColumnName = exportedKeyRs.getString(MetaDataRow.FKCOLUMN_NAME);
+				String pkColumnName = exportedKeyRs.getString(MetaDataRow.PKCOLUMN_NAME);
+				String fkName = exportedKeyRs.getString(MetaDataRow.FK_NAME);
+				short keySeq = exportedKeyRs.getShort(MetaDataRow.KEY_SEQ);
 								
-				Table fkTable = dbs.getTable((String) exportedKeyRs.get("FKTABLE_SCHEM"), (String) exportedKeyRs.get("FKTABLE_CAT"), fkTableName);
+				Table fkTable = dbs.getTable(exportedKeyRs.getString(MetaDataRow.FKTABLE_SCHEM), exportedKeyRs.getString(MetaDataRow.FKTABLE_CAT), fkTableName);
 				
 				if (fkTable == null) {
 					fkTable = dbs.getTable(
@@ -11,6 +11,7 @@ import java.util.Map.Entry;
 import org.hibernate.JDBCException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Index;
 import org.hibernate.mapping.Table;
@@ -27,7 +28,8 @@ public class IndexProcessor {
 			MetaDataDialect metaDataDialect, 
 			String  defaultSchema, 
 			String defaultCatalog, 
-			Table table) {
+			Table table, 
+			NamePool names) {
 		
 		Map<String, Index> indexes = new HashMap<String, Index>(); // indexname (String) -> Index
 		Map<String, UniqueKey> uniquekeys = new HashMap<String, UniqueKey>(); // name (String) -> UniqueKey
@@ -35,14 +37,14 @@ public class IndexProcessor {
 		
 		Iterator<Map<String, Object>> indexIterator = null;
 		try {
-			Map<String,Object> indexRs = null;	
+			MetaDataRow row = new MetaDataRow(MetaDataRow.INDEX_INFO, names);
 			indexIterator = metaDataDialect.getIndexInfo(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName());
 			
 			while (indexIterator.hasNext() ) {
-				indexRs = indexIterator.next();
-				String indexName = (String) indexRs.get("INDEX_NAME");
-				String columnName = (String) indexRs.get("COLUMN_NAME");
-				boolean unique = !((Boolean)indexRs.get("NON_UNIQUE")).booleanValue();
+				MetaDataRow indexRs = row.wrap(indexIterator.next());
+				String indexName = indexRs.getString(MetaDataRow.INDEX_NAME);
+				String columnName = indexRs.getString(MetaDataRow.COLUMN_NAME);
+				boolean unique = !indexRs.getBoolean(MetaDataRow.NON_UNIQUE);
 				
 				if (columnName != null || indexName != null) { // both can be non-null with statistical indexs which we don't have any use for.
 					
@@ -91,7 +93,7 @@ public class IndexProcessor {
 					
 				} 
 				else {
-					if(DatabaseMetaData.tableIndexStatistic != ((Short)indexRs.get("TYPE")).shortValue() ) {
+					if(DatabaseMetaData.tableIndexStatistic != indexRs.getShort(MetaDataRow.TYPE) ) {
 						log.warn("Index was not statistical, but no column name was found in " + indexName);
 					}
 						
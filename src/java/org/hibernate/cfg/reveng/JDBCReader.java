@@ -12,15 +12,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.cfg.reveng.dialect.BulkMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.PrefetchingMetaDataDialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.exception.spi.SQLExceptionConverter;
 import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class JDBCReader {
 
+	private static final Logger log = LoggerFactory.getLogger(JDBCReader.class);
+
 	private final ReverseEngineeringStrategy revengStrategy;
 	
 	private MetaDataDialect metadataDialect;
@@ -32,6 +45,12 @@ public class JDBCReader {
 	private final String defaultSchema;
 	private final String defaultCatalog;
 	
+	private int threadCount = 1;
+	
+	private boolean bulkRead = false;
+	
+	private TableReadListener tableReadListener;
+	
 	public JDBCReader(MetaDataDialect dialect, ConnectionProvider provider, SQLExceptionConverter sec, String defaultCatalog, String defaultSchema, ReverseEngineeringStrategy reveng) {
 		this.metadataDialect = dialect;
 		this.provider = provider;
@@ -63,18 +82,39 @@ public class JDBCReader {
 				}
 			}
 			
-			Iterator<Table> tables = foundTables.iterator(); // not dbs.iterateTables() to avoid "double-read" of columns etc.
-			while ( tables.hasNext() ) {
-				Table table = tables.next();
-				BasicColumnProcessor.processBasicColumns(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, table, progress);
-				PrimaryKeyProcessor.processPrimaryKey(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table);
-				if(hasIndices.contains(table)) {
-					IndexProcessor.processIndices(getMetaDataDialect(), defaultSchema, defaultCatalog, table);
+			List<ForeignKeysInfo> fks;
+			MetaDataDialect[] workerDialects = null;
+			MetaDataDialect dialect = getMetaDataDialect();
+			if(bulkRead && PrefetchingMetaDataDialect.supportsBulkMetaData(dialect)) {
+				// one query per schema instead of per table; no need for worker threads.
+				dialect = new PrefetchingMetaDataDialect(dialect);
+			} 
+			else {
+				workerDialects = createWorkerDialects(info, foundTables.size());
+			}
+			if(workerDialects==null) {
+				try {
+					Iterator<Table> tables = foundTables.iterator(); // not dbs.iterateTables() to avoid "double-read" of columns etc.
+					while ( tables.hasNext() ) {
+						Table table = tables.next();
+						processTable(dialect, dbs, table, hasIndices, progress);
+					}
+					
+					tables = foundTables.iterator(); //dbs.iterateTables();
+					fks = readForeignKeys( dialect, dbs, tables, progress );
+				} 
+				finally {
+					// the prefetching dialect holds open statements and result sets, also when reading failed
+					if(dialect!=getMetaDataDialect()) {
+						dialect.close();
+					}
 				}
+			} 
+			else {
+				fks = readTablesInParallel(workerDialects, dbs, foundTables, hasIndices, progress);
 			}
 			
-			tables = foundTables.iterator(); //dbs.iterateTables();
-			Map<String, List<ForeignKey>> oneToManyCandidates = resolveForeignKeys( dbs, tables, progress );
+			Map<String, List<ForeignKey>> oneToManyCandidates = resolveForeignKeys( fks );
 			
 			dbs.setOneToManyCandidates(oneToManyCandidates);
 			
@@ -85,6 +125,17 @@ public class JDBCReader {
 		}
 	}
 
+	private void processTable(MetaDataDialect dialect, DatabaseCollector dbs, Table table, Set<Table> hasIndices, ProgressListener progress) {
+		BasicColumnProcessor.processBasicColumns(dialect, revengStrategy, defaultSchema, defaultCatalog, table, AbstractDatabaseCollector.getNamePool(dbs), progress);
+		PrimaryKeyProcessor.processPrimaryKey(dialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table);
+		if(hasIndices.contains(table)) {
+			IndexProcessor.processIndices(dialect, defaultSchema, defaultCatalog, table, AbstractDatabaseCollector.getNamePool(dbs));
+		}
+		if(tableReadListener!=null) {
+			tableReadListener.tableRead(table);
+		}
+	}
+
 	/**
 	 * Iterates the tables and find all the foreignkeys that refers to something that is available inside the DatabaseCollector.
 	 * @param dbs
@@ -92,7 +143,7 @@ public class JDBCReader {
 	 * @param tables
 	 * @return
 	 */
-	private Map<String, List<ForeignKey>> resolveForeignKeys(DatabaseCollector dbs, Iterator<Table> tables, ProgressListener progress) {
+	private List<ForeignKeysInfo> readForeignKeys(MetaDataDialect dialect, DatabaseCollector dbs, Iterator<Table> tables, ProgressListener progress) {
 		List<ForeignKeysInfo> fks = new ArrayList<ForeignKeysInfo>();
 		while ( tables.hasNext() ) {
 			Table table = (Table) tables.next();
@@ -100,10 +151,140 @@ public class JDBCReader {
 			// all referenced tables (this ensure the columns are the same instances througout the basic JDBC derived model.
 			// after this stage it should be "ok" to divert from keeping columns in sync as it can be required if the same 
 			//column is used with different aliases in the ORM mapping.
-			ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
+			ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(dialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
 			fks.add( foreignKeys );				  	   
 		}
-		
+		return fks;
+	}
+	
+	/**
+	 * Reads columns, primary keys, indexes and foreign keys for the found tables using one worker per dialect.
+	 * Every worker has its own dialect and thus its own connection; a table is only ever handled by one worker.
+	 * The foreign key information is returned in the same order as <code>foundTables</code> so the 
+	 * following merge is identical to the serial read.
+	 */
+	private List<ForeignKeysInfo> readTablesInParallel(
+			final MetaDataDialect[] workerDialects, 
+			final DatabaseCollector dbs, 
+			final List<Table> foundTables, 
+			final Set<Table> hasIndices, 
+			ProgressListener progress) {
+		final ProgressListener syncProgress = new SynchronizedProgressListener(progress);
+		final ForeignKeysInfo[] fks = new ForeignKeysInfo[foundTables.size()];
+		ExecutorService executor = Executors.newFixedThreadPool(workerDialects.length);
+		try {
+			processInParallel(executor, workerDialects, foundTables, new TableTask() {
+				public void process(MetaDataDialect dialect, int index, Table table) {
+					processTable(dialect, dbs, table, hasIndices, syncProgress);
+				}
+			});
+			// foreign keys can first be read when all columns are known
+			processInParallel(executor, workerDialects, foundTables, new TableTask() {
+				public void process(MetaDataDialect dialect, int index, Table table) {
+					fks[index] = ForeignKeyProcessor.processForeignKeys(dialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table, syncProgress);
+				}
+			});
+		} 
+		finally {
+			executor.shutdownNow();
+			// index 0 is the main dialect which is closed by readDatabaseSchema
+			for (int i = 1; i < workerDialects.length; i++) {
+				try {
+					workerDialects[i].close();
+				} catch(RuntimeException e) {
+					log.warn("Exception while closing worker metadata dialect", e);
+				}
+			}
+		}
+		List<ForeignKeysInfo> result = new ArrayList<ForeignKeysInfo>(fks.length);
+		for (int i = 0; i < fks.length; i++) {
+			result.add(fks[i]);
+		}
+		return result;
+	}
+	
+	private void processInParallel(ExecutorService executor, MetaDataDialect[] workerDialects, final List<Table> tables, final TableTask task) {
+		final AtomicInteger next = new AtomicInteger();
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(workerDialects.length);
+		for (int i = 0; i < workerDialects.length; i++) {
+			final MetaDataDialect dialect = workerDialects[i];
+			futures.add(executor.submit(new Callable<Object>() {
+				public Object call() {
+					int index;
+					while((index = next.getAndIncrement()) < tables.size()) {
+						task.process(dialect, index, tables.get(index));
+					}
+					return null;
+				}
+			}));
+		}
+		RuntimeException failure = null;
+		for (Iterator<Future<Object>> iter = futures.iterator(); iter.hasNext();) {
+			Future<Object> future = iter.next();
+			try {
+				future.get();
+			} 
+			catch (ExecutionException e) {
+				// make the other workers stop picking up tables
+				next.set(tables.size());
+				if(failure==null) {
+					failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new JDBCBinderException("Error while reading database metadata", e.getCause());
+				}
+			} 
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				next.set(tables.size());
+				if(failure==null) {
+					failure = new JDBCBinderException("Interrupted while reading database metadata", e);
+				}
+			}
+		}
+		if(failure!=null) {
+			throw failure;
+		}
+	}
+	
+	/**
+	 * Creates the dialects used by the parallel read; the first element is always the main dialect.
+	 * @return null if the tables should be read serially with the main dialect.
+	 */
+	private MetaDataDialect[] createWorkerDialects(ReverseEngineeringRuntimeInfo info, int tableCount) {
+		int workers = Math.min(threadCount, tableCount);
+		if(workers<=1) {
+			return null;
+		}
+		MetaDataDialect[] result = new MetaDataDialect[workers];
+		result[0] = getMetaDataDialect();
+		for (int i = 1; i < workers; i++) {
+			MetaDataDialect dialect = createWorkerDialect();
+			if(dialect==null) {
+				for (int j = 1; j < i; j++) {
+					result[j].close();
+				}
+				return null;
+			}
+			dialect.configure(info);
+			result[i] = dialect;
+		}
+		log.debug("Reading metadata for " + tableCount + " tables using " + workers + " threads");
+		return result;
+	}
+	
+	/**
+	 * Create a new, unconfigured instance of the main dialect to be used by a worker thread. 
+	 * @return null if the dialect cannot be instantiated, in which case the tables are read serially.
+	 */
+	protected MetaDataDialect createWorkerDialect() {
+		try {
+			return getMetaDataDialect().getClass().newInstance();
+		} 
+		catch (Exception e) {
+			log.warn("Could not create worker instance of " + getMetaDataDialect().getClass().getName() + ", reading metadata serially [" + e + "]");
+			return null;
+		}
+	}
+	
+	private Map<String, List<ForeignKey>> resolveForeignKeys(List<ForeignKeysInfo> fks) {
 		Map<String, List<ForeignKey>> oneToManyCandidates = new HashMap<String, List<ForeignKey>>();			
 		for (Iterator<ForeignKeysInfo> iter = fks.iterator(); iter.hasNext();) {
 			ForeignKeysInfo element = iter.next();
@@ -117,6 +298,43 @@ public class JDBCReader {
 		return metadataDialect;
 	}
 	
+	/**
+	 * Number of threads used to read column, key and index metadata. Each thread uses its own
+	 * connection from the ConnectionProvider. Values less than or equal to 1 means serial reading.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+	
+	public int getThreadCount() {
+		return threadCount;
+	}
+	
+	/**
+	 * If true and the dialect is a {@link BulkMetaDataDialect} supporting it, columns, primary keys, indexes and 
+	 * foreign keys are read with one query per catalog/schema instead of one query per table. 
+	 * Other dialects are still read per table.
+	 */
+	public void setBulkRead(boolean bulkRead) {
+		this.bulkRead = bulkRead;
+	}
+	
+	public boolean isBulkRead() {
+		return bulkRead;
+	}
+	
+	/**
+	 * Listener told about every table whose columns, primary key and indexes have been read, 
+	 * while the remaining tables are still being read.
+	 */
+	public void setTableReadListener(TableReadListener tableReadListener) {
+		this.tableReadListener = tableReadListener;
+	}
+	
+	public TableReadListener getTableReadListener() {
+		return tableReadListener;
+	}
+	
 	    private void mergeMultiMap(Map<String, List<ForeignKey>> dest, Map<String, List<ForeignKey>> src) {
 	    	Iterator<Entry<String, List<ForeignKey>>> items = src.entrySet().iterator();
 	    	
@@ -139,6 +357,20 @@ public class JDBCReader {
 			}
 		}
 		
+		static class SynchronizedProgressListener implements ProgressListener {
+			private final ProgressListener delegate;
+			SynchronizedProgressListener(ProgressListener delegate) {
+				this.delegate = delegate;
+			}
+			public synchronized void startSubTask(String name) {
+				delegate.startSubTask(name);
+			}
+		}
+		
+		private interface TableTask {
+			void process(MetaDataDialect dialect, int index, Table table);
+		}
+		
 		public List<Table> readDatabaseSchema(DatabaseCollector dbs, String catalog, String schema) {
 			return readDatabaseSchema(dbs, catalog, schema, new NoopProgressListener());
 		}
@@ -20,7 +20,8 @@ public class MappingsDatabaseCollector extends AbstractDatabaseCollector {
 	}
 
 	public Table addTable(String schema, String catalog, String name) {
-		return metadataCollector.addTable(quote(schema), quote(catalog), quote(name), null, false);
+		NamePool names = getNamePool();
+		return metadataCollector.addTable(quote(names.intern(schema)), quote(names.intern(catalog)), quote(names.intern(name)), null, false);
 	}
 
 	public Table getTable(String schema, String catalog, String name) {
@@ -35,7 +36,7 @@ public class MappingsDatabaseCollector extends AbstractDatabaseCollector {
 	}
 	
 	private boolean equalOrBothNull(String left, String right) {
-		return ((left == null) && (right == null)) || ((left != null) && left.equals(right));
+		return (left == right) || ((left != null) && left.equals(right));
 	}
 	
 }
@@ -0,0 +1,38 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the catalog, schema, table, column and type names read during one reverse engineering run.
+ *
+ * Every metadata row repeats the names of its table and schema; without the pool each of them would
+ * be a separate String in the model. Names from the pool can be compared by identity first, which
+ * {@link TableIdentifier} does. Unlike {@link String#intern()} the names go away with the run.
+ *
+ * The pool is owned by the {@link DatabaseCollector} of the run and can be used by several threads.
+ */
+public class NamePool {
+
+	private final ConcurrentMap<String, String> names = new ConcurrentHashMap<String, String>();
+
+	/** @return the pooled instance equal to the name, null for null */
+	public String intern(String name) {
+		if(name==null) {
+			return null;
+		}
+		String pooled = names.get(name);
+		if(pooled==null) {
+			pooled = names.putIfAbsent(name, name);
+			if(pooled==null) {
+				pooled = name;
+			}
+		}
+		return pooled;
+	}
+
+	/** @return number of distinct names in the pool */
+	public int size() {
+		return names.size();
+	}
+}
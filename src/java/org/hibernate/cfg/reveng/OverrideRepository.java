@@ -34,6 +34,8 @@ public class OverrideRepository  {
 
 	final private List<TableFilter> tableFilters;
 
+	private volatile TableFilterIndex tableFilterIndex; // built on first lookup, dropped when a filter is added
+
 	final private List tables;
 	final private Map foreignKeys; // key: TableIdentifier element: List of foreignkeys that references the Table
 
@@ -232,42 +234,31 @@ public class OverrideRepository  {
 	}
 
 	protected String getPackageName(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		while(iterator.hasNext() ) {
-			TableFilter tf = iterator.next();
-			String value = tf.getPackage(identifier);
-			if(value!=null) {
-				return value;
-			}
-		}
-		return null;
+		return getTableFilterIndex().getDecision(identifier).packageName;
 	}
 
 	protected boolean excludeTable(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		boolean hasInclude = false;
-
-		while(iterator.hasNext() ) {
-			TableFilter tf = iterator.next();
-			Boolean value = tf.exclude(identifier);
-			if(value!=null) {
-				return value.booleanValue();
-			}
-			if(!tf.getExclude().booleanValue()) {
-				hasInclude = true;
-			}
-		}
+		return getTableFilterIndex().getDecision(identifier).exclude;
+	}
 
-		// can probably be simplified - but like this to be very explicit ;)
-		if(hasInclude) {
-			return true; // exclude all by default when at least one include specified
-		} else {
-			return false; // if nothing specified or just excludes we include everything
+	public void addTableFilter(TableFilter filter) {
+		synchronized (tableFilters) {
+			tableFilters.add(filter);
+			tableFilterIndex = null;
 		}
 	}
 
-	public void addTableFilter(TableFilter filter) {
-		tableFilters.add(filter);
+	private TableFilterIndex getTableFilterIndex() {
+		TableFilterIndex index = tableFilterIndex;
+		if(index==null) {
+			synchronized (tableFilters) {
+				if(tableFilterIndex==null) {
+					tableFilterIndex = new TableFilterIndex(tableFilters);
+				}
+				index = tableFilterIndex;
+			}
+		}
+		return index;
 	}
 
 	public ReverseEngineeringStrategy getReverseEngineeringStrategy(ReverseEngineeringStrategy delegate) {
@@ -526,15 +517,7 @@ public class OverrideRepository  {
 	}
 
 	private Map findGeneralAttributes(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		while(iterator.hasNext() ) {
-			TableFilter tf = iterator.next();
-			Map value = tf.getMetaAttributes(identifier);
-			if(value!=null) {
-				return value;
-			}
-		}
-		return null;
+		return (Map) getTableFilterIndex().getDecision(identifier).metaAttributes;
 	}
 
 	private Map toMetaAttributes(Map value) {
@@ -10,6 +10,7 @@ import java.util.Map;
 import org.hibernate.JDBCException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.PrimaryKey;
 import org.hibernate.mapping.Table;
@@ -33,19 +34,19 @@ public class PrimaryKeyProcessor {
 		PrimaryKey key = null;
 		Iterator<Map<String, Object>> primaryKeyIterator = null;
 		try {
-			Map<String, Object> primaryKeyRs = null;	
+			MetaDataRow row = new MetaDataRow(MetaDataRow.PRIMARY_KEYS, AbstractDatabaseCollector.getNamePool(dbs));
 			primaryKeyIterator = metaDataDialect.getPrimaryKeys(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName() );		
 		
 			while (primaryKeyIterator.hasNext() ) {
-				primaryKeyRs = primaryKeyIterator.next();
+				MetaDataRow primaryKeyRs = row.wrap(primaryKeyIterator.next());
 				
 				/*String ownCatalog = primaryKeyRs.getString("TABLE_CAT");
 				 String ownSchema = primaryKeyRs.getString("TABLE_SCHEM");
 				 String ownTable = primaryKeyRs.getString("TABLE_NAME");*/
 				
-				String columnName = (String) primaryKeyRs.get("COLUMN_NAME");
-				short seq = ((Short)primaryKeyRs.get("KEY_SEQ")).shortValue();
-				String name = (String) primaryKeyRs.get("PK_NAME");
+				String columnName = primaryKeyRs.getString(MetaDataRow.COLUMN_NAME);
+				short seq = primaryKeyRs.getShort(MetaDataRow.KEY_SEQ);
+				String name = primaryKeyRs.getString(MetaDataRow.PK_NAME);
 				
 				if(key==null) {
 					key = new PrimaryKey(table);
@@ -54,6 +54,11 @@ public class ReverseEngineeringRuntimeInfo {
 		return dbs.getTable(schema, catalog, name);				
 	}
 	
+	/** @return the pool for the names read in this run, null if the collector has none */
+	public NamePool getNamePool() {
+		return AbstractDatabaseCollector.getNamePool(dbs);
+	}
+	
 	
 		
 }
@@ -11,6 +11,7 @@ public class ReverseEngineeringSettings {
 	private boolean createManyToOneForForeignKey = true;
 	private boolean detectManyToMany = true;
 	private boolean detectOneToOne = true;
+	private boolean cacheNamingDecisions = false;
 
 	
 	public ReverseEngineeringSettings(ReverseEngineeringStrategy rootStrategy) {
@@ -83,6 +84,16 @@ public class ReverseEngineeringSettings {
 		return detectOneToOne;
 	}
 	
+	/** If true, a {@link CachingReverseEngineeringStrategy} remembers the names computed for tables, columns and foreignkeys */
+	public boolean getCacheNamingDecisions() {
+		return cacheNamingDecisions;
+	}
+	
+	public ReverseEngineeringSettings setCacheNamingDecisions(boolean b) {
+		this.cacheNamingDecisions = b;
+		return this;
+	}
+	
 	/** return the top/root strategy. Allows a lower strategy to ask another question. Be aware of possible recursive loops; e.g. do not call the root.tableToClassName in tableToClassName of a custom reversengineeringstrategy. */
 	public ReverseEngineeringStrategy getRootStrategy() {
 		return rootStrategy;
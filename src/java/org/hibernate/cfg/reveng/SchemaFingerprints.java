@@ -0,0 +1,391 @@
+package org.hibernate.cfg.reveng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeSet;
+
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.PrimaryKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.tool.util.DigestHelper;
+import org.hibernate.tool.util.TableNameQualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a fingerprint per table of the structure read from the database
+ * (columns, primary key, foreign keys, indexes and unique keys) and compares
+ * it with the fingerprints stored by the previous run to find the tables
+ * whose generated artifacts need to be refreshed.
+ *
+ * A table counts as changed when it is new, when its fingerprint differs or
+ * when a table it is linked to by a foreign key (in either direction) changed.
+ * Without a previous fingerprint file, or when the reverse engineering
+ * configuration changed, every table counts as changed. Producers of artifacts
+ * record their own configuration with {@link #isConfigurationChanged(String, String)}.
+ *
+ * The files generated per table are remembered as well, so the ones left behind
+ * by dropped tables can be reported.
+ */
+public class SchemaFingerprints {
+
+	private static final Logger log = LoggerFactory.getLogger(SchemaFingerprints.class);
+
+	// table keys are qualified names and never start with @
+	private static final String CONFIGURATION_PREFIX = "@configuration.";
+	private static final String ARTIFACTS_PREFIX = "@artifacts.";
+	private static final String STRATEGY = "strategy";
+
+	private final File file;
+	private final Properties previous = new Properties();
+	private final Properties current = new Properties();
+	private boolean previousLoaded = false;
+	private Set<Table> changedTables = null;
+	private boolean strategyChanged = false;
+	private final Map<String, Set<String>> artifacts = new HashMap<String, Set<String>>();
+	// the binder may still change the qualifiers of a table after it was read
+	private final Map<Table, String> tableKeys = new IdentityHashMap<Table, String>();
+
+	public SchemaFingerprints(File file) {
+		this.file = file;
+		load();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	private void load() {
+		if(!file.exists()) {
+			log.info("No schema fingerprints found at " + file + ", all tables are considered changed");
+			return;
+		}
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			previous.load(in);
+			previousLoaded = true;
+		}
+		catch (IOException e) {
+			log.warn("Could not read schema fingerprints from " + file + ", all tables are considered changed", e);
+			previous.clear();
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Records the configuration of the reverse engineering, e.g. the strategy, its settings and
+	 * the reveng.xml files. If it differs from the previous run every table counts as changed.
+	 * Must be called before {@link #update(Iterator)}.
+	 */
+	public void setStrategyConfiguration(String configuration) {
+		strategyChanged = isConfigurationChanged(STRATEGY, configuration);
+		if(strategyChanged && previousLoaded) {
+			log.info("Reverse engineering configuration changed since last run, all tables are considered changed");
+		}
+	}
+
+	/**
+	 * Records the configuration of a producer of artifacts, e.g. an exporter with its templates and
+	 * properties, used in this run.
+	 *
+	 * @return true if it differs from the previous run, in which case all its artifacts should be regenerated
+	 */
+	public boolean isConfigurationChanged(String name, String configuration) {
+		String key = CONFIGURATION_PREFIX + name;
+		String fingerprint = DigestHelper.hash(configuration);
+		current.setProperty(key, fingerprint);
+		return !previousLoaded || !fingerprint.equals(previous.getProperty(key));
+	}
+
+	/**
+	 * Remembers that the file was generated (or left untouched) for the table in this run.
+	 */
+	public synchronized void addArtifact(Table table, File file) {
+		String key = tableKeys.get(table);
+		if(key==null) {
+			key = key(table);
+		}
+		Set<String> files = artifacts.get(key);
+		if(files==null) {
+			files = new TreeSet<String>();
+			artifacts.put(key, files);
+		}
+		files.add(file.getAbsolutePath());
+	}
+
+	/**
+	 * @return the files generated by previous runs for tables that no longer exist, are still on 
+	 * disk and were not generated for another table in this run
+	 */
+	public synchronized List<File> getOrphanedArtifacts() {
+		Set<String> generated = new HashSet<String>();
+		for (Iterator<Set<String>> iter = artifacts.values().iterator(); iter.hasNext();) {
+			generated.addAll(iter.next());
+		}
+		List<File> result = new ArrayList<File>();
+		for (Iterator<Object> iter = previous.keySet().iterator(); iter.hasNext();) {
+			String key = (String) iter.next();
+			if(key.startsWith(ARTIFACTS_PREFIX) && !current.containsKey(key.substring(ARTIFACTS_PREFIX.length()))) {
+				for (Iterator<String> files = existingArtifacts(key).iterator(); files.hasNext();) {
+					String name = files.next();
+					if(!generated.contains(name)) {
+						result.add(new File(name));
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the fingerprints of the tables read and determines which of them changed.
+	 * Must be called after the foreign keys have been resolved.
+	 */
+	public void update(Iterator<Table> tables) {
+		List<Table> all = new ArrayList<Table>();
+		Set<Table> direct = newTableSet();
+		while (tables.hasNext()) {
+			Table table = tables.next();
+			all.add(table);
+			String key = key(table);
+			tableKeys.put(table, key);
+			String fingerprint = fingerprint(table);
+			current.setProperty(key, fingerprint);
+			if(!previousLoaded || strategyChanged || !fingerprint.equals(previous.getProperty(key))) {
+				direct.add(table);
+			}
+		}
+
+		// tables referencing or referenced by a changed table get new associations
+		Set<Table> changed = newTableSet();
+		changed.addAll(direct);
+		for (Iterator<Table> iter = all.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			Iterator<?> fks = table.getForeignKeyIterator();
+			while (fks.hasNext()) {
+				Table referenced = ((ForeignKey) fks.next()).getReferencedTable();
+				if(referenced==null) continue;
+				if(direct.contains(table)) {
+					changed.add(referenced);
+				}
+				if(direct.contains(referenced)) {
+					changed.add(table);
+				}
+			}
+		}
+
+		int removed = 0;
+		for (Iterator<Object> iter = previous.keySet().iterator(); iter.hasNext();) {
+			String key = (String) iter.next();
+			if(!key.startsWith("@") && !current.containsKey(key)) removed++;
+		}
+		changedTables = changed;
+		log.info(direct.size() + " of " + all.size() + " table(s) changed since last run, " + changed.size() + " with neighbours, " + removed + " removed");
+	}
+
+	/**
+	 * @return true if artifacts for the table have to be regenerated.
+	 */
+	public boolean isChanged(Table table) {
+		return changedTables==null || changedTables.contains(table);
+	}
+
+	/**
+	 * @return the changed tables or null if the fingerprints have not been computed yet.
+	 */
+	public Set<Table> getChangedTables() {
+		return changedTables==null ? null : Collections.unmodifiableSet(changedTables);
+	}
+
+	/**
+	 * Writes the current fingerprints so the next run can compare against them.
+	 * Should only be called once all artifacts have been generated successfully.
+	 * Files still on disk for dropped tables are reported, and again on every run until they are deleted.
+	 */
+	public synchronized void store() {
+		if(changedTables==null) {
+			throw new IllegalStateException("Schema fingerprints have not been computed");
+		}
+		List<File> orphaned = getOrphanedArtifacts();
+		for (Iterator<File> iter = orphaned.iterator(); iter.hasNext();) {
+			log.warn(iter.next() + " was generated for a table that no longer exists");
+		}
+		storeArtifacts();
+		File parent = file.getAbsoluteFile().getParentFile();
+		if(parent!=null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		File tmp = new File(file.getPath() + ".tmp");
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(tmp);
+			current.store(out, "Table fingerprints for incremental reverse engineering");
+		}
+		catch (IOException e) {
+			throw new JDBCBinderException("Could not write schema fingerprints to " + tmp, e);
+		}
+		finally {
+			close(out);
+		}
+		file.delete();
+		if(!tmp.renameTo(file)) {
+			throw new JDBCBinderException("Could not rename " + tmp + " to " + file);
+		}
+	}
+
+	private void storeArtifacts() {
+		// keeps the files of earlier runs, e.g. of exporters that did not run this time
+		Set<String> keys = new HashSet<String>(artifacts.keySet());
+		for (Iterator<Object> iter = previous.keySet().iterator(); iter.hasNext();) {
+			String key = (String) iter.next();
+			if(key.startsWith(ARTIFACTS_PREFIX)) {
+				keys.add(key.substring(ARTIFACTS_PREFIX.length()));
+			}
+		}
+		for (Iterator<String> iter = keys.iterator(); iter.hasNext();) {
+			String key = iter.next();
+			Set<String> files = new TreeSet<String>(existingArtifacts(ARTIFACTS_PREFIX + key));
+			if(artifacts.containsKey(key)) {
+				files.addAll(artifacts.get(key));
+			}
+			if(files.isEmpty()) {
+				current.remove(ARTIFACTS_PREFIX + key);
+				continue;
+			}
+			StringBuffer value = new StringBuffer();
+			for (Iterator<String> names = files.iterator(); names.hasNext();) {
+				value.append(names.next());
+				if(names.hasNext()) value.append(File.pathSeparatorChar);
+			}
+			current.setProperty(ARTIFACTS_PREFIX + key, value.toString());
+		}
+	}
+
+	private List<String> existingArtifacts(String key) {
+		List<String> result = new ArrayList<String>();
+		String value = previous.getProperty(key);
+		if(value!=null) {
+			StringTokenizer tokens = new StringTokenizer(value, File.pathSeparator);
+			while (tokens.hasMoreTokens()) {
+				String name = tokens.nextToken();
+				if(new File(name).exists()) {
+					result.add(name);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Describes the settings for {@link #setStrategyConfiguration(String)}.
+	 */
+	public static String describe(ReverseEngineeringSettings settings) {
+		return "package=" + settings.getDefaultPackageName()
+				+ ",detectManyToMany=" + settings.getDetectManyToMany()
+				+ ",detectOneToOne=" + settings.getDetectOneToOne()
+				+ ",detectOptimisticLock=" + settings.getDetectOptimsticLock()
+				+ ",createCollectionForForeignKey=" + settings.createCollectionForForeignKey()
+				+ ",createManyToOneForForeignKey=" + settings.createManyToOneForForeignKey()
+				+ ",cacheNamingDecisions=" + settings.getCacheNamingDecisions();
+	}
+
+	static String key(Table table) {
+		return TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName());
+	}
+
+	static String fingerprint(Table table) {
+		StringBuffer buf = new StringBuffer();
+		buf.append(key(table)).append('|').append(table.getComment()).append('\n');
+
+		Iterator<?> columns = table.getColumnIterator();
+		while (columns.hasNext()) {
+			Column column = (Column) columns.next();
+			buf.append("C:").append(column.getName())
+				.append(',').append(column.getSqlTypeCode())
+				.append(',').append(column.getSqlType())
+				.append(',').append(column.getLength())
+				.append(',').append(column.getPrecision())
+				.append(',').append(column.getScale())
+				.append(',').append(column.isNullable())
+				.append(',').append(column.isUnique())
+				.append(',').append(column.getComment())
+				.append('\n');
+		}
+
+		PrimaryKey pk = table.getPrimaryKey();
+		if(pk!=null) {
+			buf.append("P:").append(pk.getName()).append(columnNames(pk.getColumnIterator())).append('\n');
+		}
+
+		Set<String> parts = new TreeSet<String>();
+		Iterator<?> fks = table.getForeignKeyIterator();
+		while (fks.hasNext()) {
+			ForeignKey fk = (ForeignKey) fks.next();
+			Table referenced = fk.getReferencedTable();
+			parts.add("F:" + fk.getName() + ',' + (referenced==null ? fk.getReferencedEntityName() : key(referenced))
+					+ columnNames(fk.getColumnIterator()) + columnNames(fk.getReferencedColumns().iterator()));
+		}
+		Iterator<?> indexes = table.getIndexIterator();
+		while (indexes.hasNext()) {
+			Index index = (Index) indexes.next();
+			parts.add("I:" + index.getName() + columnNames(index.getColumnIterator()));
+		}
+		Iterator<?> uniqueKeys = table.getUniqueKeyIterator();
+		while (uniqueKeys.hasNext()) {
+			UniqueKey uk = (UniqueKey) uniqueKeys.next();
+			parts.add("U:" + uk.getName() + columnNames(uk.getColumnIterator()));
+		}
+		for (Iterator<String> iter = parts.iterator(); iter.hasNext();) {
+			buf.append(iter.next()).append('\n');
+		}
+
+		return DigestHelper.hash(buf.toString());
+	}
+
+	private static String columnNames(Iterator<?> columns) {
+		StringBuffer buf = new StringBuffer("(");
+		while (columns.hasNext()) {
+			buf.append(((Column) columns.next()).getName());
+			if(columns.hasNext()) buf.append(',');
+		}
+		return buf.append(')').toString();
+	}
+
+	private static Set<Table> newTableSet() {
+		// Table.hashCode() depends on catalog/schema which the binder may still change
+		return Collections.newSetFromMap(new IdentityHashMap<Table, Boolean>());
+	}
+
+	private static void close(java.io.Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+}
@@ -1,19 +1,30 @@
 package org.hibernate.cfg.reveng;
 
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 
 /**
  * 
  * A tablefilter that can tell if a TableIdentifier is included or excluded.
- * Note that all matching is case sensitive since many db's are. 
+ * Note that all matching is case sensitive since many db's are,
+ * use <code>(?i)</code> in the expression to match case insensitively.
  *  
  * @author max
  *
  */
 public class TableFilter {
 
-	// TODO: very basic substring matching. Possibly include regex functionallity ? (jdk 1.4 dep)
+	/**
+	 * Matches a catalog, schema or table name against a regular expression.
+	 * The forms <code>name</code>, <code>prefix.*</code>, <code>.*suffix</code>
+	 * and <code>.*substring.*</code> keep their literal meaning and are answered with 
+	 * plain string operations, so <code>BIN$.*</code> still matches all names starting 
+	 * with <code>BIN$</code>. Only if the literal part contains other regex constructs 
+	 * the filter is compiled as a {@link Pattern}; names matching the literal form 
+	 * still match then, as they did before regular expressions were supported.
+	 */
 	public static class Matcher {
 		
 		private static final int EQUALS = 1;
@@ -22,9 +33,16 @@ public class TableFilter {
 		private static final int SUBSTRING = 4;
 		private static final int ANY = 5;
 		
+		private static final String REGEX_CHARS = "\\[](){}.*+?^$|";
+		
+		/** regex characters that are common in table names, e.g. in Oracle's BIN$ recycle bin tables */
+		private static final String NAME_CHARS = "$";
+		
 		final int mode;
 		final String value;
 		final String matchValue;
+		final Pattern pattern;
+		final String literalPrefix;
 		
 		Matcher(String match) {
 			matchValue = match;
@@ -48,9 +66,37 @@ public class TableFilter {
 				mode = EQUALS;
 				value = match;
 			}
+			
+			Pattern compiled = null;
+			if(value!=null && !isLiteral(value) ) {
+				try {
+					compiled = Pattern.compile(match);
+				} 
+				catch (PatternSyntaxException e) {
+					// not a valid expression, so it can only have been meant literally
+				}
+			}
+			pattern = compiled;
+			
+			if(mode!=EQUALS && mode!=STARTSWITH) {
+				literalPrefix = "";
+			}
+			else if(pattern!=null) {
+				// a prefix of the expression's literal start is a prefix of value as well
+				literalPrefix = regexPrefix(match);
+			}
+			else {
+				literalPrefix = value;
+			}
 		}
 		
 		boolean match(String matchEnum) {
+			if(matchEnum==null) {
+				return mode==ANY;
+			}
+			if(pattern!=null && pattern.matcher(matchEnum).matches() ) {
+				return true;
+			}
 			switch (mode) {
 			case ANY: return true;
 			case EQUALS: return this.value.equals(matchEnum);
@@ -62,6 +108,50 @@ public class TableFilter {
 			}
 		}
 		
+		/**
+		 * @return true if only names equal to {@link #getLiteralPrefix()} can match
+		 */
+		boolean isExact() {
+			return mode==EQUALS && pattern==null;
+		}
+		
+		/**
+		 * @return the characters every matching name starts with, possibly empty
+		 */
+		String getLiteralPrefix() {
+			return literalPrefix;
+		}
+		
+		private static boolean isLiteral(String value) {
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if(REGEX_CHARS.indexOf(c)>=0 && NAME_CHARS.indexOf(c)<0) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		/** the literal characters before the first construct of the expression */
+		private static String regexPrefix(String regex) {
+			if(regex.indexOf('|')>=0) {
+				return ""; // an alternative may start with anything
+			}
+			StringBuffer prefix = new StringBuffer();
+			for (int i = 0; i < regex.length(); i++) {
+				char c = regex.charAt(i);
+				if(REGEX_CHARS.indexOf(c)<0) {
+					prefix.append(c);
+					continue;
+				}
+				if((c=='?' || c=='*' || c=='{') && prefix.length()>0) {
+					prefix.setLength(prefix.length()-1); // the last character is optional or repeated
+				}
+				break;
+			}
+			return prefix.toString();
+		}
+		
 		public String toString() {
 			return matchValue;
 		}
@@ -112,7 +202,7 @@ public class TableFilter {
 		return isRelevantFor(identifier) ? packageName : null;
 	}
 	
-	private boolean isRelevantFor(TableIdentifier identifier) {
+	boolean isRelevantFor(TableIdentifier identifier) {
 		if(catalogMatcher.match(identifier.getCatalog() ) ) {
 			if(schemaMatcher.match(identifier.getSchema() ) ) {
 				if(nameMatcher.match(identifier.getName() ) ) {
@@ -143,6 +233,10 @@ public class TableFilter {
 		return nameMatcher.matchValue;
 	}
 	
+	Matcher getNameMatcher() {
+		return nameMatcher;
+	}
+	
 	public Boolean getExclude() {
 		return exclude;
 	}
@@ -0,0 +1,143 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The table filters of an {@link OverrideRepository} indexed by the name they match.
+ *
+ * Filters matching an exact name or names with a literal prefix are bucketed
+ * by that name or prefix, so only the filters that can possibly match a table
+ * are evaluated; the rest are always evaluated. Filters are still evaluated in the
+ * order they were added, the first relevant one wins as before.
+ * The decision for a table is computed once and remembered.
+ *
+ * Filters must not be changed after the index has been built.
+ */
+class TableFilterIndex {
+
+	static final class Decision {
+		final boolean exclude;
+		final String packageName;
+		final Map<?,?> metaAttributes;
+
+		Decision(boolean exclude, String packageName, Map<?,?> metaAttributes) {
+			this.exclude = exclude;
+			this.packageName = packageName;
+			this.metaAttributes = metaAttributes;
+		}
+	}
+
+	private final List<TableFilter> filters;
+	private final Map<String, BitSet> exactNames = new HashMap<String, BitSet>();
+	private final Map<String, BitSet> prefixes = new HashMap<String, BitSet>();
+	private final int[] prefixLengths;
+	private final BitSet unindexed = new BitSet();
+	private final boolean hasInclude;
+	private final Map<TableIdentifier, Decision> decisions = new ConcurrentHashMap<TableIdentifier, Decision>();
+
+	TableFilterIndex(List<TableFilter> tableFilters) {
+		filters = new ArrayList<TableFilter>(tableFilters);
+		TreeSet<Integer> lengths = new TreeSet<Integer>();
+		boolean include = false;
+		for (int i = 0; i < filters.size(); i++) {
+			TableFilter tf = filters.get(i);
+			if(tf.getExclude()!=null && !tf.getExclude().booleanValue()) {
+				include = true;
+			}
+			TableFilter.Matcher matcher = tf.getNameMatcher();
+			String prefix = matcher.getLiteralPrefix();
+			if(matcher.isExact()) {
+				bucket(exactNames, prefix).set(i);
+			}
+			else if(prefix.length()>0) {
+				bucket(prefixes, prefix).set(i);
+				lengths.add(Integer.valueOf(prefix.length()));
+			}
+			else {
+				unindexed.set(i);
+			}
+		}
+		hasInclude = include;
+		prefixLengths = new int[lengths.size()];
+		int j = 0;
+		for (Iterator<Integer> iter = lengths.iterator(); iter.hasNext();) {
+			prefixLengths[j++] = iter.next().intValue();
+		}
+	}
+
+	Decision getDecision(TableIdentifier identifier) {
+		Decision decision = decisions.get(identifier);
+		if(decision==null) {
+			decision = decide(identifier);
+			decisions.put(identifier, decision);
+		}
+		return decision;
+	}
+
+	int size() {
+		return filters.size();
+	}
+
+	/** @return the filters that may match the table, in the order they were added */
+	BitSet getCandidates(String name) {
+		BitSet candidates = (BitSet) unindexed.clone();
+		if(name==null) {
+			return candidates;
+		}
+		BitSet exact = exactNames.get(name);
+		if(exact!=null) {
+			candidates.or(exact);
+		}
+		for (int i = 0; i < prefixLengths.length && prefixLengths[i] <= name.length(); i++) {
+			BitSet prefixed = prefixes.get(name.substring(0, prefixLengths[i]));
+			if(prefixed!=null) {
+				candidates.or(prefixed);
+			}
+		}
+		return candidates;
+	}
+
+	private Decision decide(TableIdentifier identifier) {
+		Boolean exclude = null;
+		String packageName = null;
+		Map<?,?> metaAttributes = null;
+		BitSet candidates = getCandidates(identifier.getName());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			TableFilter tf = filters.get(i);
+			if(!tf.isRelevantFor(identifier)) {
+				continue;
+			}
+			if(exclude==null) {
+				exclude = tf.getExclude();
+			}
+			if(packageName==null) {
+				packageName = tf.getPackage(identifier);
+			}
+			if(metaAttributes==null) {
+				metaAttributes = tf.getMetaAttributes(identifier);
+			}
+			if(exclude!=null && packageName!=null && metaAttributes!=null) {
+				break;
+			}
+		}
+		// when at least one include is specified everything else is excluded by default
+		boolean excluded = exclude==null ? hasInclude : exclude.booleanValue();
+		return new Decision(excluded, packageName, metaAttributes);
+	}
+
+	private static BitSet bucket(Map<String, BitSet> buckets, String key) {
+		BitSet bits = buckets.get(key);
+		if(bits==null) {
+			bits = new BitSet();
+			buckets.put(key, bits);
+		}
+		return bits;
+	}
+}
@@ -18,9 +18,10 @@ public class TableIdentifier {
 	}
 	
 	public TableIdentifier(String catalog, String schema, String name) {
-		this.catalog = (catalog==null?null:catalog.intern() );
-		this.schema = (schema==null?null:schema.intern() );
-		this.name = (name==null?null:name.intern() );		
+		// names read from the database are shared through the NamePool of the run
+		this.catalog = catalog;
+		this.schema = schema;
+		this.name = name;
 	}
 	
 	public String getCatalog() {
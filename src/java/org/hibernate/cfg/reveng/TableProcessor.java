@@ -2,13 +2,13 @@ package org.hibernate.cfg.reveng;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRow;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Table;
 import org.slf4j.Logger;
@@ -67,7 +67,7 @@ public class TableProcessor {
 					}
 				}
 				
-				tables.add(new HashMap<String,Object>(tableRs));
+				tables.add(MetaDataRow.copyOf(tableRs));
 		     }
 		  } 
 		  finally {
@@ -0,0 +1,16 @@
+package org.hibernate.cfg.reveng;
+
+import org.hibernate.mapping.Table;
+
+/**
+ * Notified by the {@link JDBCReader} as soon as the columns, primary key and indexes
+ * of a table have been read. Foreign keys are read after all tables and are not
+ * available yet. 
+ * 
+ * May be called from several threads at once when the metadata is read in parallel.
+ */
+public interface TableReadListener {
+
+	public void tableRead(Table table);
+
+}
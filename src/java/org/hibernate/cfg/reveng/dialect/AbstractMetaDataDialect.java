@@ -4,6 +4,8 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -123,6 +125,33 @@ public abstract class AbstractMetaDataDialect implements MetaDataDialect {
 		return connection;
 	}
 	
+	/** @return a row to reuse for all rows of an iterator, sharing names through the pool of the run */
+	protected MetaDataRow newRow(MetaDataRow.Layout layout) {
+		return new MetaDataRow(layout, info==null ? null : info.getNamePool());
+	}
+	
+	/**
+	 * Helper for {@link LastDDLTimeProbe#getLastDDLTime()}.
+	 * @param sql query returning the time of the last DDL change as a timestamp in its first column
+	 * @return the time in milliseconds, null if the query returns no row or null
+	 */
+	protected Long queryLastDDLTime(String sql) {
+		try {
+			Statement statement = getConnection().createStatement();
+			try {
+				ResultSet rs = statement.executeQuery(sql);
+				Timestamp time = rs.next() ? rs.getTimestamp(1) : null;
+				return time==null ? null : new Long(time.getTime());
+			} 
+			finally {
+				statement.close();
+			}
+		} 
+		catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading last DDL time", sql);
+		}
+	}
+	
 	public ReverseEngineeringRuntimeInfo getReverseEngineeringRuntimeInfo() {
 		return info;
 	}
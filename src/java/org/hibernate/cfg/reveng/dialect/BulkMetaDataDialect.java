@@ -0,0 +1,20 @@
+package org.hibernate.cfg.reveng.dialect;
+
+/**
+ * Optional interface for {@link MetaDataDialect}s that can return the columns, primary keys, 
+ * indexes and exported keys of a whole schema in one query.  
+ * 
+ * If {@link #supportsBulkMetaData()} returns true, passing <code>null</code> as table name to
+ * getColumns, getPrimaryKeys, getIndexInfo and getExportedKeys must return the rows for all
+ * tables in the given catalog and schema. 
+ * 
+ * @see PrefetchingMetaDataDialect
+ */
+public interface BulkMetaDataDialect extends MetaDataDialect {
+
+	/**
+	 * @return true if schema-wide queries (null table name) are supported and efficient.
+	 */
+	boolean supportsBulkMetaData();
+	
+}
@@ -1,14 +1,18 @@
 package org.hibernate.cfg.reveng.dialect;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
 
-public class CachedMetaDataDialect implements MetaDataDialect {
+public class CachedMetaDataDialect implements BulkMetaDataDialect {
 	
 	MetaDataDialect delegate;
 	private Map<StringKey, List<Map<String, Object>>> cachedTables = new HashMap<StringKey, List<Map<String, Object>>>();
@@ -17,6 +21,9 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	private Map<StringKey, List<Map<String, Object>>> cachedPrimaryKeys = new HashMap<StringKey, List<Map<String, Object>>>();
 	private Map<StringKey, List<Map<String, Object>>> cachedIndexInfo = new HashMap<StringKey, List<Map<String, Object>>>();
 	private Map<StringKey, List<Map<String, Object>>> cachedPrimaryKeyStrategyName = new HashMap<StringKey, List<Map<String, Object>>>();
+	
+	/** true if something has been added to the cache since it was last read or written as a snapshot */
+	private boolean dirty = false;
 
 	public CachedMetaDataDialect(MetaDataDialect realMetaData) {
 		this.delegate = realMetaData;
@@ -113,6 +120,170 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		return delegate.needQuote( name );
 	}
 	
+	public boolean supportsBulkMetaData() {
+		return PrefetchingMetaDataDialect.supportsBulkMetaData( delegate );
+	}
+	
+	boolean isDirty() {
+		return dirty;
+	}
+	
+	/** The caches in the order they are written to a snapshot. */
+	@SuppressWarnings("unchecked")
+	private Map<StringKey, List<Map<String, Object>>>[] caches() {
+		return new Map[] { cachedTables, cachedColumns, cachedExportedKeys, cachedPrimaryKeys, cachedIndexInfo, cachedPrimaryKeyStrategyName };
+	}
+	
+	/**
+	 * Write the cached rows in a compact binary form; strings are written once and 
+	 * afterwards referred to by index.
+	 */
+	void writeSnapshot(DataOutput out) throws IOException {
+		Map<String, Integer> pool = new HashMap<String, Integer>();
+		Map<StringKey, List<Map<String, Object>>>[] caches = caches();
+		for (int c = 0; c < caches.length; c++) {
+			out.writeInt( caches[c].size() );
+			for (Iterator<Entry<StringKey, List<Map<String, Object>>>> iter = caches[c].entrySet().iterator(); iter.hasNext();) {
+				Entry<StringKey, List<Map<String, Object>>> entry = iter.next();
+				String[] keys = entry.getKey().keys;
+				out.writeInt( keys.length );
+				for (int i = 0; i < keys.length; i++) {
+					writeString( out, pool, keys[i] );
+				}
+				List<Map<String, Object>> rows = entry.getValue();
+				out.writeInt( rows.size() );
+				for (Iterator<Map<String, Object>> rowIter = rows.iterator(); rowIter.hasNext();) {
+					Map<String, Object> row = rowIter.next();
+					out.writeInt( row.size() );
+					for (Iterator<Entry<String, Object>> valueIter = row.entrySet().iterator(); valueIter.hasNext();) {
+						Entry<String, Object> value = valueIter.next();
+						writeString( out, pool, value.getKey() );
+						writeValue( out, pool, value.getValue() );
+					}
+				}
+			}
+		}
+		dirty = false;
+	}
+	
+	/** Replace the cached rows with the content of a snapshot written by {@link #writeSnapshot(DataOutput)} */
+	void readSnapshot(DataInput in) throws IOException {
+		Map<StringKey, List<Map<String, Object>>>[] caches = caches();
+		try {
+			readSnapshot(in, caches);
+		} 
+		catch (IOException e) {
+			// never leave a partially read snapshot behind
+			for (int c = 0; c < caches.length; c++) {
+				caches[c].clear();
+			}
+			throw e;
+		}
+		dirty = false;
+	}
+	
+	private void readSnapshot(DataInput in, Map<StringKey, List<Map<String, Object>>>[] caches) throws IOException {
+		List<String> pool = new ArrayList<String>();
+		for (int c = 0; c < caches.length; c++) {
+			caches[c].clear();
+			int entries = in.readInt();
+			for (int e = 0; e < entries; e++) {
+				String[] keys = new String[in.readInt()];
+				for (int i = 0; i < keys.length; i++) {
+					keys[i] = readString( in, pool );
+				}
+				int rowCount = in.readInt();
+				List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(rowCount);
+				for (int r = 0; r < rowCount; r++) {
+					int size = in.readInt();
+					Map<String, Object> row = new HashMap<String, Object>();
+					for (int i = 0; i < size; i++) {
+						String name = readString( in, pool );
+						row.put( name, readValue( in, pool ) );
+					}
+					rows.add( row );
+				}
+				caches[c].put( new StringKey( keys ), rows );
+			}
+		}
+	}
+	
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte SHORT = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte LONG = 5;
+	
+	private static void writeValue(DataOutput out, Map<String, Integer> pool, Object value) throws IOException {
+		if(value==null) {
+			out.writeByte( NULL );
+		} else if(value instanceof String) {
+			out.writeByte( STRING );
+			writeString( out, pool, (String) value );
+		} else if(value instanceof Integer) {
+			out.writeByte( INTEGER );
+			out.writeInt( ((Integer)value).intValue() );
+		} else if(value instanceof Short) {
+			out.writeByte( SHORT );
+			out.writeShort( ((Short)value).shortValue() );
+		} else if(value instanceof Boolean) {
+			out.writeByte( BOOLEAN );
+			out.writeBoolean( ((Boolean)value).booleanValue() );
+		} else if(value instanceof Long) {
+			out.writeByte( LONG );
+			out.writeLong( ((Long)value).longValue() );
+		} else {
+			throw new IOException("Cannot write metadata value of type " + value.getClass().getName());
+		}
+	}
+	
+	private static Object readValue(DataInput in, List<String> pool) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL: return null;
+		case STRING: return readString( in, pool );
+		case INTEGER: return new Integer( in.readInt() );
+		case SHORT: return new Short( in.readShort() );
+		case BOOLEAN: return Boolean.valueOf( in.readBoolean() );
+		case LONG: return new Long( in.readLong() );
+		default:
+			throw new IOException("Unknown metadata value type " + type);
+		}
+	}
+	
+	// -1 is null, an index equal to the pool size means a new string follows.
+	private static void writeString(DataOutput out, Map<String, Integer> pool, String value) throws IOException {
+		if(value==null) {
+			out.writeInt( -1 );
+			return;
+		}
+		Integer index = pool.get( value );
+		if(index==null) {
+			out.writeInt( pool.size() );
+			out.writeUTF( value );
+			pool.put( value, new Integer( pool.size() ) );
+		} else {
+			out.writeInt( index.intValue() );
+		}
+	}
+	
+	private static String readString(DataInput in, List<String> pool) throws IOException {
+		int index = in.readInt();
+		if(index==-1) {
+			return null;
+		} 
+		if(index==pool.size()) {
+			String value = in.readUTF();
+			pool.add( value );
+			return value;
+		}
+		if(index<0 || index>pool.size()) {
+			throw new IOException("Invalid string reference " + index);
+		}
+		return pool.get( index );
+	}
+	
 	private static class StringKey {
 		String[] keys;
 		
@@ -184,7 +355,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 
 		public Map<String, Object> next() {
 			Map<String, Object> map = realIterator.next();
-			cache.add(new HashMap<String, Object>(map)); // need to copy since MetaDataDialect might reuse it.
+			cache.add(MetaDataRow.copyOf(map)); // need to copy since MetaDataDialect might reuse it.
 			return map;
 		}
 
@@ -194,6 +365,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 
 		public void store() {
 			destination.put( target, cache );
+			owner.dirty = true;
 			if(realIterator.hasNext()) throw new IllegalStateException("CachedMetaDataDialect have not been fully initialized!");
 			cache = null;
 			target = null;
@@ -14,7 +14,12 @@ import org.hibernate.tool.util.TableNameQualifier;
  * @author Dmitry Geraskov
  *
  */
-public class HSQLMetaDataDialect extends JDBCMetaDataDialect {
+public class HSQLMetaDataDialect extends JDBCMetaDataDialect implements BulkMetaDataDialect {
+
+	/** The HSQLDB driver treats a null table name as "all tables" for all metadata calls. */
+	public boolean supportsBulkMetaData() {
+		return true;
+	}
 
 	private String quote(String columnName) {
 		if(columnName==null) return columnName;
@@ -0,0 +1,496 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.hibernate.tool.util.TableNameQualifier;
+
+/**
+ * MetaData dialect that reads tables, columns, primary keys and foreign keys with
+ * set based queries on the SQL standard INFORMATION_SCHEMA views instead of the
+ * per table DatabaseMetaData calls of the driver.
+ *
+ * Every query can be run for a whole schema, so this dialect supports bulk reads.
+ * Indexes are not part of the standard; they are read through the driver, table by
+ * table when the indexes of a whole schema are asked for.
+ *
+ * Subclasses for databases with their own catalog tables override the queries; the
+ * queries must return the columns under the names DatabaseMetaData uses.
+ *
+ * This dialect is not detected from the Hibernate dialect: the views are implemented
+ * differently by every database, in type names, sizes and case of the identifiers, and
+ * only HSQLDB is checked against its driver by the tests. Select it, or a subclass, with
+ * hibernatetool.metadatadialect.
+ */
+public class InformationSchemaMetaDataDialect extends JDBCMetaDataDialect implements BulkMetaDataDialect {
+
+	/**
+	 * A metadata query. The conditions for the requested catalog, schema, table and column
+	 * are appended as <code>and x like ?</code>, so the sql must end in a where clause.
+	 */
+	protected static class Query {
+		final String sql;
+		final String catalogColumn;
+		final String schemaColumn;
+		final String tableColumn;
+		final String columnColumn;
+		final String orderBy;
+
+		/**
+		 * @param catalogColumn the column to match the catalog against, null if catalogs are not supported
+		 * @param columnColumn the column to match the column name against, null if not applicable
+		 */
+		public Query(String sql, String catalogColumn, String schemaColumn, String tableColumn, String columnColumn, String orderBy) {
+			this.sql = sql;
+			this.catalogColumn = catalogColumn;
+			this.schemaColumn = schemaColumn;
+			this.tableColumn = tableColumn;
+			this.columnColumn = columnColumn;
+			this.orderBy = orderBy;
+		}
+	}
+
+	private static final Map<String, Integer> STANDARD_TYPES = new HashMap<String, Integer>();
+	static {
+		addType(Types.CHAR, new String[] { "CHARACTER", "CHAR" });
+		addType(Types.VARCHAR, new String[] { "CHARACTER VARYING", "CHAR VARYING", "VARCHAR" });
+		addType(Types.NCHAR, new String[] { "NATIONAL CHARACTER", "NATIONAL CHAR", "NCHAR" });
+		addType(Types.NVARCHAR, new String[] { "NATIONAL CHARACTER VARYING", "NATIONAL CHAR VARYING", "NCHAR VARYING", "NVARCHAR" });
+		addType(Types.CLOB, new String[] { "CHARACTER LARGE OBJECT", "CHAR LARGE OBJECT", "CLOB" });
+		addType(Types.NCLOB, new String[] { "NATIONAL CHARACTER LARGE OBJECT", "NCHAR LARGE OBJECT", "NCLOB" });
+		addType(Types.BINARY, new String[] { "BINARY" });
+		addType(Types.VARBINARY, new String[] { "BINARY VARYING", "VARBINARY" });
+		addType(Types.BLOB, new String[] { "BINARY LARGE OBJECT", "BLOB" });
+		addType(Types.NUMERIC, new String[] { "NUMERIC" });
+		addType(Types.DECIMAL, new String[] { "DECIMAL", "DEC" });
+		addType(Types.TINYINT, new String[] { "TINYINT" });
+		addType(Types.SMALLINT, new String[] { "SMALLINT" });
+		addType(Types.INTEGER, new String[] { "INTEGER", "INT" });
+		addType(Types.BIGINT, new String[] { "BIGINT" });
+		addType(Types.FLOAT, new String[] { "FLOAT" });
+		addType(Types.REAL, new String[] { "REAL" });
+		addType(Types.DOUBLE, new String[] { "DOUBLE PRECISION", "DOUBLE" });
+		addType(Types.BOOLEAN, new String[] { "BOOLEAN" });
+		addType(Types.BIT, new String[] { "BIT" });
+		addType(Types.DATE, new String[] { "DATE" });
+		addType(Types.TIME, new String[] { "TIME", "TIME WITHOUT TIME ZONE" });
+		addType(Types.TIME_WITH_TIMEZONE, new String[] { "TIME WITH TIME ZONE" });
+		addType(Types.TIMESTAMP, new String[] { "TIMESTAMP", "TIMESTAMP WITHOUT TIME ZONE" });
+		addType(Types.TIMESTAMP_WITH_TIMEZONE, new String[] { "TIMESTAMP WITH TIME ZONE" });
+		addType(Types.ARRAY, new String[] { "ARRAY" });
+		addType(Types.SQLXML, new String[] { "XML" });
+	}
+
+	private static void addType(int sqlType, String[] names) {
+		for (int i = 0; i < names.length; i++) {
+			STANDARD_TYPES.put(names[i], Integer.valueOf(sqlType));
+		}
+	}
+
+	private static final Query TABLES = new Query(
+			"select t.TABLE_CATALOG as TABLE_CAT, t.TABLE_SCHEMA as TABLE_SCHEM, t.TABLE_NAME as TABLE_NAME, "
+			+ "case when t.TABLE_TYPE = 'VIEW' then 'VIEW' else 'TABLE' end as TABLE_TYPE "
+			+ "from INFORMATION_SCHEMA.TABLES t "
+			+ "where t.TABLE_TYPE in ('BASE TABLE', 'TABLE', 'VIEW') and upper(t.TABLE_SCHEMA) <> 'INFORMATION_SCHEMA' ",
+			"t.TABLE_CATALOG", "t.TABLE_SCHEMA", "t.TABLE_NAME", null,
+			"t.TABLE_SCHEMA, t.TABLE_NAME");
+
+	private static final Query COLUMNS = new Query(
+			"select c.TABLE_CATALOG as TABLE_CAT, c.TABLE_SCHEMA as TABLE_SCHEM, c.TABLE_NAME as TABLE_NAME, "
+			+ "c.COLUMN_NAME as COLUMN_NAME, c.DATA_TYPE as TYPE_NAME, c.DATA_TYPE as DATA_TYPE, "
+			+ "case when c.IS_NULLABLE = 'NO' or exists (select 1 from INFORMATION_SCHEMA.TABLE_CONSTRAINTS t "
+			+ "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE k on (k.CONSTRAINT_CATALOG = t.CONSTRAINT_CATALOG "
+			+ "and k.CONSTRAINT_SCHEMA = t.CONSTRAINT_SCHEMA and k.CONSTRAINT_NAME = t.CONSTRAINT_NAME) "
+			+ "where t.CONSTRAINT_TYPE = 'PRIMARY KEY' and k.TABLE_SCHEMA = c.TABLE_SCHEMA and k.TABLE_NAME = c.TABLE_NAME "
+			+ "and k.COLUMN_NAME = c.COLUMN_NAME) then 0 else 1 end as NULLABLE, "
+			+ "coalesce(c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION, 0) as COLUMN_SIZE, "
+			+ "coalesce(c.NUMERIC_SCALE, 0) as DECIMAL_DIGITS "
+			+ "from INFORMATION_SCHEMA.COLUMNS c "
+			+ "where 1=1 ",
+			"c.TABLE_CATALOG", "c.TABLE_SCHEMA", "c.TABLE_NAME", "c.COLUMN_NAME",
+			"c.TABLE_SCHEMA, c.TABLE_NAME, c.ORDINAL_POSITION");
+
+	private static final Query PRIMARY_KEYS = new Query(
+			"select k.TABLE_CATALOG as TABLE_CAT, k.TABLE_SCHEMA as TABLE_SCHEM, k.TABLE_NAME as TABLE_NAME, "
+			+ "k.COLUMN_NAME as COLUMN_NAME, k.ORDINAL_POSITION as KEY_SEQ, k.CONSTRAINT_NAME as PK_NAME "
+			+ "from INFORMATION_SCHEMA.TABLE_CONSTRAINTS t join INFORMATION_SCHEMA.KEY_COLUMN_USAGE k on "
+			+ "(k.CONSTRAINT_CATALOG = t.CONSTRAINT_CATALOG and k.CONSTRAINT_SCHEMA = t.CONSTRAINT_SCHEMA "
+			+ "and k.CONSTRAINT_NAME = t.CONSTRAINT_NAME and k.TABLE_SCHEMA = t.TABLE_SCHEMA and k.TABLE_NAME = t.TABLE_NAME) "
+			+ "where t.CONSTRAINT_TYPE = 'PRIMARY KEY' ",
+			"k.TABLE_CATALOG", "k.TABLE_SCHEMA", "k.TABLE_NAME", null,
+			"k.TABLE_SCHEMA, k.TABLE_NAME, k.ORDINAL_POSITION");
+
+	private static final Query EXPORTED_KEYS = new Query(
+			"select pk.TABLE_CATALOG as PKTABLE_CAT, pk.TABLE_SCHEMA as PKTABLE_SCHEM, pk.TABLE_NAME as PKTABLE_NAME, "
+			+ "pk.COLUMN_NAME as PKCOLUMN_NAME, fk.TABLE_CATALOG as FKTABLE_CAT, fk.TABLE_SCHEMA as FKTABLE_SCHEM, "
+			+ "fk.TABLE_NAME as FKTABLE_NAME, fk.COLUMN_NAME as FKCOLUMN_NAME, fk.CONSTRAINT_NAME as FK_NAME, "
+			+ "fk.ORDINAL_POSITION as KEY_SEQ "
+			+ "from INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc "
+			+ "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk on (fk.CONSTRAINT_CATALOG = rc.CONSTRAINT_CATALOG "
+			+ "and fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA and fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME) "
+			+ "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk on (pk.CONSTRAINT_CATALOG = rc.UNIQUE_CONSTRAINT_CATALOG "
+			+ "and pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA and pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME "
+			+ "and pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT) "
+			+ "where 1=1 ",
+			"pk.TABLE_CATALOG", "pk.TABLE_SCHEMA", "pk.TABLE_NAME", null,
+			"fk.TABLE_SCHEMA, fk.TABLE_NAME, fk.CONSTRAINT_NAME, fk.ORDINAL_POSITION");
+
+	/** All queries can be run for a whole schema. */
+	public boolean supportsBulkMetaData() {
+		return true;
+	}
+
+	protected Query getTablesQuery() {
+		return TABLES;
+	}
+
+	protected Query getColumnsQuery() {
+		return COLUMNS;
+	}
+
+	protected Query getPrimaryKeysQuery() {
+		return PRIMARY_KEYS;
+	}
+
+	protected Query getExportedKeysQuery() {
+		return EXPORTED_KEYS;
+	}
+
+	/** @return the query for the index columns or null to read them through the driver */
+	protected Query getIndexInfoQuery() {
+		return null;
+	}
+
+	/**
+	 * @param typeName the type name as returned in the TYPE_NAME column
+	 * @return the {@link Types} code for the type, {@link Types#OTHER} if not known
+	 */
+	protected int toSqlType(String typeName) {
+		if(typeName==null) {
+			return Types.OTHER;
+		}
+		String name = typeName.trim().toUpperCase(Locale.ENGLISH);
+		int paren = name.indexOf('(');
+		if(paren>0) {
+			name = name.substring(0, paren).trim();
+		}
+		Integer sqlType = STANDARD_TYPES.get(name);
+		return sqlType==null ? Types.OTHER : sqlType.intValue();
+	}
+
+	public Iterator<Map<String, Object>> getTables(String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+
+			log.debug("getTables(" + catalog + "." + schema + "." + table + ")");
+
+			return new QueryIterator(getTablesQuery(), MetaDataRow.TABLES, catalog, schema, table, null) {
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putTablePart( element, rs );
+					String tableType = rs.getString("TABLE_TYPE");
+					// the case expression yields a padded CHAR on some databases
+					element.setString(MetaDataRow.TABLE_TYPE, tableType==null ? null : tableType.trim());
+					element.setString(MetaDataRow.REMARKS, getOptionalString(rs, "REMARKS"));
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					String databaseStructure = getDatabaseStructure( catalog, schema );
+					throw getSQLExceptionConverter().convert( e,
+							"Could not get list of tables from database. Probably a JDBC driver problem. "
+									+ databaseStructure, null );
+				}
+			};
+		} catch (SQLException e) {
+			String databaseStructure = getDatabaseStructure(xcatalog,xschema);
+			throw getSQLExceptionConverter().convert(e, "Could not get list of tables from database. Probably a JDBC driver problem. " + databaseStructure, null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getColumns(String xcatalog, String xschema, String xtable, String xcolumn) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			final String column = caseForSearch( xcolumn );
+
+			log.debug("getColumns(" + catalog + "." + schema + "." + table + "." + column + ")");
+
+			return new QueryIterator(getColumnsQuery(), MetaDataRow.COLUMNS, catalog, schema, table, column) {
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putTablePart(element, rs);
+					String typeName = rs.getString("TYPE_NAME");
+					Object dataType = rs.getObject("DATA_TYPE");
+					int sqlType = dataType instanceof Number ? ((Number) dataType).intValue() : toSqlType(typeName);
+					element.setInt(MetaDataRow.DATA_TYPE, sqlType);
+					element.setString(MetaDataRow.TYPE_NAME, typeName);
+					element.setString(MetaDataRow.COLUMN_NAME, rs.getString("COLUMN_NAME"));
+					element.setInt(MetaDataRow.NULLABLE, rs.getInt("NULLABLE"));
+					element.setInt(MetaDataRow.COLUMN_SIZE, (int) Math.min(rs.getLong("COLUMN_SIZE"), Integer.MAX_VALUE));
+					element.setInt(MetaDataRow.DECIMAL_DIGITS, rs.getInt("DECIMAL_DIGITS"));
+					element.setString(MetaDataRow.REMARKS, getOptionalString(rs, "REMARKS"));
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading column meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading column meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getPrimaryKeys(String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+
+			log.debug("getPrimaryKeys(" + catalog + "." + schema + "." + table + ")");
+
+			return new QueryIterator(getPrimaryKeysQuery(), MetaDataRow.PRIMARY_KEYS, catalog, schema, table, null) {
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putTablePart(element, rs);
+					element.setString(MetaDataRow.COLUMN_NAME, rs.getString("COLUMN_NAME"));
+					element.setInt(MetaDataRow.KEY_SEQ, rs.getShort("KEY_SEQ"));
+					element.setString(MetaDataRow.PK_NAME, rs.getString("PK_NAME"));
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getExportedKeys(String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+
+			log.debug("getExportedKeys(" + catalog + "." + schema + "." + table + ")");
+
+			return new QueryIterator(getExportedKeysQuery(), MetaDataRow.EXPORTED_KEYS, catalog, schema, table, null) {
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putExportedKeysPart( element, rs );
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getIndexInfo(String xcatalog, String xschema, String xtable) {
+		Query query = getIndexInfoQuery();
+		if(query==null) {
+			if(xtable!=null) {
+				return super.getIndexInfo(xcatalog, xschema, xtable);
+			}
+			return new TableByTableIndexInfo(xcatalog, xschema);
+		}
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+
+			log.debug("getIndexInfo(" + catalog + "." + schema + "." + table + ")");
+
+			return new QueryIterator(query, MetaDataRow.INDEX_INFO, catalog, schema, table, null) {
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putIndexInfoPart(element, rs);
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}
+	}
+
+	public void close(Iterator<?> iterator) {
+		if(iterator instanceof TableByTableIndexInfo) {
+			((TableByTableIndexInfo) iterator).close();
+		} else {
+			super.close(iterator);
+		}
+	}
+
+	protected void putIndexInfoPart(Map<String, Object> element, ResultSet rs) throws SQLException {
+		putTablePart(element, rs);
+		element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
+		element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
+		element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
+		element.put("TYPE", Short.valueOf(rs.getShort("TYPE")));
+	}
+
+	/** @return the value of the column or null if the query does not return it */
+	protected static String getOptionalString(ResultSet rs, String column) throws SQLException {
+		try {
+			rs.findColumn(column);
+		}
+		catch (SQLException notReturned) {
+			return null;
+		}
+		return rs.getString(column);
+	}
+
+	private PreparedStatement prepare(Query query, String catalog, String schema, String table, String column) throws SQLException {
+		StringBuffer sql = new StringBuffer(query.sql);
+		List<String> parameters = new ArrayList<String>(4);
+		addCondition(sql, parameters, query.catalogColumn, catalog);
+		addCondition(sql, parameters, query.schemaColumn, schema);
+		addCondition(sql, parameters, query.tableColumn, table);
+		addCondition(sql, parameters, query.columnColumn, column);
+		if(query.orderBy!=null) {
+			sql.append(" order by ").append(query.orderBy);
+		}
+		PreparedStatement statement = getConnection().prepareStatement(sql.toString());
+		for (int i = 0; i < parameters.size(); i++) {
+			statement.setString(i + 1, parameters.get(i));
+		}
+		return statement;
+	}
+
+	private static void addCondition(StringBuffer sql, List<String> parameters, String column, String value) {
+		if(column!=null && value!=null) {
+			sql.append(" and ").append(column).append(" like ?");
+			parameters.add(value);
+		}
+	}
+
+	/** Runs a query, the statement is closed together with the iterator. */
+	private abstract class QueryIterator extends ResultSetIterator {
+
+		final MetaDataRow element;
+
+		QueryIterator(Query query, MetaDataRow.Layout layout, String catalog, String schema, String table, String column) throws SQLException {
+			this(prepare(query, catalog, schema, table, column), layout);
+		}
+
+		private QueryIterator(PreparedStatement statement, MetaDataRow.Layout layout) throws SQLException {
+			super(statement, execute(statement), InformationSchemaMetaDataDialect.this.getSQLExceptionConverter());
+			this.element = newRow(layout);
+		}
+	}
+
+	private static ResultSet execute(PreparedStatement statement) throws SQLException {
+		try {
+			return statement.executeQuery();
+		}
+		catch (SQLException e) {
+			statement.close();
+			throw e;
+		}
+	}
+
+	/** The index columns of all tables in a schema, read from the driver one table after the other. */
+	private class TableByTableIndexInfo implements Iterator<Map<String, Object>> {
+
+		private final List<String[]> tables = new ArrayList<String[]>();
+		private final MetaDataRow element = newRow(MetaDataRow.INDEX_INFO);
+		private int nextTable = 0;
+		private String[] currentTable;
+		private ResultSet current;
+		private boolean positioned = false;
+
+		TableByTableIndexInfo(String catalog, String schema) {
+			Iterator<Map<String, Object>> iterator = getTables(catalog, schema, null);
+			try {
+				while (iterator.hasNext()) {
+					Map<String, Object> row = iterator.next();
+					if("TABLE".equals(row.get("TABLE_TYPE"))) {
+						tables.add(new String[] { (String) row.get("TABLE_CAT"), (String) row.get("TABLE_SCHEM"), (String) row.get("TABLE_NAME") });
+					}
+				}
+			}
+			finally {
+				InformationSchemaMetaDataDialect.this.close(iterator);
+			}
+		}
+
+		public boolean hasNext() {
+			if(positioned) {
+				return true;
+			}
+			try {
+				while (current==null || !current.next()) {
+					close();
+					if(nextTable>=tables.size()) {
+						return false;
+					}
+					currentTable = tables.get(nextTable++);
+					current = getMetaData().getIndexInfo(currentTable[0], currentTable[1], currentTable[2], false, true);
+				}
+				positioned = true;
+				return true;
+			}
+			catch (SQLException e) {
+				close();
+				throw convert(e);
+			}
+		}
+
+		public Map<String, Object> next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			positioned = false;
+			try {
+				element.clear();
+				putIndexInfoPart(element, current);
+				return element;
+			}
+			catch (SQLException e) {
+				close();
+				throw convert(e);
+			}
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove() not possible on ResultSet");
+		}
+
+		void close() {
+			if(current!=null) {
+				try {
+					current.close();
+				}
+				catch (SQLException e) {
+					throw convert(e);
+				}
+				finally {
+					current = null;
+				}
+			}
+		}
+
+		private RuntimeException convert(SQLException e) {
+			String table = currentTable==null ? null : TableNameQualifier.qualify(currentTable[0], currentTable[1], currentTable[2]);
+			return getSQLExceptionConverter().convert(e, "Exception while getting index info for " + table, null);
+		}
+	}
+}
@@ -2,7 +2,6 @@ package org.hibernate.cfg.reveng.dialect;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -28,12 +27,12 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
+				MetaDataRow element = newRow(MetaDataRow.TABLES);
 				protected Map<String, Object> convertRow(ResultSet tableResultSet) throws SQLException {
 					element.clear();
 					putTablePart( element, tableResultSet );
-					element.put("TABLE_TYPE", tableResultSet.getString("TABLE_TYPE"));
-					element.put("REMARKS", tableResultSet.getString("REMARKS"));
+					element.setString(MetaDataRow.TABLE_TYPE, tableResultSet.getString("TABLE_TYPE"));
+					element.setString(MetaDataRow.REMARKS, tableResultSet.getString("REMARKS"));
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -63,14 +62,14 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
+				MetaDataRow element = newRow(MetaDataRow.INDEX_INFO);
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
 					putTablePart(element, rs);
-					element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
-					element.put("TYPE", new Short(rs.getShort("TYPE")));					 
+					element.setString(MetaDataRow.INDEX_NAME, rs.getString("INDEX_NAME"));
+					element.setString(MetaDataRow.COLUMN_NAME, rs.getString("COLUMN_NAME"));
+					element.setBoolean(MetaDataRow.NON_UNIQUE, rs.getBoolean("NON_UNIQUE"));
+					element.setInt(MetaDataRow.TYPE, rs.getShort("TYPE"));					 
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -100,17 +99,17 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
+				MetaDataRow element = newRow(MetaDataRow.COLUMNS);
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
 					putTablePart(element, rs);
-					element.put("DATA_TYPE", new Integer(rs.getInt("DATA_TYPE")));
-					element.put("TYPE_NAME", rs.getString("TYPE_NAME"));
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("NULLABLE", new Integer(rs.getInt("NULLABLE")));
-					element.put("COLUMN_SIZE", new Integer(rs.getInt("COLUMN_SIZE")));
-					element.put("DECIMAL_DIGITS", new Integer(rs.getInt("DECIMAL_DIGITS")));
-					element.put("REMARKS", rs.getString("REMARKS"));
+					element.setInt(MetaDataRow.DATA_TYPE, rs.getInt("DATA_TYPE"));
+					element.setString(MetaDataRow.TYPE_NAME, rs.getString("TYPE_NAME"));
+					element.setString(MetaDataRow.COLUMN_NAME, rs.getString("COLUMN_NAME"));
+					element.setInt(MetaDataRow.NULLABLE, rs.getInt("NULLABLE"));
+					element.setInt(MetaDataRow.COLUMN_SIZE, rs.getInt("COLUMN_SIZE"));
+					element.setInt(MetaDataRow.DECIMAL_DIGITS, rs.getInt("DECIMAL_DIGITS"));
+					element.setString(MetaDataRow.REMARKS, rs.getString("REMARKS"));
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -133,13 +132,13 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
+				MetaDataRow element = newRow(MetaDataRow.PRIMARY_KEYS);
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
 					putTablePart(element, rs);
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("KEY_SEQ", new Short(rs.getShort("KEY_SEQ")));
-					element.put("PK_NAME", rs.getString("PK_NAME"));
+					element.setString(MetaDataRow.COLUMN_NAME, rs.getString("COLUMN_NAME"));
+					element.setInt(MetaDataRow.KEY_SEQ, rs.getShort("KEY_SEQ"));
+					element.setString(MetaDataRow.PK_NAME, rs.getString("PK_NAME"));
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -162,7 +161,7 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
+				MetaDataRow element = newRow(MetaDataRow.EXPORTED_KEYS);
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
 					putExportedKeysPart( element, rs );					
@@ -187,7 +186,7 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 		element.put( "FKCOLUMN_NAME", rs.getString("FKCOLUMN_NAME"));
 		element.put( "PKCOLUMN_NAME", rs.getString("PKCOLUMN_NAME"));
 		element.put( "FK_NAME", rs.getString("FK_NAME"));
-		element.put( "KEY_SEQ", new Short(rs.getShort("KEY_SEQ")));
+		element.put( "KEY_SEQ", Short.valueOf(rs.getShort("KEY_SEQ")));
 	}
 	
 	
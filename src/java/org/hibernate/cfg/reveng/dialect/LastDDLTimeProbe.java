@@ -0,0 +1,17 @@
+package org.hibernate.cfg.reveng.dialect;
+
+/**
+ * Optional interface for {@link MetaDataDialect}s that can cheaply tell when the 
+ * database schema was last changed. Used to invalidate stored metadata snapshots.
+ * 
+ * @see SnapshotMetaDataDialect
+ */
+public interface LastDDLTimeProbe {
+
+	/**
+	 * @return time in milliseconds of the last DDL change visible to the connected user, 
+	 * or null if it cannot be determined.
+	 */
+	Long getLastDDLTime();
+	
+}
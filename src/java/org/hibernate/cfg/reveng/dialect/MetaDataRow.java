@@ -0,0 +1,311 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.hibernate.cfg.reveng.NamePool;
+
+/**
+ * A row of metadata with a fixed layout, read by column index.
+ *
+ * The iterators of a {@link MetaDataDialect} reuse one row for all rows of a resultset, so
+ * reading metadata does not allocate a map per row; numbers are kept unboxed until they are
+ * asked for through the {@link Map} interface. The processors read the row through the typed
+ * getters and the index constants below, e.g. <code>row.getInt(MetaDataRow.DATA_TYPE)</code>.
+ * A column name is at the same index in every layout it is part of.
+ *
+ * Names put in the row are shared through the {@link NamePool} of the run when one is given.
+ * Dialects that add columns outside the layout can still put them; they are kept aside in a
+ * map. Rows that must outlive the iteration are kept with {@link #copyOf(Map)}.
+ */
+public final class MetaDataRow extends AbstractMap<String, Object> {
+
+	// names are shared through the NamePool, text is not
+	static final byte STRING = 0;
+	static final byte INTEGER = 1;
+	static final byte SHORT = 2;
+	static final byte BOOLEAN = 3;
+	static final byte TEXT = 4;
+
+	// the table columns, shared by all layouts but the exported keys
+	public static final int TABLE_CAT = 0;
+	public static final int TABLE_SCHEM = 1;
+	public static final int TABLE_NAME = 2;
+
+	// getTables
+	public static final int TABLE_TYPE = 3;
+	public static final int REMARKS = 4;
+
+	// getColumns, also COLUMN_NAME of primary keys and indexes
+	public static final int COLUMN_NAME = 3;
+	public static final int DATA_TYPE = 5;
+	public static final int TYPE_NAME = 6;
+	public static final int NULLABLE = 7;
+	public static final int COLUMN_SIZE = 8;
+	public static final int DECIMAL_DIGITS = 9;
+
+	// getPrimaryKeys, also KEY_SEQ of exported keys
+	public static final int KEY_SEQ = 4;
+	public static final int PK_NAME = 5;
+
+	// getIndexInfo
+	public static final int INDEX_NAME = 4;
+	public static final int NON_UNIQUE = 5;
+	public static final int TYPE = 6;
+
+	// getExportedKeys
+	public static final int PKTABLE_CAT = 0;
+	public static final int PKTABLE_SCHEM = 1;
+	public static final int PKTABLE_NAME = 2;
+	public static final int PKCOLUMN_NAME = 3;
+	public static final int FKTABLE_CAT = 5;
+	public static final int FKTABLE_SCHEM = 6;
+	public static final int FKTABLE_NAME = 7;
+	public static final int FKCOLUMN_NAME = 8;
+	public static final int FK_NAME = 9;
+
+	public static final Layout TABLES = new Layout(
+			new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS" },
+			new byte[] { STRING, STRING, STRING, STRING, TEXT });
+
+	public static final Layout COLUMNS = new Layout(
+			new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "REMARKS", "DATA_TYPE", "TYPE_NAME", "NULLABLE", "COLUMN_SIZE", "DECIMAL_DIGITS" },
+			new byte[] { STRING, STRING, STRING, STRING, TEXT, INTEGER, STRING, INTEGER, INTEGER, INTEGER });
+
+	public static final Layout PRIMARY_KEYS = new Layout(
+			new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME" },
+			new byte[] { STRING, STRING, STRING, STRING, SHORT, STRING });
+
+	public static final Layout INDEX_INFO = new Layout(
+			new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "INDEX_NAME", "NON_UNIQUE", "TYPE" },
+			new byte[] { STRING, STRING, STRING, STRING, STRING, BOOLEAN, SHORT });
+
+	public static final Layout EXPORTED_KEYS = new Layout(
+			new String[] { "PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME", "KEY_SEQ", "FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME", "FKCOLUMN_NAME", "FK_NAME" },
+			new byte[] { STRING, STRING, STRING, STRING, SHORT, STRING, STRING, STRING, STRING, STRING });
+
+	/** The names and types of the columns of a row. */
+	public static final class Layout {
+
+		final String[] names;
+		final byte[] types;
+		private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+		Layout(String[] names, byte[] types) {
+			this.names = names;
+			this.types = types;
+			for (int i = 0; i < names.length; i++) {
+				indexes.put(names[i], Integer.valueOf(i));
+			}
+		}
+
+		/** @return the index of the column or -1 if it is not part of the layout */
+		public int indexOf(Object name) {
+			Integer index = indexes.get(name);
+			return index==null ? -1 : index.intValue();
+		}
+
+		public int size() {
+			return names.length;
+		}
+	}
+
+	private final Layout layout;
+	private final NamePool names;
+	private final Object[] strings;
+	private final int[] numbers;
+	// bit i is set when numeric column i holds a value
+	private long numbersSet;
+	private Map<String, Object> extra;
+
+	public MetaDataRow(Layout layout) {
+		this(layout, null);
+	}
+
+	public MetaDataRow(Layout layout, NamePool names) {
+		this.layout = layout;
+		this.names = names;
+		this.strings = new Object[layout.names.length];
+		this.numbers = new int[layout.names.length];
+	}
+
+	private MetaDataRow(MetaDataRow row) {
+		this.layout = row.layout;
+		this.names = row.names;
+		this.strings = row.strings.clone();
+		this.numbers = row.numbers.clone();
+		this.numbersSet = row.numbersSet;
+		this.extra = row.extra==null ? null : new HashMap<String, Object>(row.extra);
+	}
+
+	public Layout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return a copy of the row that is not affected by the reuse of the row, a
+	 * compact copy for a {@link MetaDataRow}
+	 */
+	public static Map<String, Object> copyOf(Map<String, Object> row) {
+		if(row instanceof MetaDataRow) {
+			return new MetaDataRow((MetaDataRow) row);
+		}
+		return new HashMap<String, Object>(row);
+	}
+
+	/**
+	 * @return the row itself if it is a row of the layout of this row, otherwise this row filled with its values.
+	 */
+	public MetaDataRow wrap(Map<String, Object> row) {
+		if(row instanceof MetaDataRow && ((MetaDataRow) row).layout==layout) {
+			return (MetaDataRow) row;
+		}
+		clear();
+		putAll(row);
+		return this;
+	}
+
+	public String getString(int index) {
+		return (String) strings[index];
+	}
+
+	/** @return the number in the column, 0 if it is null */
+	public int getInt(int index) {
+		return numbers[index];
+	}
+
+	public short getShort(int index) {
+		return (short) numbers[index];
+	}
+
+	public boolean getBoolean(int index) {
+		return numbers[index]!=0;
+	}
+
+	public boolean isNull(int index) {
+		if(layout.types[index]==STRING || layout.types[index]==TEXT) {
+			return strings[index]==null;
+		}
+		return (numbersSet & (1L << index))==0;
+	}
+
+	public void setString(int index, String value) {
+		strings[index] = names!=null && layout.types[index]==STRING ? names.intern(value) : value;
+	}
+
+	public void setInt(int index, int value) {
+		numbers[index] = value;
+		numbersSet |= 1L << index;
+	}
+
+	public void setBoolean(int index, boolean value) {
+		setInt(index, value ? 1 : 0);
+	}
+
+	public void setNull(int index) {
+		strings[index] = null;
+		numbers[index] = 0;
+		numbersSet &= ~(1L << index);
+	}
+
+	public void clear() {
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = null;
+			numbers[i] = 0;
+		}
+		numbersSet = 0;
+		if(extra!=null) {
+			extra.clear();
+		}
+	}
+
+	public Object get(Object name) {
+		int index = layout.indexOf(name);
+		if(index<0) {
+			return extra==null ? null : extra.get(name);
+		}
+		return getValue(index);
+	}
+
+	public boolean containsKey(Object name) {
+		return layout.indexOf(name)>=0 || (extra!=null && extra.containsKey(name));
+	}
+
+	public Object put(String name, Object value) {
+		int index = layout.indexOf(name);
+		if(index<0) {
+			if(extra==null) {
+				extra = new HashMap<String, Object>();
+			}
+			return extra.put(name, value);
+		}
+		Object old = getValue(index);
+		if(value==null) {
+			setNull(index);
+		} else if(layout.types[index]==STRING || layout.types[index]==TEXT) {
+			if(value instanceof String) {
+				setString(index, (String) value);
+			} else {
+				strings[index] = value;
+			}
+		} else if(value instanceof Boolean) {
+			setBoolean(index, ((Boolean) value).booleanValue());
+		} else {
+			setInt(index, ((Number) value).intValue());
+		}
+		return old;
+	}
+
+	public int size() {
+		return layout.names.length + (extra==null ? 0 : extra.size());
+	}
+
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			public int size() {
+				return MetaDataRow.this.size();
+			}
+			public Iterator<Entry<String, Object>> iterator() {
+				final Iterator<Entry<String, Object>> extras = extra==null ? null : extra.entrySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+					int index = 0;
+					public boolean hasNext() {
+						return index<layout.names.length || (extras!=null && extras.hasNext());
+					}
+					public Entry<String, Object> next() {
+						if(index<layout.names.length) {
+							int i = index++;
+							return new SimpleImmutableEntry<String, Object>(layout.names[i], getValue(i));
+						}
+						if(extras==null) {
+							throw new NoSuchElementException();
+						}
+						return extras.next();
+					}
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	private Object getValue(int index) {
+		switch (layout.types[index]) {
+		case STRING:
+		case TEXT:
+			return strings[index];
+		case BOOLEAN:
+			return isNull(index) ? null : Boolean.valueOf(numbers[index]!=0);
+		case SHORT:
+			return isNull(index) ? null : Short.valueOf((short) numbers[index]);
+		default:
+			return isNull(index) ? null : Integer.valueOf(numbers[index]);
+		}
+	}
+}
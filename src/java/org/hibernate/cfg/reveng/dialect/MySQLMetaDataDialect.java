@@ -7,7 +7,18 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
-public class MySQLMetaDataDialect extends JDBCMetaDataDialect {
+public class MySQLMetaDataDialect extends JDBCMetaDataDialect implements LastDDLTimeProbe {
+
+	private static final String SQL_LAST_DDL_TIME = "select max(create_time) from information_schema.tables where table_schema not in ('information_schema', 'mysql', 'performance_schema')";
+
+	/**
+	 * create_time in information_schema.tables is updated on create and alter table. 
+	 * Dropped tables are not detected.
+	 */
+	public Long getLastDDLTime() {
+		return queryLastDDLTime(SQL_LAST_DDL_TIME);
+	}
+
 
 	/**
 	 * Based on info from http://dev.mysql.com/doc/refman/5.0/en/show-table-status.html
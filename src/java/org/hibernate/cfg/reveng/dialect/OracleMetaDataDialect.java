@@ -20,7 +20,7 @@ import org.hibernate.tool.util.TableNameQualifier;
  *  
  */
 
-public class OracleMetaDataDialect extends AbstractMetaDataDialect {
+public class OracleMetaDataDialect extends AbstractMetaDataDialect implements BulkMetaDataDialect, LastDDLTimeProbe {
 
 	
 	
@@ -28,6 +28,17 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 		super();
 	}
 	
+	/** The data dictionary queries all have a variant for a whole owner, e.g. SQL_COLUMN_SCHEMA and SQL_INDEX_SCHEMA. */
+	public boolean supportsBulkMetaData() {
+		return true;
+	}
+	
+	private static final String SQL_LAST_DDL_TIME = "select max(last_ddl_time) from all_objects";
+	
+	public Long getLastDDLTime() {
+		return queryLastDDLTime(SQL_LAST_DDL_TIME);
+	}
+	
 	/* ******* TABLE QUERIES ******* */
 	private static final String SQL_TABLE_BASE = 
 		    "select  a.table_name, a.owner, b.comments, 'TABLE' "
@@ -0,0 +1,165 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MetaData dialect for PostgreSQL that reads the metadata from pg_catalog.
+ *
+ * The information_schema views of PostgreSQL check privileges row by row and are
+ * slow on large schemas, the system catalogs answer the same questions directly.
+ * Catalogs are not reported, just as the PostgreSQL driver does.
+ *
+ * The queries mirror what the driver reports but are not run against a PostgreSQL
+ * server by the test suite, so this dialect is not picked for PostgreSQL dialects;
+ * select it with hibernatetool.metadatadialect.
+ */
+public class PostgreSQLMetaDataDialect extends InformationSchemaMetaDataDialect {
+
+	/** type codes as reported by the PostgreSQL driver */
+	private static final Map<String, Integer> PG_TYPES = new HashMap<String, Integer>();
+	static {
+		PG_TYPES.put("int2", Integer.valueOf(Types.SMALLINT));
+		PG_TYPES.put("int4", Integer.valueOf(Types.INTEGER));
+		PG_TYPES.put("int8", Integer.valueOf(Types.BIGINT));
+		PG_TYPES.put("oid", Integer.valueOf(Types.BIGINT));
+		PG_TYPES.put("numeric", Integer.valueOf(Types.NUMERIC));
+		PG_TYPES.put("float4", Integer.valueOf(Types.REAL));
+		PG_TYPES.put("float8", Integer.valueOf(Types.DOUBLE));
+		PG_TYPES.put("money", Integer.valueOf(Types.DOUBLE));
+		PG_TYPES.put("bool", Integer.valueOf(Types.BIT));
+		PG_TYPES.put("bit", Integer.valueOf(Types.BIT));
+		PG_TYPES.put("char", Integer.valueOf(Types.CHAR));
+		PG_TYPES.put("bpchar", Integer.valueOf(Types.CHAR));
+		PG_TYPES.put("varchar", Integer.valueOf(Types.VARCHAR));
+		PG_TYPES.put("text", Integer.valueOf(Types.VARCHAR));
+		PG_TYPES.put("name", Integer.valueOf(Types.VARCHAR));
+		PG_TYPES.put("bytea", Integer.valueOf(Types.BINARY));
+		PG_TYPES.put("date", Integer.valueOf(Types.DATE));
+		PG_TYPES.put("time", Integer.valueOf(Types.TIME));
+		PG_TYPES.put("timetz", Integer.valueOf(Types.TIME));
+		PG_TYPES.put("timestamp", Integer.valueOf(Types.TIMESTAMP));
+		PG_TYPES.put("timestamptz", Integer.valueOf(Types.TIMESTAMP));
+		PG_TYPES.put("xml", Integer.valueOf(Types.SQLXML));
+	}
+
+	private static final String SYSTEM_SCHEMAS = "n.nspname not in ('pg_catalog', 'information_schema') and n.nspname not like 'pg_toast%' ";
+
+	private static final Query TABLES = new Query(
+			"select null as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME, "
+			+ "case c.relkind when 'v' then 'VIEW' else 'TABLE' end as TABLE_TYPE, "
+			+ "obj_description(c.oid, 'pg_class') as REMARKS "
+			+ "from pg_catalog.pg_class c join pg_catalog.pg_namespace n on n.oid = c.relnamespace "
+			+ "where c.relkind in ('r', 'v', 'p') and " + SYSTEM_SCHEMAS,
+			null, "n.nspname", "c.relname", null,
+			"n.nspname, c.relname");
+
+	// width of the fractional seconds with their dot, the driver assumes 6 digits when no precision is declared
+	private static final String SECONDS_SIZE = "case a.atttypmod when -1 then 7 when 0 then 0 when 1 then 3 else a.atttypmod + 1 end ";
+
+	// domains are reported with the name of their base type
+	private static final Query COLUMNS = new Query(
+			"select null as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME, a.attname as COLUMN_NAME, "
+			+ "coalesce(bt.typname, t.typname) as TYPE_NAME, coalesce(bt.typname, t.typname) as DATA_TYPE, "
+			+ "case when a.attnotnull then 0 else 1 end as NULLABLE, "
+			+ "case coalesce(bt.typname, t.typname) "
+			+ "when 'varchar' then case when a.atttypmod > 4 then a.atttypmod - 4 else 2147483647 end "
+			+ "when 'bpchar' then case when a.atttypmod > 4 then a.atttypmod - 4 else 1 end "
+			+ "when 'text' then 2147483647 "
+			+ "when 'numeric' then case when a.atttypmod > 4 then ((a.atttypmod - 4) >> 16) & 65535 else 1000 end "
+			+ "when 'int2' then 5 when 'int4' then 10 when 'int8' then 19 "
+			+ "when 'float4' then 8 when 'float8' then 17 when 'bool' then 1 "
+			+ "when 'date' then 13 "
+			+ "when 'time' then 8 + " + SECONDS_SIZE
+			+ "when 'timetz' then 14 + " + SECONDS_SIZE
+			+ "when 'timestamp' then 22 + " + SECONDS_SIZE
+			+ "when 'timestamptz' then 28 + " + SECONDS_SIZE
+			+ "else 0 end as COLUMN_SIZE, "
+			+ "case when coalesce(bt.typname, t.typname) = 'numeric' and a.atttypmod > 4 then (a.atttypmod - 4) & 65535 "
+			+ "when coalesce(bt.typname, t.typname) in ('time', 'timetz', 'timestamp', 'timestamptz') then case when a.atttypmod = -1 then 6 else a.atttypmod end "
+			+ "else 0 end as DECIMAL_DIGITS, "
+			+ "col_description(c.oid, a.attnum) as REMARKS "
+			+ "from pg_catalog.pg_attribute a "
+			+ "join pg_catalog.pg_class c on c.oid = a.attrelid "
+			+ "join pg_catalog.pg_namespace n on n.oid = c.relnamespace "
+			+ "join pg_catalog.pg_type t on t.oid = a.atttypid "
+			+ "left join pg_catalog.pg_type bt on (t.typtype = 'd' and bt.oid = t.typbasetype) "
+			+ "where a.attnum > 0 and not a.attisdropped and c.relkind in ('r', 'v', 'p') and " + SYSTEM_SCHEMAS,
+			null, "n.nspname", "c.relname", "a.attname",
+			"n.nspname, c.relname, a.attnum");
+
+	private static final Query PRIMARY_KEYS = new Query(
+			"select null as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME, a.attname as COLUMN_NAME, "
+			+ "k.pos as KEY_SEQ, k.conname as PK_NAME "
+			+ "from (select con.conname, con.conrelid, con.conkey, generate_series(1, array_upper(con.conkey, 1)) as pos "
+			+ "from pg_catalog.pg_constraint con where con.contype = 'p') k "
+			+ "join pg_catalog.pg_class c on c.oid = k.conrelid "
+			+ "join pg_catalog.pg_namespace n on n.oid = c.relnamespace "
+			+ "join pg_catalog.pg_attribute a on (a.attrelid = k.conrelid and a.attnum = k.conkey[k.pos]) "
+			+ "where 1=1 ",
+			null, "n.nspname", "c.relname", null,
+			"n.nspname, c.relname, k.pos");
+
+	private static final Query EXPORTED_KEYS = new Query(
+			"select null as PKTABLE_CAT, pn.nspname as PKTABLE_SCHEM, pc.relname as PKTABLE_NAME, pa.attname as PKCOLUMN_NAME, "
+			+ "null as FKTABLE_CAT, fn.nspname as FKTABLE_SCHEM, fc.relname as FKTABLE_NAME, fa.attname as FKCOLUMN_NAME, "
+			+ "k.conname as FK_NAME, k.pos as KEY_SEQ "
+			+ "from (select con.conname, con.conrelid, con.confrelid, con.conkey, con.confkey, "
+			+ "generate_series(1, array_upper(con.conkey, 1)) as pos "
+			+ "from pg_catalog.pg_constraint con where con.contype = 'f') k "
+			+ "join pg_catalog.pg_class fc on fc.oid = k.conrelid "
+			+ "join pg_catalog.pg_namespace fn on fn.oid = fc.relnamespace "
+			+ "join pg_catalog.pg_attribute fa on (fa.attrelid = k.conrelid and fa.attnum = k.conkey[k.pos]) "
+			+ "join pg_catalog.pg_class pc on pc.oid = k.confrelid "
+			+ "join pg_catalog.pg_namespace pn on pn.oid = pc.relnamespace "
+			+ "join pg_catalog.pg_attribute pa on (pa.attrelid = k.confrelid and pa.attnum = k.confkey[k.pos]) "
+			+ "where 1=1 ",
+			null, "pn.nspname", "pc.relname", null,
+			"fn.nspname, fc.relname, k.conname, k.pos");
+
+	// expression indexes have no attribute and are left out; 3 is DatabaseMetaData.tableIndexOther
+	private static final Query INDEX_INFO = new Query(
+			"select null as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME, ic.relname as INDEX_NAME, "
+			+ "a.attname as COLUMN_NAME, not k.indisunique as NON_UNIQUE, 3 as TYPE "
+			+ "from (select i.indexrelid, i.indrelid, i.indisunique, i.indkey, generate_series(0, i.indnatts - 1) as pos "
+			+ "from pg_catalog.pg_index i) k "
+			+ "join pg_catalog.pg_class ic on ic.oid = k.indexrelid "
+			+ "join pg_catalog.pg_class c on c.oid = k.indrelid "
+			+ "join pg_catalog.pg_namespace n on n.oid = c.relnamespace "
+			+ "join pg_catalog.pg_attribute a on (a.attrelid = k.indrelid and a.attnum = k.indkey[k.pos]) "
+			+ "where " + SYSTEM_SCHEMAS,
+			null, "n.nspname", "c.relname", null,
+			"n.nspname, c.relname, ic.relname, k.pos");
+
+	protected Query getTablesQuery() {
+		return TABLES;
+	}
+
+	protected Query getColumnsQuery() {
+		return COLUMNS;
+	}
+
+	protected Query getPrimaryKeysQuery() {
+		return PRIMARY_KEYS;
+	}
+
+	protected Query getExportedKeysQuery() {
+		return EXPORTED_KEYS;
+	}
+
+	protected Query getIndexInfoQuery() {
+		return INDEX_INFO;
+	}
+
+	protected int toSqlType(String typeName) {
+		if(typeName==null) {
+			return Types.OTHER;
+		}
+		if(typeName.startsWith("_")) {
+			return Types.ARRAY;
+		}
+		Integer sqlType = PG_TYPES.get(typeName);
+		return sqlType==null ? Types.OTHER : sqlType.intValue();
+	}
+}
@@ -0,0 +1,218 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.JDBCException;
+import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MetaDataDialect that answers the per table calls for columns, primary keys, indexes and 
+ * exported keys from one schema-wide query per catalog/schema on a {@link BulkMetaDataDialect}. 
+ * The rows are partitioned by table name in memory.
+ * 
+ * Calls without a schema, with a column pattern or for which the bulk query failed are 
+ * passed on to the delegate as is.
+ */
+public class PrefetchingMetaDataDialect implements MetaDataDialect {
+
+	private static final Logger log = LoggerFactory.getLogger(PrefetchingMetaDataDialect.class);
+
+	private final MetaDataDialect delegate;
+	
+	private final Map<String, Map<String, List<Map<String, Object>>>> columns = new HashMap<String, Map<String, List<Map<String, Object>>>>();
+	private final Map<String, Map<String, List<Map<String, Object>>>> primaryKeys = new HashMap<String, Map<String, List<Map<String, Object>>>>();
+	private final Map<String, Map<String, List<Map<String, Object>>>> indexInfo = new HashMap<String, Map<String, List<Map<String, Object>>>>();
+	private final Map<String, Map<String, List<Map<String, Object>>>> exportedKeys = new HashMap<String, Map<String, List<Map<String, Object>>>>();
+	
+	// catalog/schema keys for which the bulk query failed; these are read per table.
+	private final Set<String> unsupported = new HashSet<String>();
+
+	public PrefetchingMetaDataDialect(MetaDataDialect delegate) {
+		this.delegate = delegate;
+	}
+	
+	/** @return true if the dialect is a {@link BulkMetaDataDialect} supporting schema-wide queries. */
+	public static boolean supportsBulkMetaData(MetaDataDialect dialect) {
+		return dialect instanceof BulkMetaDataDialect && ((BulkMetaDataDialect)dialect).supportsBulkMetaData();
+	}
+
+	public void configure(ReverseEngineeringRuntimeInfo info) {
+		delegate.configure(info);
+	}
+
+	public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+		return delegate.getTables(catalog, schema, table);
+	}
+
+	public void close(Iterator<?> iterator) {
+		if(iterator instanceof PrefetchedIterator) {
+			return;
+		}
+		delegate.close(iterator);
+	}
+
+	public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+		if(column!=null) {
+			return delegate.getColumns(catalog, schema, table, column);
+		}
+		Map<String, List<Map<String, Object>>> partitioned = getPartitioned(columns, catalog, schema, table, "TABLE_NAME", "TABLE_SCHEM");
+		if(partitioned==null) {
+			return delegate.getColumns(catalog, schema, table, column);
+		}
+		return rowsFor(partitioned, table);
+	}
+
+	public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String table) {
+		Map<String, List<Map<String, Object>>> partitioned = getPartitioned(primaryKeys, catalog, schema, table, "TABLE_NAME", "TABLE_SCHEM");
+		if(partitioned==null) {
+			return delegate.getPrimaryKeys(catalog, schema, table);
+		}
+		return rowsFor(partitioned, table);
+	}
+
+	public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+		Map<String, List<Map<String, Object>>> partitioned = getPartitioned(indexInfo, catalog, schema, table, "TABLE_NAME", "TABLE_SCHEM");
+		if(partitioned==null) {
+			return delegate.getIndexInfo(catalog, schema, table);
+		}
+		return rowsFor(partitioned, table);
+	}
+
+	public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+		Map<String, List<Map<String, Object>>> partitioned = getPartitioned(exportedKeys, catalog, schema, table, "PKTABLE_NAME", "PKTABLE_SCHEM");
+		if(partitioned==null) {
+			return delegate.getExportedKeys(catalog, schema, table);
+		}
+		return rowsFor(partitioned, table);
+	}
+
+	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+		return delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table);
+	}
+
+	public boolean needQuote(String name) {
+		return delegate.needQuote(name);
+	}
+
+	/** Drops the prefetched rows. The delegate is not closed since it is owned by the caller. */
+	public void close() {
+		columns.clear();
+		primaryKeys.clear();
+		indexInfo.clear();
+		exportedKeys.clear();
+		unsupported.clear();
+	}
+	
+	/**
+	 * @return rows partitioned by table name, or null if the call should go directly to the delegate.
+	 */
+	private Map<String, List<Map<String, Object>>> getPartitioned(
+			Map<String, Map<String, List<Map<String, Object>>>> cache, 
+			String catalog, 
+			String schema, 
+			String table, 
+			String tableColumn, 
+			String schemaColumn) {
+		if(schema==null || table==null) {
+			// without a schema a table name is not unique in the result
+			return null;
+		}
+		String key = catalog + "/" + schema;
+		if(unsupported.contains(key)) {
+			return null;
+		}
+		Map<String, List<Map<String, Object>>> partitioned = cache.get(key);
+		if(partitioned==null) {
+			try {
+				partitioned = readPartitioned(cache, catalog, schema, tableColumn, schemaColumn);
+			} 
+			catch (JDBCException e) {
+				log.warn("Bulk metadata read failed for " + key + ", falling back to per table reads [" + e + "]");
+				unsupported.add(key);
+				return null;
+			}
+			cache.put(key, partitioned);
+		}
+		return partitioned;
+	}
+	
+	private Map<String, List<Map<String, Object>>> readPartitioned(
+			Map<String, Map<String, List<Map<String, Object>>>> cache, 
+			String catalog, 
+			String schema, 
+			String tableColumn, 
+			String schemaColumn) {
+		Map<String, List<Map<String, Object>>> result = new HashMap<String, List<Map<String, Object>>>();
+		Iterator<Map<String, Object>> iterator = null;
+		try {
+			if(cache==columns) {
+				iterator = delegate.getColumns(catalog, schema, null, null);
+			} else if(cache==primaryKeys) {
+				iterator = delegate.getPrimaryKeys(catalog, schema, null);
+			} else if(cache==indexInfo) {
+				iterator = delegate.getIndexInfo(catalog, schema, null);
+			} else {
+				iterator = delegate.getExportedKeys(catalog, schema, null);
+			}
+			while (iterator.hasNext()) {
+				Map<String, Object> row = iterator.next();
+				String rowSchema = (String) row.get(schemaColumn);
+				if(rowSchema!=null && !rowSchema.equalsIgnoreCase(schema)) {
+					continue; // schema is a like pattern; skip what only matched the pattern
+				}
+				String tableName = (String) row.get(tableColumn);
+				List<Map<String, Object>> rows = result.get(tableName);
+				if(rows==null) {
+					rows = new ArrayList<Map<String, Object>>();
+					result.put(tableName, rows);
+				}
+				rows.add(MetaDataRow.copyOf(row)); // need to copy since MetaDataDialect might reuse it.
+			}
+		} 
+		finally {
+			if(iterator!=null) {
+				delegate.close(iterator);
+			}
+		}
+		return result;
+	}
+
+	private Iterator<Map<String, Object>> rowsFor(Map<String, List<Map<String, Object>>> partitioned, String table) {
+		List<Map<String, Object>> rows = partitioned.get(table);
+		if(rows==null) {
+			rows = Collections.emptyList();
+		}
+		return new PrefetchedIterator(rows.iterator());
+	}
+	
+	private static class PrefetchedIterator implements Iterator<Map<String, Object>> {
+		
+		private final Iterator<Map<String, Object>> rows;
+
+		PrefetchedIterator(Iterator<Map<String, Object>> rows) {
+			this.rows = rows;
+		}
+		
+		public boolean hasNext() {
+			return rows.hasNext();
+		}
+
+		public Map<String, Object> next() {
+			return rows.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove() not possible on prefetched metadata");
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.JDBCException;
+import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CachedMetaDataDialect} that keeps its cache in a file between runs.
+ * 
+ * The snapshot is read on the first configure and written on close if new metadata 
+ * was read from the database. A snapshot is discarded if it is older than the configured
+ * time to live, or if the delegate is a {@link LastDDLTimeProbe} reporting a DDL change
+ * after the snapshot was taken. Without a time to live and without such a probe a snapshot is
+ * used until it is deleted, schema changes are not seen; a warning is logged when that happens.
+ * 
+ * Metadata not present in the snapshot (e.g. another schema selection) is read from the 
+ * database and added to the snapshot.
+ */
+public class SnapshotMetaDataDialect extends CachedMetaDataDialect {
+
+	private static final Logger log = LoggerFactory.getLogger(SnapshotMetaDataDialect.class);
+
+	private static final int MAGIC = 0x48424d53; // "HBMS"
+	private static final int VERSION = 1;
+
+	private final File file;
+	private final String key;
+	private final long timeToLive;
+	
+	private boolean loaded = false;
+	private long created;
+	private Long lastDDLTime;
+	
+	/**
+	 * @param realMetaData dialect to read from when the snapshot does not have the requested metadata
+	 * @param file where the snapshot is stored
+	 * @param key identifies the database, e.g. connection url and user; a snapshot with another key is ignored
+	 * @param timeToLive max age of the snapshot in milliseconds; zero or negative means no limit
+	 */
+	public SnapshotMetaDataDialect(MetaDataDialect realMetaData, File file, String key, long timeToLive) {
+		super(realMetaData);
+		this.file = file;
+		this.key = key;
+		this.timeToLive = timeToLive;
+	}
+	
+	public void configure(ReverseEngineeringRuntimeInfo info) {
+		super.configure(info);
+		if(!loaded) {
+			loaded = true;
+			lastDDLTime = probeLastDDLTime();
+			created = System.currentTimeMillis();
+			load();
+		}
+	}
+	
+	public void close() {
+		try {
+			if(isDirty()) {
+				save();
+			}
+		} 
+		finally {
+			super.close();
+		}
+	}
+	
+	public File getFile() {
+		return file;
+	}
+	
+	private Long probeLastDDLTime() {
+		if(delegate instanceof LastDDLTimeProbe) {
+			try {
+				return ((LastDDLTimeProbe)delegate).getLastDDLTime();
+			} 
+			catch (JDBCException e) {
+				log.warn("Could not determine last DDL time, relying on time to live only [" + e + "]");
+			}
+		}
+		return null;
+	}
+
+	private void load() {
+		if(!file.exists()) {
+			log.debug("No metadata snapshot found at " + file);
+			return;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+			if(in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+				log.info("Ignoring metadata snapshot " + file + " written in an unknown format");
+				return;
+			}
+			if(!key.equals(in.readUTF())) {
+				log.info("Ignoring metadata snapshot " + file + " since it was taken from another database");
+				return;
+			}
+			long snapshotCreated = in.readLong();
+			boolean hasDDLTime = in.readBoolean();
+			long snapshotDDLTime = in.readLong();
+			if(timeToLive>0 && snapshotCreated + timeToLive < System.currentTimeMillis()) {
+				log.info("Metadata snapshot " + file + " has expired");
+				return;
+			}
+			if(lastDDLTime!=null && (!hasDDLTime || snapshotDDLTime!=lastDDLTime.longValue())) {
+				log.info("Database schema changed since metadata snapshot " + file + " was taken");
+				return;
+			}
+			readSnapshot(in);
+			created = snapshotCreated;
+			if(lastDDLTime==null && timeToLive<=0) {
+				// nothing can tell that the snapshot is outdated, it is used until deleted
+				log.warn("Using metadata snapshot " + file + " taken at " + new Date(snapshotCreated) 
+						+ " without checking for schema changes; set a time to live or delete the snapshot to see changes");
+			} 
+			else {
+				log.info("Using metadata snapshot " + file);
+			}
+		} 
+		catch (IOException e) {
+			log.warn("Could not read metadata snapshot " + file + ", reading from database instead", e);
+		} 
+		finally {
+			close(in);
+		}
+	}
+	
+	private void save() {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if(dir!=null && !dir.exists()) {
+			dir.mkdirs();
+		}
+		File tmp = new File(dir, file.getName() + ".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(key);
+			out.writeLong(created);
+			out.writeBoolean(lastDDLTime!=null);
+			out.writeLong(lastDDLTime==null ? 0 : lastDDLTime.longValue());
+			writeSnapshot(out);
+			out.close();
+			out = null;
+			if(file.exists() && !file.delete()) {
+				throw new IOException("Could not replace " + file);
+			}
+			if(!tmp.renameTo(file)) {
+				throw new IOException("Could not rename " + tmp + " to " + file);
+			}
+			log.debug("Wrote metadata snapshot " + file);
+		} 
+		catch (IOException e) {
+			log.warn("Could not write metadata snapshot " + file, e);
+			tmp.delete();
+		} 
+		finally {
+			if(out!=null) {
+				try {
+					out.close();
+				} 
+				catch (IOException ignore) {
+				}
+				tmp.delete();
+			}
+		}
+	}
+
+	private void close(DataInputStream in) {
+		if(in!=null) {
+			try {
+				in.close();
+			} 
+			catch (IOException ignore) {
+			}
+		}
+	}
+}
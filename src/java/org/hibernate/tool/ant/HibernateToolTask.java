@@ -20,6 +20,7 @@ import org.apache.tools.ant.types.PropertySet;
 import org.hibernate.boot.MappingNotFoundException;
 import org.hibernate.boot.jaxb.Origin;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.internal.util.StringHelper;
 
 /**
@@ -186,6 +187,10 @@ public class HibernateToolTask extends Task {
 				log(count++ + ". task: " + generatorTask.getName() );
 				generatorTask.execute();			
 			}
+			if(getConfiguration() instanceof JDBCMetaDataConfiguration) {
+				// only remember the schema state once everything was generated from it
+				((JDBCMetaDataConfiguration)getConfiguration()).storeSchemaFingerprints();
+			}
 		} catch (RuntimeException re) {
 			reportException(re, count, generatorTask);
 		} 
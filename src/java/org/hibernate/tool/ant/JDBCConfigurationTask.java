@@ -5,6 +5,7 @@
 package org.hibernate.tool.ant;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 
 import org.apache.tools.ant.BuildException;
@@ -12,10 +13,13 @@ import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.Path;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.reveng.CachingReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.OverrideRepository;
 import org.hibernate.cfg.reveng.ReverseEngineeringSettings;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.SchemaFingerprints;
+import org.hibernate.tool.util.DigestHelper;
 import org.hibernate.tool.util.ReflectHelper;
 
 
@@ -34,6 +38,8 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 	private boolean detectOneToOne = true;
 	private boolean detectManyToMany = true;
 	private boolean detectOptimisticLock = true;
+	private boolean cacheNamingDecisions = false;
+	private File fingerprintFile;
     
 	public JDBCConfigurationTask() {
 		setDescription("JDBC Configuration (for reverse engineering)");
@@ -54,13 +60,18 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 		DefaultReverseEngineeringStrategy defaultStrategy = new DefaultReverseEngineeringStrategy();
 		
 		ReverseEngineeringStrategy strategy = defaultStrategy;
+		StringBuffer description = new StringBuffer();
 				
 		if(revengFiles!=null) {
 			OverrideRepository or = new OverrideRepository();
 			
 			String[] fileNames = revengFiles.list();
 			for (int i = 0; i < fileNames.length; i++) {
-				or.addFile(new File(fileNames[i]) );
+				File file = new File(fileNames[i]);
+				or.addFile(file );
+				if(fingerprintFile!=null) {
+					description.append(fileNames[i]).append('=').append(hash(file)).append('|');
+				}
 			}
 			strategy = or.getReverseEngineeringStrategy(defaultStrategy);			
 		}
@@ -69,16 +80,25 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 			strategy = loadreverseEngineeringStrategy(reverseEngineeringStrategyClass, strategy);			
 		}
 		
+		if(cacheNamingDecisions) {
+			strategy = new CachingReverseEngineeringStrategy(strategy);
+		}
+		
 		ReverseEngineeringSettings qqsettings = 
 			new ReverseEngineeringSettings(strategy).setDefaultPackageName(packageName)
 			.setDetectManyToMany( detectManyToMany )
 			.setDetectOneToOne( detectOneToOne )
-			.setDetectOptimisticLock( detectOptimisticLock );
+			.setDetectOptimisticLock( detectOptimisticLock )
+			.setCacheNamingDecisions( cacheNamingDecisions );
 	
 		defaultStrategy.setSettings(qqsettings);
 		strategy.setSettings(qqsettings);
 		
         jmdc.setReverseEngineeringStrategy(strategy);
+        jmdc.setFingerprintFile(fingerprintFile);
+        jmdc.setStrategyDescription(description
+        		.append(reverseEngineeringStrategyClass).append('|')
+        		.append(SchemaFingerprints.describe(qqsettings)).toString());
         
 		jmdc.readFromJDBC(); 
 	}
@@ -112,6 +132,32 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 		detectOptimisticLock = b;
 	}
 	
+	public void setCacheNamingDecisions(boolean b) {
+		cacheNamingDecisions = b;
+	}
+	
+	/**
+	 * Regenerate only the artifacts of tables that changed since the last run, see
+	 * {@link JDBCMetaDataConfiguration#setFingerprintFile(File)}. Changes to the reveng.xml 
+	 * files, the strategy class and the settings of this task regenerate everything; changes
+	 * to the templates, template path or properties of an exporter regenerate everything of
+	 * that exporter. Not detected are changes to the code of a custom strategy and to custom 
+	 * templates loaded from the classpath instead of the template path; delete the file in 
+	 * these cases. Files left behind by dropped tables are reported but not deleted.
+	 */
+	public void setFingerprintFile(File file) {
+		fingerprintFile = file;
+	}
+	
+	private static String hash(File file) {
+		try {
+			return DigestHelper.hash(file);
+		}
+		catch (IOException e) {
+			throw new BuildException("Could not read " + file, e);
+		}
+	}
+	
     private ReverseEngineeringStrategy loadreverseEngineeringStrategy(final String className, ReverseEngineeringStrategy delegate) 
     throws BuildException {
         try {
@@ -16,14 +16,15 @@ import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.FileSet;
-import org.hibernate.tool.hbm2x.ExporterException;
-import org.hibernate.tool.ide.formatting.JavaFormatter;
+import org.hibernate.tool.ide.formatting.ParallelJavaFormatter;
 
 public class JavaFormatterTask extends Task {
 	
 	private List<FileSet> fileSets = new ArrayList<FileSet>();
 	private boolean failOnError;
 	private File configurationFile;
+	private File hashFile;
+	private int threads = Runtime.getRuntime().availableProcessors();
 	
 	public void addConfiguredFileSet(FileSet fileSet) {
 		fileSets.add(fileSet);
@@ -33,6 +34,16 @@ public class JavaFormatterTask extends Task {
 		this.configurationFile = configurationFile;
 	}
 	
+	/** number of files formatted concurrently, defaults to the number of processors */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+	
+	/** file to remember the state of formatted files in, to skip them when unchanged */
+	public void setHashFile(File hashFile) {
+		this.hashFile = hashFile;
+	}
+	
 	private Properties readConfig(File cfgfile) throws IOException {
 		BufferedInputStream stream = null;
 		try {
@@ -69,32 +80,69 @@ public class JavaFormatterTask extends Task {
 		File[] files = getFiles();
 		
 		int failed = 0;
+		int unchanged = 0;
+		long slowest = 0;
+		File slowestFile = null;
 	
 		if(files.length>0) {
 			
-			JavaFormatter formatter = new JavaFormatter(settings);
-			for (int i = 0; i < files.length; i++) {
-				File file = files[i];			
+			ParallelJavaFormatter formatter = new ParallelJavaFormatter(settings, threads);
+			if(hashFile!=null) {
 				try {
-					boolean ok = formatter.formatFile( file );
-					if(!ok) {
-						failed++;
-						getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);						
-					} else {
-						getProject().log(this, "Formatted " + file, Project.MSG_VERBOSE);
-					}
-				} catch(ExporterException ee) {
+					formatter.setHashFile(hashFile);
+				}
+				catch (IOException e) {
+					getProject().log(this, "Could not read " + hashFile + ", formatting all files", Project.MSG_WARN);
+				}
+			}
+			
+			long start = System.currentTimeMillis();
+			List<ParallelJavaFormatter.Result> results = formatter.formatFiles(files);
+			BuildException error = null;
+			for (Iterator<ParallelJavaFormatter.Result> iter = results.iterator(); iter.hasNext();) {
+				ParallelJavaFormatter.Result result = iter.next();
+				File file = result.getFile();
+				if(result.getMillis()>slowest) {
+					slowest = result.getMillis();
+					slowestFile = file;
+				}
+				switch (result.getStatus()) {
+				case ParallelJavaFormatter.FORMATTED:
+					getProject().log(this, "Formatted " + file + " in " + result.getMillis() + " ms", Project.MSG_VERBOSE);
+					break;
+				case ParallelJavaFormatter.UNCHANGED:
+					unchanged++;
+					getProject().log(this, "Unchanged since last formatting - skipping " + file, Project.MSG_VERBOSE);
+					break;
+				case ParallelJavaFormatter.FAILED:
+					failed++;
+					getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);
+					break;
+				default:
 					failed++;
 					if(failOnError) {
-						throw new BuildException("Java formatting failed on " + file, ee);
+						if(error==null) {
+							error = new BuildException("Java formatting failed on " + file, result.getError());
+						}
 					} else {
-						getProject().log(this, "Java formatting failed on " + file + ", " + ee.getLocalizedMessage(), Project.MSG_ERR);
+						getProject().log(this, "Java formatting failed on " + file + ", " + result.getError().getLocalizedMessage(), Project.MSG_ERR);
 					}
 				}
-			}			
+			}
+			
+			try {
+				formatter.storeHashes();
+			}
+			catch (IOException e) {
+				getProject().log(this, "Could not write " + hashFile + ", " + e.getLocalizedMessage(), Project.MSG_WARN);
+			}
+			if(error!=null) {
+				throw error;
+			}
+			getProject().log(this, "Java formatting took " + (System.currentTimeMillis() - start) + " ms" + (slowestFile==null ? "" : ", slowest file " + slowestFile + " (" + slowest + " ms)"), Project.MSG_VERBOSE);
 		}
 		
-		getProject().log( this, "Java formatting of " + files.length + " files completed. Skipped " + failed + " file(s).", Project.MSG_INFO );
+		getProject().log( this, "Java formatting of " + files.length + " files completed. Skipped " + failed + " file(s), " + unchanged + " unchanged.", Project.MSG_INFO );
 		
 	}
 
@@ -4,9 +4,16 @@
 package org.hibernate.tool.hbm2x;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.cfg.Configuration;
@@ -91,6 +98,10 @@ public abstract class AbstractExporter implements Exporter {
 	 * Subclasses mostly implement doStart() instead.
 	 */
 	public void start() {
+		boolean skipUnchanged = isSkipUnchanged();
+		if(skipUnchanged && !getArtifactCollector().isSkipUnchanged()) {
+			getArtifactCollector().setManifestFile(new File(getOutputDirectory(), ArtifactCollector.MANIFEST_FILE_NAME));
+		}
 		setTemplateHelper( new TemplateHelper() );
 		setupTemplates();
 		setupContext();
@@ -98,10 +109,78 @@ public abstract class AbstractExporter implements Exporter {
 		cleanUpContext();		
 		setTemplateHelper(null);
 		getArtifactCollector().formatFiles();
+		if(skipUnchanged) {
+			// hashes are taken after formatting so they match the files on disk
+			getArtifactCollector().storeManifest();
+			getArtifactCollector().logStatistics();
+		}
+	}
+
+	protected boolean isSkipUnchanged() {
+		return getProperties()!=null && "true".equals(getProperties().getProperty(ExporterSettings.SKIP_UNCHANGED));
 	}
 	
 	abstract protected void doStart();
 
+	protected int getThreadCount() {
+		String threads = getProperties()==null ? null : getProperties().getProperty(ExporterSettings.THREADS);
+		if(StringHelper.isEmpty(threads)) {
+			return 1;
+		}
+		try {
+			return Integer.parseInt(threads.trim());
+		}
+		catch (NumberFormatException e) {
+			throw new ExporterException("Invalid value for " + ExporterSettings.THREADS + ": " + threads, e);
+		}
+	}
+
+	/**
+	 * Runs the tasks concurrently when {@link ExporterSettings#THREADS} is above 1, otherwise one 
+	 * after another in the given order. The first failure is rethrown unchanged.
+	 */
+	protected void runTasks(List<? extends Callable<?>> tasks) {
+		int threads = getThreadCount();
+		if(threads<=1 || tasks.size()<2) {
+			for (Iterator<? extends Callable<?>> iter = tasks.iterator(); iter.hasNext();) {
+				try {
+					iter.next().call();
+				}
+				catch (RuntimeException e) {
+					throw e;
+				}
+				catch (Exception e) {
+					throw new ExporterException("Error while exporting", e);
+				}
+			}
+			return;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>(tasks.size());
+			for (Iterator<? extends Callable<?>> iter = tasks.iterator(); iter.hasNext();) {
+				futures.add(executor.submit(iter.next()));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				iter.next().get();
+			}
+		}
+		catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new ExporterException("Error while exporting", e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExporterException("Interrupted while exporting", e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	public String[] getTemplatePaths() {
 		return templatePaths;
 	}
@@ -140,6 +219,7 @@ public abstract class AbstractExporter implements Exporter {
 			log.debug(getClass().getName() + " outputdir:" + getOutputDirectory() + " path: " + toString(templatePaths) );
 		}
 		getTemplateHelper().init(getOutputDirectory(), templatePaths);		
+		getTemplateHelper().setArtifactCollector(getArtifactCollector());
 	}
 
 	/**
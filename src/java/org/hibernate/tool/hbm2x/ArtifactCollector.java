@@ -1,13 +1,24 @@
 package org.hibernate.tool.hbm2x;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+
+import org.hibernate.tool.util.DigestHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Callback class that all exporters are given to allow 
@@ -18,21 +29,205 @@ import java.util.Set;
  */
 public class ArtifactCollector {
 
+	/** name of the file keeping the content hashes when unchanged artifacts are skipped */
+	public static final String MANIFEST_FILE_NAME = ".hibernatetool-manifest";
+	
+	private static final Logger log = LoggerFactory.getLogger(ArtifactCollector.class);
+
 	final protected Map<String, List<File>> files = 
 			new HashMap<String, List<File>>();
 	
+	final protected Map<String, List<File>> skippedFiles = 
+			new HashMap<String, List<File>>();
+	
+	private File manifestFile = null;
+	// path -> "<hash of rendered content> <hash of file after formatting>"
+	private final Properties manifest = new Properties();
+	private final Map<File, String> renderedHashes = new HashMap<File, String>();
+	private final Map<File, Long> generationTimes = new HashMap<File, Long>();
+	
 	/** 
 	 * Called to inform that a file has been created by the exporter.
 	 */
-	public void addFile(File file, String type) {		
-		List<File> existing = files.get(type);
+	public synchronized void addFile(File file, String type) {		
+		add(files, file, type);
+	}
+
+	/** 
+	 * Called to inform that a file has been created by the exporter from content with the given hash.
+	 * The hash is recorded in the manifest by {@link #storeManifest()}.
+	 */
+	public synchronized void addFile(File file, String type, String contentHash) {
+		add(files, file, type);
+		if(contentHash!=null) {
+			renderedHashes.put(file, contentHash);
+		}
+	}
+
+	/**
+	 * Called to inform how long it took to generate a file, e.g. to render an image with an external tool.
+	 */
+	public synchronized void addGenerationTime(File file, long millis) {
+		generationTimes.put(file, Long.valueOf(millis));
+	}
+
+	/** @return the time in milliseconds it took to generate the file, -1 if not known */
+	public synchronized long getGenerationTime(File file) {
+		Long millis = generationTimes.get(file);
+		return millis==null ? -1 : millis.longValue();
+	}
+
+	/**
+	 * Called to inform that writing a file was skipped as its content did not change.
+	 */
+	public synchronized void addSkippedFile(File file, String type) {
+		add(skippedFiles, file, type);
+	}
+
+	private static void add(Map<String, List<File>> map, File file, String type) {
+		List<File> existing = map.get(type);
 		if(existing==null) {
 			existing = new ArrayList<File>();
-			files.put(type, existing);
+			map.put(type, existing);
 		}
 		existing.add(file);
 	}
 
+	/**
+	 * Enables skipping of unchanged artifacts, using the given file to remember 
+	 * the content hashes between runs.
+	 */
+	public synchronized void setManifestFile(File manifestFile) {
+		this.manifestFile = manifestFile;
+		manifest.clear();
+		if(manifestFile!=null && manifestFile.exists()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(manifestFile);
+				manifest.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Could not read " + manifestFile + ", all artifacts will be written", e);
+				manifest.clear();
+			}
+			finally {
+				close(in);
+			}
+		}
+	}
+
+	public File getManifestFile() {
+		return manifestFile;
+	}
+
+	/** @return true if writes of unchanged artifacts should be avoided */
+	public boolean isSkipUnchanged() {
+		return manifestFile!=null;
+	}
+
+	/**
+	 * @return true if the file was generated from content with the same hash 
+	 * and has not been modified since.
+	 */
+	public boolean isUnchanged(File file, String contentHash) {
+		String entry;
+		synchronized (this) {
+			entry = manifest.getProperty(file.getAbsolutePath());
+		}
+		if(entry==null || !file.exists()) {
+			return false;
+		}
+		int separator = entry.indexOf(' ');
+		if(separator<0 || !entry.substring(0, separator).equals(contentHash)) {
+			return false;
+		}
+		try {
+			return entry.substring(separator+1).equals(DigestHelper.hash(file));
+		}
+		catch (IOException e) {
+			log.debug("Could not read " + file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Records the hashes of the files written since the last call and saves the manifest. 
+	 * Has to be called after the files have been formatted.
+	 */
+	public synchronized void storeManifest() {
+		if(manifestFile==null) {
+			return;
+		}
+		if(!renderedHashes.isEmpty()) {
+			for (Iterator<Entry<File, String>> iter = renderedHashes.entrySet().iterator(); iter.hasNext();) {
+				Entry<File, String> entry = iter.next();
+				File file = entry.getKey();
+				try {
+					manifest.setProperty(file.getAbsolutePath(), entry.getValue() + " " + DigestHelper.hash(file));
+				}
+				catch (IOException e) {
+					log.warn("Could not hash " + file, e);
+					manifest.remove(file.getAbsolutePath());
+				}
+			}
+			renderedHashes.clear();
+		}
+		File parent = manifestFile.getAbsoluteFile().getParentFile();
+		if(parent!=null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(manifestFile);
+			manifest.store(out, "Content hashes of generated artifacts");
+		}
+		catch (IOException e) {
+			throw new ExporterException("Could not write " + manifestFile, e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	/**
+	 * Logs the number of written and skipped files per file type.
+	 */
+	public synchronized void logStatistics() {
+		Set<String> types = new TreeSet<String>(files.keySet());
+		types.addAll(skippedFiles.keySet());
+		for (Iterator<String> iter = types.iterator(); iter.hasNext();) {
+			String type = iter.next();
+			log.info(type + ": " + getFileCount(type) + " written, " + getSkippedFileCount(type) + " unchanged");
+		}
+	}
+
+	public int getSkippedFileCount(String type) {
+		List<File> existing = skippedFiles.get(type);
+		
+		return (existing==null) ? 0 : existing.size();
+	}
+
+	public File[] getSkippedFiles(String type) {
+		List<File> existing = skippedFiles.get(type);
+		
+		if(existing==null) {
+			return new File[0];
+		} else {
+			return (File[]) existing.toArray(new File[existing.size()]);
+		}
+	}
+
+	private static void close(java.io.Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
 	public int getFileCount(String type) {
 		List<File> existing = files.get(type);
 		
@@ -55,24 +250,31 @@ public class ArtifactCollector {
 
 	public void formatFiles() {
 		
-		formatXml( "xml" );
-		formatXml( "hbm.xml" );
-		formatXml( "cfg.xml" );
+		List<File> xmlFiles = new ArrayList<File>();
+		addFiles( xmlFiles, "xml" );
+		addFiles( xmlFiles, "hbm.xml" );
+		addFiles( xmlFiles, "cfg.xml" );
+		formatXml( xmlFiles );
 				
 	}
 
-	private void formatXml(String type) throws ExporterException {
+	private void addFiles(List<File> result, String type) {
 		List<File> list = files.get(type);
-		if(list!=null && !list.isEmpty()) {
-			for (Iterator<File> iter = list.iterator(); iter.hasNext();) {
-				File xmlFile = iter.next();
-				try {					
-					XMLPrettyPrinter.prettyPrintFile(XMLPrettyPrinter.getDefaultTidy(), xmlFile, xmlFile, true);
-				}
-				catch (IOException e) {
-					throw new ExporterException("Could not format XML file: " + xmlFile,e);
-				}
-			}
+		if(list!=null) {
+			result.addAll(list);
+		}
+	}
+
+	private void formatXml(List<File> xmlFiles) throws ExporterException {
+		if(xmlFiles.isEmpty()) {
+			return;
+		}
+		try {
+			new StreamingXMLPrettyPrinter().prettyPrintFiles(xmlFiles, Runtime.getRuntime().availableProcessors(), true);
+		}
+		catch (IOException e) {
+			// the message names the file that could not be formatted
+			throw new ExporterException(e.getMessage(),e);
 		}
 	}
 	
@@ -0,0 +1,50 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer that passes everything through and remembers whether any
+ * non-whitespace character was written, so empty template output can be 
+ * detected without keeping the output in memory.
+ */
+class ContentDetectingWriter extends FilterWriter {
+
+	private boolean content = false;
+
+	ContentDetectingWriter(Writer out) {
+		super(out);
+	}
+
+	/** @return true if at least one non-whitespace character has been written */
+	boolean hasContent() {
+		return content;
+	}
+
+	public void write(int c) throws IOException {
+		if(!content && !isWhitespace((char) c)) {
+			content = true;
+		}
+		out.write(c);
+	}
+
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		for (int i = off; !content && i < off + len; i++) {
+			content = !isWhitespace(cbuf[i]);
+		}
+		out.write(cbuf, off, len);
+	}
+
+	public void write(String str, int off, int len) throws IOException {
+		for (int i = off; !content && i < off + len; i++) {
+			content = !isWhitespace(str.charAt(i));
+		}
+		out.write(str, off, len);
+	}
+
+	// same notion of whitespace as String.trim()
+	private static boolean isWhitespace(char c) {
+		return c <= ' ';
+	}
+}
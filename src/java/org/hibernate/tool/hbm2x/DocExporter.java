@@ -1,14 +1,25 @@
 package org.hibernate.tool.hbm2x;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.hibernate.HibernateException;
 import org.hibernate.boot.Metadata;
@@ -19,6 +30,7 @@ import org.hibernate.tool.hbm2x.doc.DocFile;
 import org.hibernate.tool.hbm2x.doc.DocFileManager;
 import org.hibernate.tool.hbm2x.doc.DocHelper;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
+import org.hibernate.tool.util.DigestHelper;
 import org.hibernate.tool.util.MetadataHelper;
 
 /**
@@ -116,11 +128,22 @@ public class DocExporter extends AbstractExporter {
      */
     private static final String FTL_TABLES_SCHEMA_SUMMARY = "doc/tables/schema-summary.ftl";
 
+    /**
+     * Property with the number of entries on a page of the all tables, all entities and
+     * schema table lists. Not set or 0 puts all entries on one page.
+     */
+    public static final String PAGE_SIZE = "doc.pagesize";
+
     /**
      * Template used for the Table Details.
      */
     private static final String FTL_TABLES_TABLE = "doc/tables/table.ftl";
 
+    /**
+     * Formats each graph is rendered to.
+     */
+    private static final String[] GRAPH_FORMATS = { "png", "svg", "cmap" };
+
     /**
      * Doc helper.
      */
@@ -131,6 +154,11 @@ public class DocExporter extends AbstractExporter {
      */
     private DocFileManager docFileManager;
     
+    /**
+     * Pages collected by the generate methods while {@link #doStart()} runs, rendered afterwards.
+     */
+    private List<Callable<Object>> pages;
+    
     /**
      * Creates a new object.
      * 
@@ -146,10 +174,28 @@ public class DocExporter extends AbstractExporter {
  
 	}
 
+	/**
+	 * Renders the documentation. The pages do not depend on each other, so they are collected 
+	 * first and rendered concurrently when {@link ExporterSettings#THREADS} is above 1; the 
+	 * graphs are generated before as the summaries include their image maps.
+	 */
 	public void doStart() throws ExporterException {
         generateCommmonAndAssets();
         
         boolean graphsGenerated = generateDot();
+        
+        List<Callable<Object>> collected = new ArrayList<Callable<Object>>();
+        pages = collected;
+        try {
+        	generatePages(graphsGenerated);
+        }
+        finally {
+        	pages = null;
+        }
+        runTasks(collected);
+    }
+
+	private void generatePages(boolean graphsGenerated) {
         generateTablesIndex();
         generateTablesSummary(graphsGenerated);
         generateTablesDetails();
@@ -166,8 +212,8 @@ public class DocExporter extends AbstractExporter {
         generateEntitiesPackageEntityList();
         generateEntitiesPackageDetailedInfo();
         
-        
-    }
+        generateSearchIndex();
+	}
 
 	private boolean generateDot() {
 		String cmd = getProperties().getProperty( "dot.executable" );
@@ -189,15 +235,9 @@ public class DocExporter extends AbstractExporter {
 				exporter.start();
 				
 				
-				File entityGraphDot = new File(getOutputDirectory(), "entities/entitygraph.dot");
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.png").toString());
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.svg").toString());
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.cmap").toString());
-				
-				File tableGraphDot = new File(getOutputDirectory(), "tables/tablegraph.dot");
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.png").toString());
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.svg").toString());
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.cmap").toString());
+				renderGraphs( cmd, new File[] { 
+						new File(getOutputDirectory(), "entities/entitygraph.dot"), 
+						new File(getOutputDirectory(), "tables/tablegraph.dot") } );
 			
 				return true;
 
@@ -216,59 +256,190 @@ public class DocExporter extends AbstractExporter {
 		}
 	}
 
-	public static final String OS_NAME = System.getProperty("os.name");    
-    public static final boolean IS_LINUX = OS_NAME.startsWith("Linux");    
-	
-	private String escape(String fileName){
-		
-		// Linux does not need " " around file names
-		if (IS_LINUX){
-			return fileName;
+    /**
+     * Renders the images of the graphs, launching all dot processes at once. The images of
+     * a graph are only rendered again when the content of its .dot file changed since they
+     * were rendered last, which is remembered by a hash next to the .dot file.
+     */
+	private void renderGraphs(final String cmd, File[] dotFiles) throws IOException {
+		List<File> changedGraphs = new ArrayList<File>();
+		List<String> changedHashes = new ArrayList<String>();
+		for (int i = 0; i < dotFiles.length; i++) {
+			File dotFile = dotFiles[i];
+			String hash = DigestHelper.hash(dotFile);
+			if(isGraphUnchanged(dotFile, hash)) {
+				log.debug("Skipping rendering of " + dotFile + " as it is unchanged");
+				File[] images = getGraphImages(dotFile);
+				for (int j = 0; j < images.length; j++) {
+					getArtifactCollector().addSkippedFile(images[j], GRAPH_FORMATS[j]);
+				}
+			} else {
+				// only valid again when all images have been rendered
+				getGraphHashFile(dotFile).delete();
+				changedGraphs.add(dotFile);
+				changedHashes.add(hash);
+			}
+		}
+		if(changedGraphs.isEmpty()) {
+			return;
 		}
 		
-		// Windows needs " " around file names; actually we do not 
-		// need it always, only when spaces are present;
-		// but it does not hurt to usem them always
-		return "\"" + fileName + "\"";
-		
+		ExecutorService executor = Executors.newFixedThreadPool(changedGraphs.size() * GRAPH_FORMATS.length);
+		try {
+			List<List<Future<Boolean>>> results = new ArrayList<List<Future<Boolean>>>();
+			for (Iterator<File> iter = changedGraphs.iterator(); iter.hasNext();) {
+				final File dotFile = iter.next();
+				File[] images = getGraphImages(dotFile);
+				List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+				for (int j = 0; j < images.length; j++) {
+					final File image = images[j];
+					futures.add(executor.submit(new Callable<Boolean>() {
+						public Boolean call() throws IOException {
+							return Boolean.valueOf(dotToFile(cmd, dotFile, image));
+						}
+					}));
+				}
+				results.add(futures);
+			}
+			for (int i = 0; i < changedGraphs.size(); i++) {
+				boolean rendered = true;
+				for (Iterator<Future<Boolean>> iter = results.get(i).iterator(); iter.hasNext();) {
+					rendered &= iter.next().get().booleanValue();
+				}
+				if(rendered) {
+					Files.write(getGraphHashFile(changedGraphs.get(i)).toPath(), changedHashes.get(i).getBytes("UTF-8"));
+				}
+			}
+		}
+		catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new ExporterException("Error while rendering graphs", e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExporterException("Interrupted while rendering graphs", e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private boolean isGraphUnchanged(File dotFile, String hash) {
+		File hashFile = getGraphHashFile(dotFile);
+		if(!hashFile.exists()) {
+			return false;
+		}
+		File[] images = getGraphImages(dotFile);
+		for (int i = 0; i < images.length; i++) {
+			if(!images[i].exists()) {
+				return false;
+			}
+		}
+		try {
+			return hash.equals(new String(Files.readAllBytes(hashFile.toPath()), "UTF-8"));
+		}
+		catch (IOException e) {
+			log.debug("Could not read " + hashFile, e);
+			return false;
+		}
+	}
+
+	private File getGraphHashFile(File dotFile) {
+		return new File(dotFile.getPath() + ".md5");
+	}
+
+	private File[] getGraphImages(File dotFile) {
+		String base = dotFile.getPath().substring(0, dotFile.getPath().length() - ".dot".length());
+		File[] images = new File[GRAPH_FORMATS.length];
+		for (int i = 0; i < GRAPH_FORMATS.length; i++) {
+			images[i] = new File(base + "." + GRAPH_FORMATS[i]);
+		}
+		return images;
 	}
 	
-	private void dotToFile(String dotExeFileName, String dotFileName, String outFileName) throws IOException {
+	/**
+	 * @return true if dot rendered the file
+	 * @throws IOException if dot could not be executed
+	 */
+	private boolean dotToFile(String dotExeFileName, File dotFile, File outFile) throws IOException {
 
 		//
-		// dot.exe works by taking *.dot file and piping 
-		// results into another file, for example:
-		// d:\graphviz-1.12\bin\dot.exe -Tgif c:\temp\ManualDraw.dot > c:\temp\ManualDraw.gif
-		// so we follow that model here and read stdout until EOF
+		// dot.exe works by taking *.dot file and writing 
+		// the result into another file, for example:
+		// d:\graphviz-1.12\bin\dot.exe -Tgif c:\temp\ManualDraw.dot -o c:\temp\ManualDraw.gif
+		// its messages are read until EOF so the process never blocks on a full pipe
 		// 
 	
-		final String exeCmd = 
-			escape(dotExeFileName) + 
-			" -T" + getFormatForFile(outFileName) + " " + 
-			escape(dotFileName) +
-			" -o " + 
-			escape(outFileName);			
-	
-		Process p = Runtime.getRuntime().exec(exeCmd);
-		//p.getErrorStream().
+		String format = getFormatForFile(outFile.getName());
+		List<String> command = dotCommand(dotExeFileName);
+		command.addAll(Arrays.asList("-T" + format, dotFile.getPath(), "-o", outFile.getPath()));
+		long start = System.currentTimeMillis();
+		log.debug( "Executing: " + command );
+		Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
 		try {
-			log.debug( "Executing: " + exeCmd );
-//			 Get the input stream and read from it
-	        InputStream in = p.getErrorStream();
-	        int c;
-	        while ((c = in.read()) != -1) {
-	            System.out.print((char)c);
-	        }
-	        in.close();
+			String output = drain(p.getInputStream());
 			int i = p.waitFor( );
+			if(output.length()>0) {
+				log.warn(outFile.getName() + ": " + output);
+			}
 			if(i!=0) {
-				//TODO: dump system.err
-				log.error("Error " + i + " while executing: " + exeCmd);				
+				log.error("Error " + i + " while executing: " + command);
+				return false;
 			}
-		} catch(Exception ie){
-			log.error( "Error while executing: " + exeCmd, ie );
+		} catch(InterruptedException ie){
+			p.destroy();
+			Thread.currentThread().interrupt();
+			log.error( "Interrupted while executing: " + command, ie );
+			return false;
+		} catch(IOException ie){
+			p.destroy();
+			log.error( "Error while executing: " + command, ie );
+			return false;
 		}
-	}		
+		long millis = System.currentTimeMillis() - start;
+		log.debug( "Rendered " + outFile + " in " + millis + " ms" );
+		getArtifactCollector().addFile(outFile, format);
+		getArtifactCollector().addGenerationTime(outFile, millis);
+		return true;
+	}
+
+	/**
+	 * dot.executable may carry arguments, e.g. "dot -Gdpi=150", which used to be split on whitespace 
+	 * by Runtime.exec; a path naming an existing file is kept whole so it may contain spaces.
+	 */
+	static List<String> dotCommand(String dotExecutable) {
+		List<String> command = new ArrayList<String>();
+		if(new File(dotExecutable).isFile()) {
+			command.add(dotExecutable);
+		} 
+		else {
+			StringTokenizer tokens = new StringTokenizer(dotExecutable);
+			while (tokens.hasMoreTokens()) {
+				command.add(tokens.nextToken());
+			}
+		}
+		return command;
+	}
+
+	private String drain(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+			return out.toString().trim();
+		}
+		finally {
+			in.close();
+		}
+	}
 
 	private String getFormatForFile(String outFileName){
 		int idx = outFileName.lastIndexOf(".");
@@ -476,15 +647,21 @@ public class DocExporter extends AbstractExporter {
      *
      */
     public void generateEntitiesAllEntitiesList() {
-        DocFile docFile = docFileManager.getAllEntitiesDocFile();
+        List<POJOClass> classList = docHelper.getClasses();
+        int pageCount = getPageCount(classList.size());
+        for (int page = 1; page <= pageCount; page++) {
+            DocFile docFile = docFileManager.getAllEntitiesDocFile(page);
 
-        File file = docFile.getFile();   
+            File file = docFile.getFile();   
 
-        Map<String, Object> parameters = new HashMap<String, Object>();
-        parameters.put("docFile", docFile);
-        parameters.put("classList", docHelper.getClasses());  
+            Map<String, Object> parameters = new HashMap<String, Object>();
+            parameters.put("docFile", docFile);
+            parameters.put("classList", getPage(classList, page));  
+            putPageLinks(parameters, page, pageCount, 
+                    docFileManager.getAllEntitiesDocFile(page - 1), docFileManager.getAllEntitiesDocFile(page + 1));
 
-        processTemplate(parameters, FTL_ENTITIES_ENTITY_LIST, file);
+            processTemplate(parameters, FTL_ENTITIES_ENTITY_LIST, file);
+        }
     }
     
     /**
@@ -557,15 +734,21 @@ public class DocExporter extends AbstractExporter {
      * Generate a file with a list of all the tables in the configuration.
      */
     public void generateTablesAllTablesList() {
-        DocFile docFile = docFileManager.getAllTablesDocFile();
+        List<Table> tableList = docHelper.getTables();
+        int pageCount = getPageCount(tableList.size());
+        for (int page = 1; page <= pageCount; page++) {
+            DocFile docFile = docFileManager.getAllTablesDocFile(page);
 
-        File file = docFile.getFile();
+            File file = docFile.getFile();
 
-        Map<String, Object> parameters = new HashMap<String, Object>();
-        parameters.put("docFile", docFile);
-        parameters.put("tableList", docHelper.getTables() );
+            Map<String, Object> parameters = new HashMap<String, Object>();
+            parameters.put("docFile", docFile);
+            parameters.put("tableList", getPage(tableList, page) );
+            putPageLinks(parameters, page, pageCount, 
+                    docFileManager.getAllTablesDocFile(page - 1), docFileManager.getAllTablesDocFile(page + 1));
 
-        processTemplate(parameters, FTL_TABLES_TABLE_LIST, file);
+            processTemplate(parameters, FTL_TABLES_TABLE_LIST, file);
+        }
     }
 
     public void generateTablesSchemaTableList() {
@@ -573,18 +756,158 @@ public class DocExporter extends AbstractExporter {
 
         while (schemas.hasNext() ) {
             String schemaName = schemas.next();
+            List<Table> tableList = docHelper.getTables(schemaName);
+            int pageCount = getPageCount(tableList.size());
+            for (int page = 1; page <= pageCount; page++) {
+                DocFile docFile = docFileManager.getSchemaTableListDocFile(schemaName, page);
 
-            DocFile docFile = docFileManager.getSchemaTableListDocFile(schemaName);
+                File file = docFile.getFile();
 
-            File file = docFile.getFile();
+                Map<String, Object> parameters = new HashMap<String, Object>();
+                parameters.put("docFile", docFile);
+                parameters.put("title", schemaName);
+                parameters.put("tableList", getPage(tableList, page) );
+                putPageLinks(parameters, page, pageCount, 
+                        docFileManager.getSchemaTableListDocFile(schemaName, page - 1), 
+                        docFileManager.getSchemaTableListDocFile(schemaName, page + 1));
 
-            Map<String, Object> parameters = new HashMap<String, Object>();
-            parameters.put("docFile", docFile);
-            parameters.put("title", schemaName);
-            parameters.put("tableList", docHelper.getTables(schemaName) );
+                processTemplate(parameters, FTL_TABLES_PERSCHEMA_TABLE_LIST, file);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries on a page of the table and entity lists, 0 if they are not split
+     */
+    protected int getPageSize() {
+        String pageSize = getProperties().getProperty(PAGE_SIZE);
+        if(StringHelper.isEmpty(pageSize)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(pageSize.trim()));
+        }
+        catch (NumberFormatException e) {
+            throw new ExporterException("Invalid value for " + PAGE_SIZE + ": " + pageSize, e);
+        }
+    }
+
+    private int getPageCount(int size) {
+        int pageSize = getPageSize();
+        if(pageSize==0 || size<=pageSize) {
+            return 1;
+        }
+        return (size + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * @return the entries of the page as a view of the list, the list itself if it is not split
+     */
+    private <T> List<T> getPage(List<T> list, int page) {
+        int pageSize = getPageSize();
+        if(pageSize==0 || list.size()<=pageSize) {
+            return list;
+        }
+        int from = (page - 1) * pageSize;
+        return list.subList(from, Math.min(from + pageSize, list.size()));
+    }
+
+    private void putPageLinks(Map<String, Object> parameters, int page, int pageCount, DocFile previous, DocFile next) {
+        if(pageCount<=1) {
+            return;
+        }
+        parameters.put("page", Integer.valueOf(page));
+        parameters.put("pageCount", Integer.valueOf(pageCount));
+        if(page>1) {
+            parameters.put("previousPage", previous);
+        }
+        if(page<pageCount) {
+            parameters.put("nextPage", next);
+        }
+    }
+
+    /**
+     * Generate a compact JSON index with the name, qualifier and page of every table 
+     * and entity, so a search can find a page without loading the lists:
+     * <code>{"tables":[["name","schema","url"],...],"entities":[["name","package","url"],...]}</code>
+     */
+    public void generateSearchIndex() {
+        queue(new Callable<Object>() {
+            public Object call() {
+                writeSearchIndex();
+                return null;
+            }
+        });
+    }
+
+    private void writeSearchIndex() {
+        final DocFile indexDocFile = docFileManager.getSearchIndexDocFile();
+        TemplateProducer producer = new TemplateProducer(getTemplateHelper(), getArtifactCollector() );
+        producer.produce(new TemplateProducer.Content() {
+            public void writeTo(Writer writer) throws IOException {
+                writeSearchIndex(writer, indexDocFile);
+            }
+        }, indexDocFile.getFile(), "search index", "json", "UTF-8");
+    }
+
+    private void writeSearchIndex(Writer writer, DocFile indexDocFile) throws IOException {
+        writer.write("{\"tables\":[");
+        boolean first = true;
+        for (Iterator<Table> tables = docHelper.getTables().iterator(); tables.hasNext();) {
+            Table table = tables.next();
+            DocFile tableDocFile = docFileManager.getTableDocFile(table);
+            if(tableDocFile!=null) {
+                writeSearchEntry(writer, first, table.getName(), docHelper.getQualifiedSchemaName(table), 
+                        docFileManager.getRef(indexDocFile, tableDocFile));
+                first = false;
+            }
+        }
+        writer.write("],\"entities\":[");
+        first = true;
+        for (Iterator<POJOClass> classes = docHelper.getClasses().iterator(); classes.hasNext();) {
+            POJOClass pojoClass = classes.next();
+            DocFile entityDocFile = docFileManager.getEntityDocFile(pojoClass);
+            if(entityDocFile!=null) {
+                writeSearchEntry(writer, first, pojoClass.getDeclarationName(), pojoClass.getPackageName(), 
+                        docFileManager.getRef(indexDocFile, entityDocFile));
+                first = false;
+            }
+        }
+        writer.write("]}");
+    }
 
-            processTemplate(parameters, FTL_TABLES_PERSCHEMA_TABLE_LIST, file);
+    private void writeSearchEntry(Writer writer, boolean first, String name, String qualifier, String ref) throws IOException {
+        if(!first) {
+            writer.write(',');
         }
+        writer.write('[');
+        writeJsonString(writer, name);
+        writer.write(',');
+        writeJsonString(writer, qualifier);
+        writer.write(',');
+        writeJsonString(writer, ref);
+        writer.write(']');
+    }
+
+    private void writeJsonString(Writer writer, String value) throws IOException {
+        if(value==null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c=='"' || c=='\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if(c<0x20) {
+                String hex = Integer.toHexString(c);
+                writer.write("\\u0000".substring(0, 6 - hex.length()) + hex);
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
     }
 
     /**
@@ -619,15 +942,43 @@ public class DocExporter extends AbstractExporter {
     }
 
     /**
-     * Run templates.
+     * Run templates. While {@link #doStart()} collects the pages the template is only 
+     * queued and rendered with the other pages.
      * 
      * @param parameters the parameters to pass to the templates template.
      * @param templateName the template to use.
      * @param outputFile the output file.
      */
-    protected void processTemplate(Map<String, Object> parameters, String templateName,
-            File outputFile) {
-    	
+    protected void processTemplate(final Map<String, Object> parameters, final String templateName,
+            final File outputFile) {
+    	queue(new Callable<Object>() {
+    		public Object call() {
+    			renderTemplate(parameters, templateName, outputFile);
+    			return null;
+    		}
+    	});
+    }
+    
+    /**
+     * Adds the page to the pages collected by {@link #doStart()}, or produces it right away.
+     */
+    private void queue(Callable<Object> page) {
+    	if(pages!=null) {
+    		pages.add(page);
+    	} else {
+    		try {
+    			page.call();
+    		}
+    		catch (RuntimeException e) {
+    			throw e;
+    		}
+    		catch (Exception e) {
+    			throw new ExporterException("Error while generating documentation", e);
+    		}
+    	}
+    }
+    
+    private void renderTemplate(Map<String, Object> parameters, String templateName, File outputFile) {
     	TemplateProducer producer = new TemplateProducer(getTemplateHelper(), getArtifactCollector() );
     	producer.produce(parameters, templateName, outputFile, templateName);
      }
@@ -24,6 +24,16 @@ public interface ExporterSettings {
 	 */
 	public final String TEMPLATE_PATH = PREFIX_KEY + "template_path";
 	
+	/** 
+	 * number of threads used to render per class artifacts and documentation pages, defaults to 1 (serial)
+	 */
+	public final String THREADS = PREFIX_KEY + "threads";
+	
+	/** 
+	 * if true, artifacts whose content did not change since the last run are not rewritten
+	 */
+	public final String SKIP_UNCHANGED = PREFIX_KEY + "skip_unchanged";
+	
 	
 	
 }
@@ -1,20 +1,30 @@
 package org.hibernate.tool.hbm2x;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.reveng.SchemaFingerprints;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Component;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.Version;
 import org.hibernate.tool.hbm2x.pojo.ComponentPOJOClass;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
+import org.hibernate.tool.util.DigestHelper;
 import org.hibernate.tool.util.MetadataHelper;
 
 
@@ -45,11 +55,11 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				while ( iterator.hasNext() ) {					
-					POJOClass element = (POJOClass) iterator.next();
-					ge.exportPersistentClass( additionalContext, element );					
+					elements.add( (POJOClass) iterator.next() );
 				}
+				ge.exportAll( elements, false );
 			}
 		});
 		modelIterators.put("component", new ModelIterator() {
@@ -60,18 +70,18 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
 				while ( iterator.hasNext() ) {					
 					POJOClass element = (POJOClass) iterator.next();
 					ConfigurationNavigator.collectComponents(components, element);											
 				}
 						
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				iterator = components.values().iterator();
 				while ( iterator.hasNext() ) {					
 					Component component = (Component) iterator.next();
-					ComponentPOJOClass element = new ComponentPOJOClass(component,ge.getCfg2JavaTool());
-					ge.exportComponent( additionalContext, element );					
+					elements.add( new ComponentPOJOClass(component,ge.getCfg2JavaTool()) );
 				}
+				ge.exportAll( elements, true );
 			}
 		});
 	}
@@ -80,6 +90,7 @@ public class GenericExporter extends AbstractExporter {
 	private String filePattern;
 	private String forEach;
 	private Metadata metadata = null;
+	private boolean configurationChanged = true;
 	
 	public GenericExporter(Configuration cfg, File outputdir) {
 		super(cfg,outputdir);
@@ -111,6 +122,16 @@ public class GenericExporter extends AbstractExporter {
 			throw new ExporterException("Template name not set on " + this.getClass());
 		}
 		
+		SchemaFingerprints fingerprints = getSchemaFingerprints();
+		if(fingerprints!=null) {
+			configurationChanged = fingerprints.isConfigurationChanged(
+					getClass().getName() + "|" + templateName + "|" + filePattern, 
+					describeConfiguration());
+			if(configurationChanged) {
+				log.debug("Configuration of " + getName() + " changed since last run, regenerating all artifacts");
+			}
+		}
+		
 		List<ModelIterator> exporters = new ArrayList<ModelIterator>();
 	
 		if(StringHelper.isEmpty( forEach )) {
@@ -140,6 +161,32 @@ public class GenericExporter extends AbstractExporter {
 		}
 	}
 
+	/**
+	 * Exports the elements, rendering them concurrently when {@link ExporterSettings#THREADS} is above 1.
+	 * Every task gets its own additional context; the generated files are the same as in serial mode.
+	 */
+	void exportAll(List<POJOClass> elements, final boolean components) {
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(elements.size());
+		for (Iterator<POJOClass> iter = elements.iterator(); iter.hasNext();) {
+			final POJOClass element = iter.next();
+			tasks.add(new Callable<Object>() {
+				public Object call() {
+					export( new HashMap<String, Object>(), element, components );
+					return null;
+				}
+			});
+		}
+		runTasks(tasks);
+	}
+
+	private void export(Map<String, Object> additionalContext, POJOClass element, boolean component) {
+		if(component) {
+			exportComponent( additionalContext, element );
+		} else {
+			exportPersistentClass( additionalContext, element );
+		}
+	}
+
 	protected void exportComponent(Map<String, Object> additionalContext, POJOClass element) {
 		exportPOJO(additionalContext, element);		
 	}
@@ -156,7 +203,104 @@ public class GenericExporter extends AbstractExporter {
 		if(filename.endsWith(".java") && filename.indexOf('$')>=0) {
 			log.warn("Filename for " + getClassNameForFile( element ) + " contains a $. Innerclass generation is not supported.");
 		}
-		producer.produce(additionalContext, getTemplateName(), new File(getOutputDirectory(),filename), templateName, element.toString());
+		File destination = new File(getOutputDirectory(),filename);
+		Table table = getTable(element);
+		SchemaFingerprints fingerprints = getSchemaFingerprints();
+		if(fingerprints!=null && table!=null) {
+			fingerprints.addArtifact(table, destination);
+		}
+		if(isUpToDate(element, destination)) {
+			log.debug("Skipping " + destination + " as the table of " + element + " did not change");
+			return;
+		}
+		producer.produce(additionalContext, getTemplateName(), destination, templateName, element.toString());
+	}
+
+	/**
+	 * When reverse engineering incrementally, artifacts of entities and components
+	 * whose table did not change since the last run are left untouched, unless the
+	 * configuration of the exporter changed.
+	 */
+	protected boolean isUpToDate(POJOClass element, File destination) {
+		SchemaFingerprints fingerprints = getSchemaFingerprints();
+		if(fingerprints==null || configurationChanged || !destination.exists()) {
+			return false;
+		}
+		Table table = getTable(element);
+		return table!=null && !fingerprints.isChanged(table);
+	}
+
+	private SchemaFingerprints getSchemaFingerprints() {
+		if(!(getConfiguration() instanceof JDBCMetaDataConfiguration)) {
+			return null;
+		}
+		return ((JDBCMetaDataConfiguration)getConfiguration()).getSchemaFingerprints();
+	}
+
+	private Table getTable(POJOClass element) {
+		Object decorated = element.getDecoratedObject();
+		PersistentClass owner = null;
+		if(decorated instanceof PersistentClass) {
+			owner = (PersistentClass) decorated;
+		} else if(decorated instanceof Component) {
+			owner = ((Component) decorated).getOwner();
+		}
+		return owner==null ? null : owner.getTable();
+	}
+
+	/**
+	 * Describes everything besides the schema the artifacts depend on: the exporter, its 
+	 * templates, the contents of the template path and the properties. Built-in templates 
+	 * are covered by the version of the tools.
+	 */
+	protected String describeConfiguration() {
+		StringBuffer buf = new StringBuffer();
+		buf.append(getClass().getName())
+			.append('|').append(Version.VERSION)
+			.append('|').append(templateName)
+			.append('|').append(filePattern)
+			.append('|').append(forEach)
+			.append('\n');
+		String[] paths = getTemplatePaths()==null ? new String[0] : getTemplatePaths();
+		for (int i = 0; i < paths.length; i++) {
+			buf.append("path:").append(paths[i]).append('\n');
+			describeTemplates(buf, new File(paths[i]));
+		}
+		Map<String, String> sorted = new TreeMap<String, String>();
+		if(getProperties()!=null) {
+			for (Iterator<Map.Entry<Object, Object>> iter = getProperties().entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<Object, Object> entry = iter.next();
+				String key = String.valueOf(entry.getKey());
+				// settings that do not affect the content of the artifacts
+				if(!ExporterSettings.THREADS.equals(key) && !ExporterSettings.SKIP_UNCHANGED.equals(key)) {
+					sorted.put(key, String.valueOf(entry.getValue()));
+				}
+			}
+		}
+		for (Iterator<Map.Entry<String, String>> iter = sorted.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, String> entry = iter.next();
+			buf.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+		}
+		return buf.toString();
+	}
+
+	private void describeTemplates(StringBuffer buf, File file) {
+		if(file.isDirectory()) {
+			String[] names = file.list();
+			if(names==null) return;
+			Arrays.sort(names);
+			for (int i = 0; i < names.length; i++) {
+				describeTemplates(buf, new File(file, names[i]));
+			}
+		}
+		else if(file.isFile()) {
+			try {
+				buf.append(file.getPath()).append('=').append(DigestHelper.hash(file)).append('\n');
+			}
+			catch (IOException e) {
+				throw new ExporterException("Could not read template " + file, e);
+			}
+		}
 	}
 
 	protected String resolveFilename(POJOClass element) {
@@ -26,6 +26,7 @@ public class HbmLintExporter extends GenericExporter {
     }
 	protected void setupContext() {
 		HbmLint hbmlint = HbmLint.createInstance();
+		hbmlint.setThreads( getThreadCount() );
 		hbmlint.analyze( MetadataHelper.getMetadata(getConfiguration()) );
 		getProperties().put("lintissues", hbmlint.getResults());
 		super.setupContext();		
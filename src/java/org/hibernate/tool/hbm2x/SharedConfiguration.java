@@ -0,0 +1,265 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TimeZone;
+
+import freemarker.cache.CacheStorage;
+import freemarker.cache.TemplateLoader;
+import freemarker.core.ArithmeticEngine;
+import freemarker.template.Configuration;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateHashModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+
+/**
+ * A FreeMarker configuration shared through the {@link TemplateConfigurationCache} by all
+ * exporters using the same template paths. Once set up it cannot be changed, as a change made
+ * for one exporter would be seen by all the others; every setter then throws an
+ * {@link UnsupportedOperationException}.
+ */
+@SuppressWarnings("rawtypes")
+class SharedConfiguration extends Configuration {
+
+	// false while the super constructors apply the defaults
+	private boolean shared;
+
+	/** Makes the configuration unmodifiable. */
+	void share() {
+		shared = true;
+	}
+
+	private void checkModifiable() {
+		if(shared) {
+			throw new UnsupportedOperationException("The template configuration is shared by all exporters using the same template paths and cannot be changed");
+		}
+	}
+
+	public void loadBuiltInEncodingMap() {
+		checkModifiable();
+		super.loadBuiltInEncodingMap();
+	}
+
+	public void clearEncodingMap() {
+		checkModifiable();
+		super.clearEncodingMap();
+	}
+
+	public synchronized void setTemplateLoader(TemplateLoader loader) {
+		checkModifiable();
+		super.setTemplateLoader(loader);
+	}
+
+	public synchronized void setCacheStorage(CacheStorage storage) {
+		checkModifiable();
+		super.setCacheStorage(storage);
+	}
+
+	public void setDirectoryForTemplateLoading(File dir) throws IOException {
+		checkModifiable();
+		super.setDirectoryForTemplateLoading(dir);
+	}
+
+	public void setServletContextForTemplateLoading(Object sctxt, String path) {
+		checkModifiable();
+		super.setServletContextForTemplateLoading(sctxt, path);
+	}
+
+	public void setClassForTemplateLoading(Class clazz, String pathPrefix) {
+		checkModifiable();
+		super.setClassForTemplateLoading(clazz, pathPrefix);
+	}
+
+	public void setTemplateUpdateDelay(int delay) {
+		checkModifiable();
+		super.setTemplateUpdateDelay(delay);
+	}
+
+	public void setStrictSyntaxMode(boolean b) {
+		checkModifiable();
+		super.setStrictSyntaxMode(b);
+	}
+
+	public void setWhitespaceStripping(boolean b) {
+		checkModifiable();
+		super.setWhitespaceStripping(b);
+	}
+
+	public void setTagSyntax(int tagSyntax) {
+		checkModifiable();
+		super.setTagSyntax(tagSyntax);
+	}
+
+	public void setDefaultEncoding(String encoding) {
+		checkModifiable();
+		super.setDefaultEncoding(encoding);
+	}
+
+	public void setEncoding(Locale locale, String encoding) {
+		checkModifiable();
+		super.setEncoding(locale, encoding);
+	}
+
+	public void setSharedVariable(String name, TemplateModel tm) {
+		checkModifiable();
+		super.setSharedVariable(name, tm);
+	}
+
+	public void setSharedVariable(String name, Object obj) throws TemplateModelException {
+		checkModifiable();
+		super.setSharedVariable(name, obj);
+	}
+
+	public void setAllSharedVariables(TemplateHashModelEx hash) throws TemplateModelException {
+		checkModifiable();
+		super.setAllSharedVariables(hash);
+	}
+
+	public void clearSharedVariables() {
+		checkModifiable();
+		super.clearSharedVariables();
+	}
+
+	public void clearTemplateCache() {
+		checkModifiable();
+		super.clearTemplateCache();
+	}
+
+	public void setLocalizedLookup(boolean localizedLookup) {
+		checkModifiable();
+		super.setLocalizedLookup(localizedLookup);
+	}
+
+	public void setSetting(String key, String value) throws TemplateException {
+		checkModifiable();
+		super.setSetting(key, value);
+	}
+
+	public synchronized void addAutoImport(String namespace, String template) {
+		checkModifiable();
+		super.addAutoImport(namespace, template);
+	}
+
+	public synchronized void removeAutoImport(String namespace) {
+		checkModifiable();
+		super.removeAutoImport(namespace);
+	}
+
+	public synchronized void setAutoImports(Map map) {
+		checkModifiable();
+		super.setAutoImports(map);
+	}
+
+	public synchronized void addAutoInclude(String templateName) {
+		checkModifiable();
+		super.addAutoInclude(templateName);
+	}
+
+	public synchronized void setAutoIncludes(List templateNames) {
+		checkModifiable();
+		super.setAutoIncludes(templateNames);
+	}
+
+	public synchronized void removeAutoInclude(String templateName) {
+		checkModifiable();
+		super.removeAutoInclude(templateName);
+	}
+
+	public void setClassicCompatible(boolean classicCompatibility) {
+		checkModifiable();
+		super.setClassicCompatible(classicCompatibility);
+	}
+
+	public void setLocale(Locale locale) {
+		checkModifiable();
+		super.setLocale(locale);
+	}
+
+	public void setTimeZone(TimeZone timeZone) {
+		checkModifiable();
+		super.setTimeZone(timeZone);
+	}
+
+	public void setNumberFormat(String numberFormat) {
+		checkModifiable();
+		super.setNumberFormat(numberFormat);
+	}
+
+	public void setBooleanFormat(String booleanFormat) {
+		checkModifiable();
+		super.setBooleanFormat(booleanFormat);
+	}
+
+	public void setTimeFormat(String timeFormat) {
+		checkModifiable();
+		super.setTimeFormat(timeFormat);
+	}
+
+	public void setDateFormat(String dateFormat) {
+		checkModifiable();
+		super.setDateFormat(dateFormat);
+	}
+
+	public void setDateTimeFormat(String dateTimeFormat) {
+		checkModifiable();
+		super.setDateTimeFormat(dateTimeFormat);
+	}
+
+	public void setTemplateExceptionHandler(TemplateExceptionHandler templateExceptionHandler) {
+		checkModifiable();
+		super.setTemplateExceptionHandler(templateExceptionHandler);
+	}
+
+	public void setArithmeticEngine(ArithmeticEngine arithmeticEngine) {
+		checkModifiable();
+		super.setArithmeticEngine(arithmeticEngine);
+	}
+
+	public void setObjectWrapper(ObjectWrapper objectWrapper) {
+		checkModifiable();
+		super.setObjectWrapper(objectWrapper);
+	}
+
+	public void setOutputEncoding(String outputEncoding) {
+		checkModifiable();
+		super.setOutputEncoding(outputEncoding);
+	}
+
+	public void setURLEscapingCharset(String urlEscapingCharset) {
+		checkModifiable();
+		super.setURLEscapingCharset(urlEscapingCharset);
+	}
+
+	public void setStrictBeanModels(boolean strict) {
+		checkModifiable();
+		super.setStrictBeanModels(strict);
+	}
+
+	public void setSettings(Properties props) throws TemplateException {
+		checkModifiable();
+		super.setSettings(props);
+	}
+
+	public void setSettings(InputStream propsIn) throws TemplateException, IOException {
+		checkModifiable();
+		super.setSettings(propsIn);
+	}
+
+	public void setCustomAttribute(String name, Object value) {
+		checkModifiable();
+		super.setCustomAttribute(name, value);
+	}
+
+	public void removeCustomAttribute(String name) {
+		checkModifiable();
+		super.removeCustomAttribute(name);
+	}
+}
@@ -0,0 +1,450 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pretty prints XML in a single streaming pass with StAX, without building a tree.
+ *
+ * Layout is configured with the same settings as the JTidy based {@link XMLPrettyPrinter}
+ * (<code>jtidy.properties</code>): <code>indent</code>, <code>indent-spaces</code>,
+ * <code>wrap</code> and <code>indent-attributes</code>. Elements with text only content are kept
+ * on one line, empty elements are collapsed, comments, processing instructions,
+ * CDATA sections and the DOCTYPE are preserved. External DTDs are never loaded.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class StreamingXMLPrettyPrinter {
+
+	private static final Logger log = LoggerFactory.getLogger( StreamingXMLPrettyPrinter.class );
+
+	private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
+	private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = new ThreadLocal<XMLInputFactory>() {
+		protected XMLInputFactory initialValue() {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+			factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+			factory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.FALSE );
+			try {
+				// keeps CDATA sections (e.g. in sql-query) instead of escaping their content
+				factory.setProperty( "http://java.sun.com/xml/stream/properties/report-cdata-event", Boolean.TRUE );
+			}
+			catch (IllegalArgumentException e) {
+				log.debug( "StAX implementation does not report CDATA sections" );
+			}
+			return factory;
+		}
+	};
+
+	private final boolean indent;
+	private final int indentSpaces;
+	private final int wrap;
+	private final boolean indentAttributes;
+
+	/**
+	 * Uses the layout settings of the default <code>jtidy.properties</code>.
+	 */
+	public StreamingXMLPrettyPrinter() throws IOException {
+		this( loadDefaultProperties() );
+	}
+
+	public StreamingXMLPrettyPrinter(Properties tidyProperties) {
+		String indentValue = tidyProperties.getProperty( "indent", "auto" ).trim();
+		this.indent = !"no".equalsIgnoreCase( indentValue ) && !"false".equalsIgnoreCase( indentValue );
+		this.indentSpaces = parseInt( tidyProperties, "indent-spaces", 2 );
+		this.wrap = parseInt( tidyProperties, "wrap", 68 );
+		String attributes = tidyProperties.getProperty( "indent-attributes", "no" ).trim();
+		this.indentAttributes = "yes".equalsIgnoreCase( attributes ) || "true".equalsIgnoreCase( attributes );
+	}
+
+	static Properties loadDefaultProperties() throws IOException {
+		Properties properties = new Properties();
+		InputStream in = XMLPrettyPrinter.class.getResourceAsStream( "jtidy.properties" );
+		try {
+			properties.load( in );
+		}
+		finally {
+			in.close();
+		}
+		return properties;
+	}
+
+	private static int parseInt(Properties properties, String key, int defaultValue) {
+		String value = properties.getProperty( key );
+		if ( value == null ) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt( value.trim() );
+		}
+		catch (NumberFormatException e) {
+			log.warn( "Ignoring invalid value " + value + " for " + key );
+			return defaultValue;
+		}
+	}
+
+	public void prettyPrint(InputStream in, OutputStream out) throws IOException {
+		XMLStreamReader reader = null;
+		try {
+			reader = INPUT_FACTORY.get().createXMLStreamReader( in );
+			String encoding = reader.getCharacterEncodingScheme();
+			if ( encoding == null ) {
+				encoding = reader.getEncoding() != null ? reader.getEncoding() : "UTF-8";
+			}
+			Writer writer = new BufferedWriter( new OutputStreamWriter( out, encoding ) );
+			new Formatter( reader, writer ).format();
+			writer.flush();
+		}
+		catch (XMLStreamException e) {
+			IOException ioe = new IOException( "Could not parse XML: " + e.getMessage() );
+			ioe.initCause( e );
+			throw ioe;
+		}
+		finally {
+			if ( reader != null ) {
+				try {
+					reader.close();
+				}
+				catch (XMLStreamException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Formats the file in place. The file is only replaced when it could be formatted completely.
+	 *
+	 * @return false if the file is not well-formed and silent is true
+	 * @throws IOException naming the file if it could not be read or written or, unless silent, is not well-formed
+	 */
+	public boolean prettyPrintFile(File file, boolean silent) throws IOException {
+		try {
+			return formatFile( file, silent );
+		}
+		catch (IOException e) {
+			// tell which of the files failed, prettyPrintFiles formats many of them at once
+			IOException ioe = new IOException( "Could not format " + file.getAbsolutePath() + ": " + e.getMessage() );
+			ioe.initCause( e );
+			throw ioe;
+		}
+	}
+
+	private boolean formatFile(File file, boolean silent) throws IOException {
+		log.debug( "XMLPrettyPrinting " + file.getAbsolutePath() );
+		ByteArrayOutputStream formatted = new ByteArrayOutputStream( (int) Math.min( Integer.MAX_VALUE, file.length() + file.length() / 4 ) );
+		InputStream in = new BufferedInputStream( new FileInputStream( file ) );
+		try {
+			prettyPrint( in, formatted );
+		}
+		catch (IOException e) {
+			if ( silent && e.getCause() instanceof XMLStreamException ) {
+				log.warn( "Unable to format file " + file + ", " + e.getMessage() );
+				return false;
+			}
+			throw e;
+		}
+		finally {
+			in.close();
+		}
+		OutputStream out = new FileOutputStream( file );
+		try {
+			formatted.writeTo( out );
+		}
+		finally {
+			out.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Formats the files in place, using up to the given number of threads.
+	 */
+	public void prettyPrintFiles(List<File> files, int threads, final boolean silent) throws IOException {
+		if ( threads <= 1 || files.size() < 2 ) {
+			for ( Iterator<File> iter = files.iterator(); iter.hasNext(); ) {
+				prettyPrintFile( iter.next(), silent );
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, files.size() ) );
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>( files.size() );
+			for ( Iterator<File> iter = files.iterator(); iter.hasNext(); ) {
+				final File file = iter.next();
+				results.add( executor.submit( new Callable<Boolean>() {
+					public Boolean call() throws IOException {
+						return Boolean.valueOf( prettyPrintFile( file, silent ) );
+					}
+				} ) );
+			}
+			for ( Iterator<Future<Boolean>> iter = results.iterator(); iter.hasNext(); ) {
+				iter.next().get();
+			}
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof IOException ) {
+				throw (IOException) cause;
+			}
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException( cause );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			IOException ioe = new IOException( "Interrupted while formatting XML files" );
+			ioe.initCause( e );
+			throw ioe;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Formatting state for one document. */
+	private final class Formatter {
+
+		private final XMLStreamReader reader;
+		private final Writer out;
+
+		private int depth = 0;
+		// a start tag has been written without its closing '>'
+		private boolean openStartTag = false;
+		private final StringBuffer text = new StringBuffer();
+		private boolean textHasContent = false;
+
+		Formatter(XMLStreamReader reader, Writer out) {
+			this.reader = reader;
+			this.out = out;
+		}
+
+		void format() throws XMLStreamException, IOException {
+			if ( reader.getVersion() != null ) {
+				out.write( "<?xml version=\"" + reader.getVersion() + "\"" );
+				if ( reader.getCharacterEncodingScheme() != null ) {
+					out.write( " encoding=\"" + reader.getCharacterEncodingScheme() + "\"" );
+				}
+				if ( reader.standaloneSet() ) {
+					out.write( " standalone=\"" + ( reader.isStandalone() ? "yes" : "no" ) + "\"" );
+				}
+				out.write( "?>" );
+				out.write( LINE_SEPARATOR );
+			}
+			while ( reader.hasNext() ) {
+				switch ( reader.next() ) {
+				case XMLStreamConstants.START_ELEMENT:
+					startElement();
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					endElement();
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					String characters = reader.getText();
+					text.append( escape( characters, false ) );
+					textHasContent |= characters.trim().length() > 0;
+					break;
+				case XMLStreamConstants.CDATA:
+					text.append( "<![CDATA[" ).append( reader.getText() ).append( "]]>" );
+					textHasContent = true;
+					break;
+				case XMLStreamConstants.ENTITY_REFERENCE:
+					text.append( '&' ).append( reader.getLocalName() ).append( ';' );
+					textHasContent = true;
+					break;
+				case XMLStreamConstants.COMMENT:
+					writeLine( "<!--" + reader.getText() + "-->" );
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					String data = reader.getPIData();
+					writeLine( "<?" + reader.getPITarget() + ( data == null || data.length() == 0 ? "" : " " + data ) + "?>" );
+					break;
+				case XMLStreamConstants.DTD:
+					writeLine( reader.getText() );
+					break;
+				default:
+					break;
+				}
+			}
+		}
+
+		private void startElement() throws IOException {
+			closeStartTag();
+			flushText();
+
+			StringBuffer line = new StringBuffer();
+			indent( line, depth );
+			line.append( '<' ).append( qualify( reader.getPrefix(), reader.getLocalName() ) );
+			int lineStart = 0;
+			boolean first = true;
+			for ( int i = 0; i < reader.getNamespaceCount(); i++ ) {
+				String prefix = reader.getNamespacePrefix( i );
+				String name = prefix == null || prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix;
+				lineStart = appendAttribute( line, lineStart, first, name, reader.getNamespaceURI( i ) );
+				first = false;
+			}
+			for ( int i = 0; i < reader.getAttributeCount(); i++ ) {
+				String name = qualify( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) );
+				lineStart = appendAttribute( line, lineStart, first, name, reader.getAttributeValue( i ) );
+				first = false;
+			}
+			out.write( line.toString() );
+			openStartTag = true;
+			depth++;
+		}
+
+		private int appendAttribute(StringBuffer line, int lineStart, boolean first, String name, String value) {
+			String attribute = name + "=\"" + escape( value, true ) + "\"";
+			boolean breakLine = !first && ( indentAttributes
+					|| ( wrap > 0 && line.length() - lineStart + 1 + attribute.length() > wrap ) );
+			if ( breakLine ) {
+				line.append( LINE_SEPARATOR );
+				lineStart = line.length();
+				indent( line, depth + 1 );
+			}
+			else {
+				line.append( ' ' );
+			}
+			line.append( attribute );
+			return lineStart;
+		}
+
+		private void endElement() throws IOException {
+			depth--;
+			String name = qualify( reader.getPrefix(), reader.getLocalName() );
+			if ( openStartTag ) {
+				openStartTag = false;
+				if ( textHasContent ) {
+					// text only content stays on the line of its element
+					out.write( ">" );
+					out.write( text.toString().trim() );
+					out.write( "</" + name + ">" );
+				}
+				else {
+					out.write( " />" );
+				}
+				out.write( LINE_SEPARATOR );
+				clearText();
+			}
+			else {
+				flushText();
+				writeIndented( "</" + name + ">" );
+			}
+		}
+
+		private void writeLine(String content) throws IOException {
+			closeStartTag();
+			flushText();
+			writeIndented( content );
+		}
+
+		private void writeIndented(String content) throws IOException {
+			StringBuffer line = new StringBuffer();
+			indent( line, depth );
+			line.append( content ).append( LINE_SEPARATOR );
+			out.write( line.toString() );
+		}
+
+		private void closeStartTag() throws IOException {
+			if ( openStartTag ) {
+				out.write( ">" );
+				out.write( LINE_SEPARATOR );
+				openStartTag = false;
+			}
+		}
+
+		// text mixed with elements or comments goes on its own line
+		private void flushText() throws IOException {
+			if ( textHasContent ) {
+				writeIndented( text.toString().trim() );
+			}
+			clearText();
+		}
+
+		private void clearText() {
+			text.setLength( 0 );
+			textHasContent = false;
+		}
+
+		private void indent(StringBuffer line, int level) {
+			if ( indent ) {
+				for ( int i = 0; i < level * indentSpaces; i++ ) {
+					line.append( ' ' );
+				}
+			}
+		}
+	}
+
+	private static String qualify(String prefix, String localName) {
+		return prefix == null || prefix.length() == 0 ? localName : prefix + ":" + localName;
+	}
+
+	private static String escape(String value, boolean attribute) {
+		StringBuffer result = null;
+		for ( int i = 0; i < value.length(); i++ ) {
+			char c = value.charAt( i );
+			String replacement = null;
+			switch ( c ) {
+			case '&':
+				replacement = "&amp;";
+				break;
+			case '<':
+				replacement = "&lt;";
+				break;
+			case '>':
+				replacement = "&gt;";
+				break;
+			case '"':
+				replacement = attribute ? "&quot;" : null;
+				break;
+			default:
+				break;
+			}
+			if ( replacement != null && result == null ) {
+				result = new StringBuffer( value.length() + 16 );
+				result.append( value, 0, i );
+			}
+			if ( result != null ) {
+				if ( replacement != null ) {
+					result.append( replacement );
+				}
+				else {
+					result.append( c );
+				}
+			}
+		}
+		return result == null ? value : result.toString();
+	}
+}
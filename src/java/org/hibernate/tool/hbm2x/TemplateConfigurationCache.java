@@ -0,0 +1,100 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.FileTemplateLoader;
+import freemarker.cache.MultiTemplateLoader;
+import freemarker.cache.TemplateLoader;
+import freemarker.template.Configuration;
+
+/**
+ * Process wide cache of FreeMarker configurations, one per set of template paths.
+ * 
+ * A FreeMarker configuration keeps the templates it parsed, thus exporters sharing the
+ * same template paths (e.g. all exporters of one hibernatetool task) only parse each template once.
+ * Templates loaded from template directories are reloaded when their modification time changes.
+ * Only the {@link #MAX_CONFIGURATIONS} most recently used configurations are kept, so a long running
+ * process (an IDE, a build daemon) using many template paths does not keep all their templates.
+ * The configurations cannot be changed, see {@link SharedConfiguration}.
+ */
+public final class TemplateConfigurationCache {
+
+	private static final Logger log = LoggerFactory.getLogger(TemplateConfigurationCache.class);
+	
+	static final int MAX_CONFIGURATIONS = 8;
+	
+	private static final Map<List<String>, Configuration> configurations = new LinkedHashMap<List<String>, Configuration>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<List<String>, Configuration> eldest) {
+			return size() > MAX_CONFIGURATIONS;
+		}
+	};
+	
+	private TemplateConfigurationCache() {
+		// noop
+	}
+	
+	/**
+	 * @return the configuration loading templates from the given directories first and then from the classpath
+	 */
+	public static Configuration getConfiguration(File[] templateDirectories) {
+		List<String> key = new ArrayList<String>(templateDirectories.length);
+		for (int i = 0; i < templateDirectories.length; i++) {
+			key.add(templateDirectories[i].getAbsolutePath());
+		}
+		synchronized (configurations) {
+			Configuration configuration = configurations.get(key);
+			if(configuration==null) {
+				log.debug("Creating template configuration for " + key);
+				configuration = createConfiguration(templateDirectories);
+				configurations.put(key, configuration);
+			}
+			return configuration;
+		}
+	}
+	
+	/**
+	 * Drops all cached configurations and the templates parsed by them.
+	 */
+	public static void clear() {
+		synchronized (configurations) {
+			configurations.clear();
+		}
+	}
+	
+	static int size() {
+		synchronized (configurations) {
+			return configurations.size();
+		}
+	}
+
+	private static Configuration createConfiguration(File[] templateDirectories) {
+		SharedConfiguration configuration = new SharedConfiguration();
+		List<TemplateLoader> loaders = new ArrayList<TemplateLoader>();
+		for (int i = 0; i < templateDirectories.length; i++) {
+			try {
+				loaders.add(new FileTemplateLoader(templateDirectories[i]));
+			}
+			catch (IOException e) {
+				throw new ExporterException("Problems with templatepath " + templateDirectories[i], e);
+			}
+		}
+		loaders.add(new ClassTemplateLoader(TemplateHelper.class,"/")); // the template names are like pojo/Somewhere so have to be a rooted classpathloader
+		configuration.setTemplateLoader(new MultiTemplateLoader((TemplateLoader[]) loaders.toArray(new TemplateLoader[loaders.size()])));
+		// the modification time is checked at most once a second per template, edited templates are picked up 
+		// by the next exporter without looking up every template source on each use
+		configuration.setTemplateUpdateDelay(1);
+		configuration.share();
+		return configuration;
+	}
+}
@@ -14,15 +14,15 @@ import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.hibernate.tool.Version;
 
-import freemarker.cache.ClassTemplateLoader;
-import freemarker.cache.FileTemplateLoader;
-import freemarker.cache.MultiTemplateLoader;
 import freemarker.cache.TemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.ObjectWrapper;
@@ -33,6 +33,8 @@ import freemarker.template.TemplateDateModel;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateModel;
 import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateScalarModel;
 
 
 /**
@@ -50,10 +52,13 @@ public class TemplateHelper {
     private String templatePrefix;
 	private File outputDirectory;
 
+	/** shared with other exporters using the same template paths, thus it cannot be changed */
 	protected Configuration freeMarkerEngine;
 
 	protected SimpleHash context;
 
+	private ArtifactCollector artifactCollector;
+
 	public TemplateHelper() {
 		
 	}
@@ -62,26 +67,20 @@ public class TemplateHelper {
         this.outputDirectory = outputDirectory;
         
         context = new SimpleHash(ObjectWrapper.BEANS_WRAPPER);
-    	freeMarkerEngine = new Configuration();
         
-        List<TemplateLoader> loaders = new ArrayList<TemplateLoader>();
+        List<File> templateDirectories = new ArrayList<File>();
         
         for (int i = 0; i < templatePaths.length; i++) {
         	File file = new File(templatePaths[i]);
         	if(file.exists() && file.isDirectory()) {
-        		try {
-					loaders.add(new FileTemplateLoader(file));
-				}
-				catch (IOException e) {
-					throw new ExporterException("Problems with templatepath " + file, e);
-				}
+        		templateDirectories.add(file);
         	} else {
         		log.warn("template path" + file + " either does not exist or is not a directory");
         	}
 		}
-        loaders.add(new ClassTemplateLoader(this.getClass(),"/")); // the template names are like pojo/Somewhere so have to be a rooted classpathloader
         
-        freeMarkerEngine.setTemplateLoader(new MultiTemplateLoader((TemplateLoader[]) loaders.toArray(new TemplateLoader[loaders.size()])));
+        // shared with other exporters using the same template paths so templates are only parsed once
+        freeMarkerEngine = TemplateConfigurationCache.getConfiguration(templateDirectories.toArray(new File[templateDirectories.size()]));
         
     }
     
@@ -119,10 +118,22 @@ public class TemplateHelper {
     		}
     	}*/
     	
-    	public void createFile(String content, String fileName) {
+    	public void createFile(final String content, String fileName) {
+    		File file = new File(getOutputDirectory(), fileName);
+    		if(artifactCollector!=null && artifactCollector.isSkipUnchanged()) {
+    			// like template output, so an unchanged file is skipped through the manifest and counted
+    			String fileType = file.getName();
+    			fileType = fileType.substring(fileType.indexOf('.')+1);
+    			new TemplateProducer(TemplateHelper.this, artifactCollector).produce(new TemplateProducer.Content() {
+    				public void writeTo(Writer writer) throws IOException {
+    					writer.write(content);
+    				}
+    			}, file, fileName, fileType, null);
+    			return;
+    		}
     		Writer fw = null;
     		try {
-    		fw = new BufferedWriter(new FileWriter(new File(getOutputDirectory(), fileName)));
+    		fw = new BufferedWriter(new FileWriter(file));
     		fw.write(content);
     		} catch(IOException io) {
     			throw new ExporterException("Problem when writing to " + fileName, io);
@@ -143,6 +154,11 @@ public class TemplateHelper {
 		return outputDirectory;
 	}
 
+	/** @param artifactCollector collects the files created by templates, null if they are not collected */
+	public void setArtifactCollector(ArtifactCollector artifactCollector) {
+		this.artifactCollector = artifactCollector;
+	}
+
 	
 	   
     public void putInContext(String key, Object value) {
@@ -171,6 +187,9 @@ public class TemplateHelper {
     	} 	// else make the directory and any non-existent parent directories
     	else if ( !dir.exists() ) {
     		if ( !dir.mkdirs() ) {
+    			if(dir.isDirectory()) { // created concurrently by another rendering task
+    				return;
+    			}
     			if(dir.getName().equals(".")) { // Workaround that Linux/JVM apparently can't handle mkdirs of File's with current dir references.
     				if(dir.getParentFile().mkdirs()) {
     					return;
@@ -244,15 +263,65 @@ public class TemplateHelper {
     	return model;
     }
     
+    /**
+     * Creates a template context private to one rendering task: a copy of the shared context 
+     * plus the given entries. Processing a template against it never modifies the shared context,
+     * thus several tasks can be rendered concurrently.
+     */
+    public SimpleHash createTaskContext(Map<String,Object> additionalContext) {
+    	SimpleHash taskContext = new SimpleHash(ObjectWrapper.BEANS_WRAPPER);
+    	// SimpleHash.get() caches the wrapped value, i.e. reading the shared context is a write 
+    	synchronized (context) {
+    		try {
+    			TemplateModelIterator keys = context.keys().iterator();
+    			while ( keys.hasNext() ) {
+    				String key = ((TemplateScalarModel) keys.next()).getAsString();
+    				taskContext.put(key, context.get(key));
+    			}
+    		}
+    		catch (TemplateModelException e) {
+    			throw new ExporterException("Could not copy template context", e);
+    		}
+    	}
+    	Iterator<Entry<String,Object>> iterator = additionalContext.entrySet().iterator();
+    	while ( iterator.hasNext() ) {
+    		Entry<String,Object> element = iterator.next();
+    		String key = element.getKey();
+    		Object value = element.getValue();
+    		log.trace("putInTaskContext " + key + "=" + value);
+    		if(value == null) throw new IllegalStateException("value must not be null for " + key);
+    		try {
+    			TemplateModel replaced = taskContext.get(key);
+    			if(replaced!=null) {
+    				log.warn( "Overwriting " + replaced + " when setting " + key + " to " + value + ".");
+    			}
+    		}
+    		catch (TemplateModelException e) {
+    			throw new ExporterException("Could not get key " + key, e);
+    		}
+    		taskContext.put(key, value);
+    	}
+    	taskContext.put("ctx", taskContext);
+    	return taskContext;
+    }
+    
     /** look up the template named templateName via the paths and print the content to the output */
     public void processTemplate(String templateName, Writer output, String rootContext) {
+    	processTemplate(templateName, output, rootContext, getContext());
+    }
+    
+    /** 
+     * look up the template named templateName via the paths and print the content to the output,
+     * using the given context (e.g. one created by {@link #createTaskContext(Map)}) as data model. 
+     */
+    public void processTemplate(String templateName, Writer output, String rootContext, SimpleHash templateContext) {
     	if(rootContext == null) {
     		rootContext = "Unknown context";
     	}
     	
     	try {
     		Template template = freeMarkerEngine.getTemplate(templateName);
-    		template.process(getContext(), output);            
+    		template.process(templateContext, output);            
         } 
         catch (IOException e) {
             throw new ExporterException("Error while processing " + rootContext + " with template " + templateName, e);
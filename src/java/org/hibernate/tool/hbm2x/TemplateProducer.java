@@ -2,16 +2,24 @@ package org.hibernate.tool.hbm2x;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
-import java.util.Iterator;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Map;
-import java.util.Map.Entry;
 
+import org.hibernate.tool.util.DigestHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import freemarker.template.SimpleHash;
+
 
 public class TemplateProducer {
 
@@ -24,72 +32,99 @@ public class TemplateProducer {
 		this.ac = ac;
 	}
 	
-	public void produce(Map<String,Object> additionalContext, String templateName, File destination, String identifier, String fileType, String rootContext) {
+	/** Content written by code instead of a template, e.g. a data file next to the generated pages. */
+	public interface Content {
+		void writeTo(Writer writer) throws IOException;
+	}
+	
+	public void produce(final Map<String,Object> additionalContext, final String templateName, File destination, String identifier, String fileType, final String rootContext) {
+		produce(new Content() {
+			public void writeTo(Writer writer) {
+				produceToWriter( additionalContext, templateName, rootContext, writer );
+			}
+		}, destination, identifier, fileType, null);
+	}
+	
+	/**
+	 * Writes the content like a template result: through a temporary file moved into place, 
+	 * and skipped when unchanged if the artifact collector skips unchanged artifacts.
+	 * 
+	 * @param encoding of the file, null for the platform default used for templates
+	 */
+	public void produce(Content content, File destination, String identifier, String fileType, String encoding) {
 		
-		String tempResult = produceToString( additionalContext, templateName, rootContext );
+		th.ensureExistence( destination );
 		
-		if(tempResult.trim().length()==0) {
-			log.warn("Generated output is empty. Skipped creation for file " + destination);
-			return;
-		}
-		FileWriter fileWriter = null;
+		// render straight into a temporary file next to the destination and move it into place when complete
+		File tempFile = null;
+		Writer writer = null;
+		boolean moved = false;
 		try {
+			tempFile = File.createTempFile(destination.getName() + ".", ".tmp", destination.getAbsoluteFile().getParentFile());
+			OutputStream out = new FileOutputStream(tempFile);
+			MessageDigest digest = null;
+			if(ac.isSkipUnchanged()) {
+				digest = DigestHelper.newDigest();
+				out = new DigestOutputStream(out, digest);
+			}
+			ContentDetectingWriter contentWriter = new ContentDetectingWriter(
+					new BufferedWriter(encoding==null ? new OutputStreamWriter(out) : new OutputStreamWriter(out, encoding)));
+			writer = contentWriter;
+			content.writeTo( writer );
+			writer.close();
+			writer = null;
+			
+			if(!contentWriter.hasContent()) {
+				log.warn("Generated output is empty. Skipped creation for file " + destination);
+				return;
+			}
+			
+			String contentHash = null;
+			if(digest!=null) {
+				contentHash = DigestHelper.toHex(digest.digest());
+				if(ac.isUnchanged(destination, contentHash)) {
+					log.debug("Skipping " + identifier + " as " + destination.getAbsolutePath() + " is unchanged");
+					ac.addSkippedFile(destination, fileType);
+					return;
+				}
+			}
 			
-			th.ensureExistence( destination );    
-	     
-			ac.addFile(destination, fileType);
 			log.debug("Writing " + identifier + " to " + destination.getAbsolutePath() );
-			fileWriter = new FileWriter(destination);
-            fileWriter.write(tempResult);			
+			moveIntoPlace(tempFile, destination);
+			moved = true;
+			ac.addFile(destination, fileType, contentHash);
 		} 
-		catch (Exception e) {
+		catch (IOException e) {
 		    throw new ExporterException("Error while writing result to file", e);	
 		} finally {
-			if(fileWriter!=null) {
+			if(writer!=null) {
 				try {
-					fileWriter.flush();
-					fileWriter.close();
+					writer.close();
 				}
 				catch (IOException e) {
 					log.warn("Exception while flushing/closing " + destination,e);
 				}				
 			}
+			if(!moved && tempFile!=null && tempFile.exists() && !tempFile.delete()) {
+				log.warn("Could not delete temporary file " + tempFile);
+			}
 		}
 		
 	}
 
-
-	private String produceToString(Map<String,Object> additionalContext, String templateName, String rootContext) {
-		Map<String,Object> contextForFirstPass = additionalContext;
-		putInContext( th, contextForFirstPass );		
-		StringWriter tempWriter = new StringWriter();
-		BufferedWriter bw = new BufferedWriter(tempWriter);
-		// First run - writes to in-memory string
-		th.processTemplate(templateName, bw, rootContext);
-		removeFromContext( th, contextForFirstPass );
+	private void moveIntoPlace(File source, File destination) throws IOException {
 		try {
-			bw.flush();
+			Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 		}
-		catch (IOException e) {
-			throw new RuntimeException("Error while flushing to string",e);
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
 		}
-		return tempWriter.toString();
 	}
 
-	private void removeFromContext(TemplateHelper templateHelper, Map<String,Object> context) {
-		Iterator<Entry<String,Object>> iterator = context.entrySet().iterator();
-		while ( iterator.hasNext() ) {
-			Entry<String,Object> element = iterator.next();
-			templateHelper.removeFromContext((String) element.getKey(), element.getValue());
-		}
-	}
-
-	private void putInContext(TemplateHelper templateHelper, Map<String,Object> context) {
-		Iterator<Entry<String,Object>> iterator = context.entrySet().iterator();
-		while ( iterator.hasNext() ) {
-			Entry<String,Object> element = iterator.next();
-			templateHelper.putInContext((String) element.getKey(), element.getValue());
-		}
+	private void produceToWriter(Map<String,Object> additionalContext, String templateName, String rootContext, Writer output) {
+		// a private context per artifact keeps the shared one untouched, which allows concurrent rendering
+		SimpleHash taskContext = th.createTaskContext( additionalContext );
+		th.processTemplate(templateName, output, rootContext, taskContext);
 	}
 
 	public void produce(Map<String,Object> additionalContext, String templateName, File outputFile, String identifier) {
@@ -15,6 +15,9 @@ import org.hibernate.tool.hbm2x.pojo.POJOClass;
  * Class used to manage the files created during the documentation generation
  * process. This manager is needed to manage references between files.
  * 
+ * All files and folders are created by the constructor; afterwards the manager is only
+ * read, so the pages can look up their files from several threads.
+ * 
  * @author Ricardo C. Moral
  * @author <a href="mailto:abhayani@jboss.org">Amit Bhayani</a>
  */
@@ -100,37 +103,48 @@ public class DocFileManager {
      */
     private DocFile allTablesDocFile;
 
+    /**
+     * The JSON index of all tables and entities.
+     */
+    private DocFile searchIndexDocFile;
+
     /**
      * Map with the doc files for the tables. The keys are the Table objects and
      * the values are the DocFile instances.
      */
-    private Map<Table, DocFile> tableDocFiles = new HashMap<Table, DocFile>();
+    private final Map<Table, DocFile> tableDocFiles = new HashMap<Table, DocFile>();
     
     /**
      * Map with the DocFile for classes. The keys are the POJOClass objects and 
      * the values are the DocFile instances.
      */
-    private Map<POJOClass, DocFile> entityDocFiles = new HashMap<POJOClass, DocFile>();
+    private final Map<POJOClass, DocFile> entityDocFiles = new HashMap<POJOClass, DocFile>();
+    
+    /**
+     * Map with the DocFile for classes keyed by qualified declaration name, used for the 
+     * ComponentPOJOClass instances created while rendering.
+     */
+    private final Map<String, DocFile> entityDocFilesByDeclarationName = new HashMap<String, DocFile>();
 
     /**
      * Map with the schema summary DocFiles keyed by Schema FQN.
      */
-    private Map<String, DocFile> schemaSummaryDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> schemaSummaryDocFiles = new HashMap<String, DocFile>();
     
     /**
      * Map with the package summary DocFiles keyed by package name
      */
-    private Map<String, DocFile> packageSummaryDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> packageSummaryDocFiles = new HashMap<String, DocFile>();
 
     /**
      * Map with the schema table lists DocFiles keyed by Schema FQN.
      */
-    private Map<String, DocFile> schemaTableListDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> schemaTableListDocFiles = new HashMap<String, DocFile>();
     
     /**
      * Map with package class lists DocFiles keyed by package name
      */
-    private Map<String, DocFile> packageEntityListDocFile = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> packageEntityListDocFile = new HashMap<String, DocFile>();
 
     public DocFolder getRootDocFolder() {
 		return rootDocFolder;
@@ -149,6 +163,8 @@ public class DocFileManager {
         rootDocFolder = new DocFolder(pRootFolder);
 
         mainIndexDocFile = new DocFile("index.html", rootDocFolder);
+        
+        searchIndexDocFile = new DocFile("search-index.json", rootDocFolder);
 
         assetsDocFolder = new DocFolder("assets", rootDocFolder);
 
@@ -209,6 +225,9 @@ public class DocFileManager {
         		classFileName = classFileName + ".html";
         		DocFile classDocFile = new DocFile(classFileName, packageFolder);        		
         		entityDocFiles.put(pc, classDocFile);
+        		if(!entityDocFilesByDeclarationName.containsKey(pc.getQualifiedDeclarationName())) {
+        			entityDocFilesByDeclarationName.put(pc.getQualifiedDeclarationName(), classDocFile);
+        		}
         	}        	
         }
 
@@ -330,6 +349,23 @@ public class DocFileManager {
     	return allEntitiesDocFile;
     }
     
+    /**
+     * Returns the DocFile for a page of the list of all classes. The first page is allentities.html.
+     * @param page the number of the page, starting at 1
+     * @return DocFile
+     */
+    public DocFile getAllEntitiesDocFile(int page){
+    	return page<=1 ? allEntitiesDocFile : new DocFile("allentities-" + page + ".html", rootEntitiesDocFolder);
+    }
+    
+    /**
+     * Returns the DocFile of the JSON index of all tables and entities.
+     * @return DocFile
+     */
+    public DocFile getSearchIndexDocFile(){
+    	return searchIndexDocFile;
+    }
+    
     /**
      * Returns the DocFile responsible to generate classes.html corresponding to packageName passed 
      * @param packageName Package name which acts as key to get DocFile value object from packageEntityListDocFile
@@ -367,6 +403,17 @@ public class DocFileManager {
         return allTablesDocFile;
     }
 
+    /**
+     * Return the DocFile for a page of the list of all tables. The first page is the all tables DocFile.
+     * 
+     * @param page the number of the page, starting at 1.
+     * 
+     * @return the DocFile.
+     */
+    public DocFile getAllTablesDocFile(int page) {
+        return page<=1 ? allTablesDocFile : new DocFile("alltables-" + page + ".html", rootTablesDocFolder);
+    }
+
     /**
      * Return the DocFile for the specified Table.
      * 
@@ -387,23 +434,8 @@ public class DocFileManager {
      */
     public DocFile getEntityDocFileByDeclarationName(POJOClass pc){
     	DocFile df = getEntityDocFile(pc);
-    	String pcQualifiedDeclarationName = pc.getQualifiedDeclarationName();
-    	String pojoClassQualifiedDeclarationName ;
-    	//TODO Can we implement equals method in BasicPOJO to avoid this loop?
     	if(df == null){
-    		Iterator<POJOClass> itr = entityDocFiles.keySet().iterator();
-    		while(itr.hasNext()){
-    			POJOClass pojoClass = itr.next();
-    			pojoClassQualifiedDeclarationName = pojoClass.getQualifiedDeclarationName();
-    			
-    			if( pcQualifiedDeclarationName.equals(pojoClassQualifiedDeclarationName )){
-    				df = entityDocFiles.get(pojoClass);
-    				break;
-    			}
-    		}
-    			
-    		
-    		
+    		df = entityDocFilesByDeclarationName.get(pc.getQualifiedDeclarationName());
     	}
     	return df;
     }    
@@ -448,6 +480,23 @@ public class DocFileManager {
         return schemaTableListDocFiles.get(schemaName);
     }
 
+    /**
+     * Return a page of the Table List DocFile for the specified schema FQN. The first
+     * page is the Table List DocFile.
+     * 
+     * @param schemaName the name of the schema.
+     * @param page the number of the page, starting at 1.
+     * 
+     * @return the DocFile.
+     */
+    public DocFile getSchemaTableListDocFile(String schemaName, int page) {
+        DocFile first = getSchemaTableListDocFile(schemaName);
+        if (page<=1 || first==null) {
+            return first;
+        }
+        return new DocFile("tables-" + page + ".html", first.getFolder());
+    }
+
     /**
      * Return the relative reference between the specified files.
      * 
@@ -8,6 +8,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.hibernate.HibernateException;
 import org.hibernate.boot.Metadata;
@@ -16,6 +18,8 @@ import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.internal.util.ReflectHelper;
+import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Component;
 import org.hibernate.mapping.PersistentClass;
@@ -29,16 +33,20 @@ import org.hibernate.tool.hbm2x.pojo.ComponentPOJOClass;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
 import org.hibernate.tool.util.MetadataHelper;
 import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This helper class is used expose hibernate mapping information to the
- * templates.
+ * templates. Its indexes are built when first used and can be read by several threads.
  * 
  * @author Ricardo C. Moral
  * @author <a href="mailto:abhayani@jboss.org">Amit Bhayani</a>
  */
 public final class DocHelper {
 
+	private static final Logger log = LoggerFactory.getLogger(DocHelper.class);
+
 	/** used to sort pojoclass according to their declaration name */
 	static final Comparator<POJOClass> POJOCLASS_COMPARATOR = new Comparator<POJOClass>() {
 		public int compare(POJOClass left, POJOClass right) {
@@ -70,6 +78,16 @@ public final class DocHelper {
 	 */
 	private Configuration cfg;
 
+	/**
+	 * Used to create the POJOClass of the entities and components.
+	 */
+	private Cfg2JavaTool cfg2JavaTool;
+
+	/**
+	 * Metadata of the configuration, resolved when first needed.
+	 */
+	private volatile Metadata metadata;
+
 	/**
 	 * Map with Tables keyed by Schema FQN. The keys are Strings and the values
 	 * are Lists of Tables
@@ -103,6 +121,13 @@ public final class DocHelper {
 	private Map<Value, List<Property>> propsByValue = 
 			new HashMap<Value, List<Property>>();
 
+	/**
+	 * The properties mapped to a column keyed by column FQN, filled as the 
+	 * templates ask for them.
+	 */
+	private final ConcurrentMap<String, List<Property>> propertiesByColumn = 
+			new ConcurrentHashMap<String, List<Property>>();
+
 	/**
 	 * List with all the tables.
 	 */
@@ -114,10 +139,20 @@ public final class DocHelper {
 	 */
 	private Map<Table, String> tableSchemaNames = new HashMap<Table, String>();
 
+	/*
+	 * The indexes above are built on first use, thus only the half of the 
+	 * documentation which is generated pays for them. Each is filled while 
+	 * holding the lock of the helper and published by setting its flag.
+	 */
+	private volatile boolean tablesIndexed;
+	private volatile boolean classesIndexed;
+	private volatile boolean columnsIndexed;
+	private volatile boolean propertiesIndexed;
+
 	/**
-	 * The Dialect.
+	 * The Dialect, resolved when first needed.
 	 */
-	private Dialect dialect;
+	private volatile Dialect dialect;
 
 	/**
 	 * Constructor.
@@ -125,7 +160,6 @@ public final class DocHelper {
 	 * @param cfg
 	 *            Hibernate configuration.
 	 */
-	@SuppressWarnings("unchecked")
 	public DocHelper(Configuration cfg, Cfg2JavaTool cfg2JavaTool) {
 
 		super();
@@ -135,101 +169,211 @@ public final class DocHelper {
 		}
 
 		this.cfg = cfg;
+		this.cfg2JavaTool = cfg2JavaTool;
+	}
 
-		Properties properties = cfg.getProperties();
-		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
-		builder.applySettings(cfg.getProperties());
-		ServiceRegistry serviceRegistry = builder.build();
-		JdbcServices jdbcServices = serviceRegistry.getService(JdbcServices.class);
-		dialect = jdbcServices.getDialect(); 
-		String defaultCatalog = properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
-		String defaultSchema = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
-		if (defaultSchema == null) {
-			defaultSchema = DEFAULT_NO_SCHEMA_NAME;
+	private Metadata getMetadata() {
+		if (metadata == null) {
+			synchronized (this) {
+				if (metadata == null) {
+					metadata = MetadataHelper.getMetadata(cfg);
+				}
+			}
 		}
-		
-		Metadata metadata = MetadataHelper.getMetadata(cfg);		
-		Iterator<Table> tablesIter = metadata.collectTableMappings().iterator();
-
-		while (tablesIter.hasNext()) {
-			Table table = tablesIter.next();
+		return metadata;
+	}
 
-			if (!table.isPhysicalTable()) {
-				continue;
+	/**
+	 * Fills tables, tablesBySchema and tableSchemaNames.
+	 */
+	private void indexTables() {
+		if (tablesIndexed) {
+			return;
+		}
+		synchronized (this) {
+			if (tablesIndexed) {
+				return;
+			}
+			Properties properties = cfg.getProperties();
+			String defaultCatalog = properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
+			String defaultSchema = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
+			if (defaultSchema == null) {
+				defaultSchema = DEFAULT_NO_SCHEMA_NAME;
 			}
-			tables.add(table);
 
-			StringBuffer sb = new StringBuffer();
+			Iterator<Table> tablesIter = getMetadata().collectTableMappings().iterator();
 
-			String catalog = table.getCatalog();
-			if (catalog == null) {
-				catalog = defaultCatalog;
-			}
-			if (catalog != null) {
-				sb.append(catalog + ".");
-			}
+			while (tablesIter.hasNext()) {
+				Table table = tablesIter.next();
 
-			String schema = table.getSchema();
-			if (schema == null) {
-				schema = defaultSchema;
-			}
+				if (!table.isPhysicalTable()) {
+					continue;
+				}
+				tables.add(table);
 
-			sb.append(schema);
+				StringBuffer sb = new StringBuffer();
 
-			String qualSchemaName = sb.toString();
+				String catalog = table.getCatalog();
+				if (catalog == null) {
+					catalog = defaultCatalog;
+				}
+				if (catalog != null) {
+					sb.append(catalog + ".");
+				}
+
+				String schema = table.getSchema();
+				if (schema == null) {
+					schema = defaultSchema;
+				}
+
+				sb.append(schema);
+
+				String qualSchemaName = sb.toString();
 
-			tableSchemaNames.put(table, qualSchemaName);
+				tableSchemaNames.put(table, qualSchemaName);
+
+				List<Table> tableList = tablesBySchema.get(qualSchemaName);
+				if (tableList == null) {
+					tableList = new ArrayList<Table>();
+					tablesBySchema.put(qualSchemaName, tableList);
+				}
+				tableList.add(table);
+			}
+			tablesIndexed = true;
+		}
+	}
 
-			List<Table> tableList = tablesBySchema.get(qualSchemaName);
-			if (tableList == null) {
-				tableList = new ArrayList<Table>();
-				tablesBySchema.put(qualSchemaName, tableList);
+	/**
+	 * Fills valuesByColumn.
+	 */
+	private void indexColumns() {
+		if (columnsIndexed) {
+			return;
+		}
+		indexTables();
+		synchronized (this) {
+			if (columnsIndexed) {
+				return;
 			}
-			tableList.add(table);
-
-			Iterator<Column> columns = table.getColumnIterator();
-			while (columns.hasNext()) {
-				Column column = columns.next();
-				String columnFQN = getQualifiedColumnName(table, column);
-				List<Value> values = valuesByColumn.get(columnFQN);
-				if (values == null) {
-					values = new ArrayList<Value>();
-					valuesByColumn.put(columnFQN, values);
+			Iterator<Table> tablesIter = tables.iterator();
+			while (tablesIter.hasNext()) {
+				Table table = tablesIter.next();
+				@SuppressWarnings("unchecked")
+				Iterator<Column> columns = table.getColumnIterator();
+				while (columns.hasNext()) {
+					Column column = columns.next();
+					String columnFQN = getQualifiedColumnName(table, column);
+					List<Value> values = valuesByColumn.get(columnFQN);
+					if (values == null) {
+						values = new ArrayList<Value>();
+						valuesByColumn.put(columnFQN, values);
+					}
+					values.add(column.getValue());
 				}
-				values.add(column.getValue());
 			}
+			columnsIndexed = true;
 		}
+	}
 
-		Map<String, Component> components = new HashMap<String, Component>();
+	/**
+	 * Fills classes and classesByPackage.
+	 */
+	private void indexClasses() {
+		if (classesIndexed) {
+			return;
+		}
+		synchronized (this) {
+			if (classesIndexed) {
+				return;
+			}
+			Map<String, Component> components = new HashMap<String, Component>();
 
-		Iterator<PersistentClass> classesItr = metadata.getEntityBindings().iterator();
-		while (classesItr.hasNext()) {
-			PersistentClass clazz = classesItr.next();
+			Iterator<PersistentClass> classesItr = getMetadata().getEntityBindings().iterator();
+			while (classesItr.hasNext()) {
+				PersistentClass clazz = classesItr.next();
 
-			POJOClass pojoClazz = cfg2JavaTool.getPOJOClass(clazz);
-			ConfigurationNavigator.collectComponents(components, pojoClazz);
+				POJOClass pojoClazz = cfg2JavaTool.getPOJOClass(clazz);
+				ConfigurationNavigator.collectComponents(components, pojoClazz);
 
-			this.processClass(pojoClazz);
+				this.processClass(pojoClazz);
+			}
+
+			Iterator<Component> iterator = components.values().iterator();
+			while (iterator.hasNext()) {
+				Component component = (Component) iterator.next();
+				ComponentPOJOClass element =
+						new ComponentPOJOClass(component, cfg2JavaTool);
+				this.processClass(element);
+			}
+			classesIndexed = true;
+		}
+	}
+
+	/**
+	 * Fills propsByValue.
+	 */
+	private void indexProperties() {
+		if (propertiesIndexed) {
+			return;
+		}
+		synchronized (this) {
+			if (propertiesIndexed) {
+				return;
+			}
+			Iterator<PersistentClass> classesItr = getMetadata().getEntityBindings().iterator();
+			while (classesItr.hasNext()) {
+				PersistentClass clazz = classesItr.next();
+				@SuppressWarnings("unchecked")
+				Iterator<Property> propertyIterator = clazz.getPropertyIterator();
+				while (propertyIterator.hasNext()) {
+					Property property = propertyIterator.next();
+					Value value = property.getValue();
+					List<Property> props = propsByValue.get(value);
+					if (props == null) {
+						props = new ArrayList<Property>();
+						propsByValue.put(value, props);
+					}
+					props.add(property);
+				}
+			}
+			propertiesIndexed = true;
+		}
+	}
 
-			Iterator<Property> propertyIterator = clazz.getPropertyIterator();
-			while (propertyIterator.hasNext()) {
-				Property property = propertyIterator.next();
-				Value value = property.getValue();
-				List<Property> props = propsByValue.get(value);
-				if (props == null) {
-					props = new ArrayList<Property>();
-					propsByValue.put(value, props);
+	/**
+	 * Uses the dialect configured by class name or instance, and only bootstraps a 
+	 * service registry to determine it when none is configured.
+	 */
+	private Dialect getDialect() {
+		if (dialect == null) {
+			synchronized (this) {
+				if (dialect == null) {
+					dialect = resolveDialect();
 				}
-				props.add(property);
 			}
 		}
+		return dialect;
+	}
 
-		Iterator<Component> iterator = components.values().iterator();
-		while (iterator.hasNext()) {
-			Component component = (Component) iterator.next();
-			ComponentPOJOClass element =
-					new ComponentPOJOClass(component, cfg2JavaTool);
-			this.processClass(element);
+	private Dialect resolveDialect() {
+		Object configured = cfg.getProperties().get(AvailableSettings.DIALECT);
+		if (configured instanceof Dialect) {
+			return (Dialect) configured;
+		}
+		if (configured instanceof String && StringHelper.isNotEmpty((String) configured)) {
+			try {
+				return (Dialect) ReflectHelper.classForName(((String) configured).trim(), DocHelper.class).newInstance();
+			} catch (Exception e) {
+				log.debug("Could not instantiate dialect " + configured + ", resolving it through a service registry", e);
+			}
+		}
+		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
+		builder.applySettings(cfg.getProperties());
+		ServiceRegistry serviceRegistry = builder.build();
+		try {
+			return serviceRegistry.getService(JdbcServices.class).getDialect();
+		} finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
 		}
 	}
 
@@ -271,6 +415,7 @@ public final class DocHelper {
 	 * @return a Map with the tables keyed by Schema Name.
 	 */
 	public Map<String, List<Table>> getTablesBySchema() {
+		indexTables();
 		return tablesBySchema;
 	}
 
@@ -281,6 +426,7 @@ public final class DocHelper {
 	 * @return
 	 */
 	public Map<String, List<POJOClass>> getClassesByPackage() {
+		indexClasses();
 		return classesByPackage;
 	}
 
@@ -290,6 +436,7 @@ public final class DocHelper {
 	 * @return a list with all the schemas.
 	 */
 	public List<String> getSchemas() {
+		indexTables();
 		List<String> schemas = new ArrayList<String>(tablesBySchema.keySet());
 		Collections.sort(schemas);
 		return schemas;
@@ -301,6 +448,7 @@ public final class DocHelper {
 	 * @return
 	 */
 	public List<String> getPackages() {
+		indexClasses();
 		List<String> packages = new ArrayList<String>(classesByPackage.keySet());
 		Collections.sort(packages);
 		return packages;
@@ -315,6 +463,7 @@ public final class DocHelper {
 	 * @return a list with all the tables.
 	 */
 	public List<Table> getTables(String schema) {
+		indexTables();
 		List<Table> list = tablesBySchema.get(schema);
 		return list;
 	}
@@ -327,6 +476,7 @@ public final class DocHelper {
 	 * @return a sorted List of POJOClass
 	 */
 	public List<POJOClass> getClasses(String packageName) {
+		indexClasses();
 		List<POJOClass> clazzes = classesByPackage.get(packageName);
 		List<POJOClass> orderedClasses = new ArrayList<POJOClass>(clazzes);
 		Collections.sort(orderedClasses, POJOCLASS_COMPARATOR);
@@ -339,6 +489,7 @@ public final class DocHelper {
 	 * @return all the tables.
 	 */
 	public List<Table> getTables() {
+		indexTables();
 		return tables;
 	}
 
@@ -348,6 +499,7 @@ public final class DocHelper {
 	 * @return
 	 */
 	public List<POJOClass> getClasses() {
+		indexClasses();
 		List<POJOClass> orderedClasses = new ArrayList<POJOClass>(classes);
 		Collections.sort(orderedClasses, POJOCLASS_COMPARATOR);
 		return orderedClasses;
@@ -363,7 +515,7 @@ public final class DocHelper {
 	 * @return the qualified schema name for the table.
 	 */
 	public String getQualifiedSchemaName(Table table) {
-
+		indexTables();
 		return (String) tableSchemaNames.get(table);
 	}
 
@@ -424,7 +576,7 @@ public final class DocHelper {
 	public String getSQLTypeName(Column column) {
 
 		try {
-			return column.getSqlType(dialect, null);
+			return column.getSqlType(getDialect(), null);
 		} catch (HibernateException ex) {
 
 			// TODO: Fix this when we find a way to get the type or
@@ -445,6 +597,7 @@ public final class DocHelper {
 	 * @return a list with the values.
 	 */
 	public List<Value> getValues(Table table, Column column) {
+		indexColumns();
 		String columnFQN = getQualifiedColumnName(table, column);
 		List<Value> values = valuesByColumn.get(columnFQN);
 		if (values != null) {
@@ -462,20 +615,27 @@ public final class DocHelper {
 	 * @param column
 	 *            the column.
 	 * 
-	 * @return a list of properties.
+	 * @return an unmodifiable list of properties, computed once per column.
 	 */
 	public List<Property> getProperties(Table table, Column column) {
-
-		List<Property> result = new ArrayList<Property>();
+		String columnFQN = getQualifiedColumnName(table, column);
+		List<Property> result = propertiesByColumn.get(columnFQN);
+		if (result != null) {
+			return result;
+		}
+		indexProperties();
+		List<Property> properties = new ArrayList<Property>();
 		Iterator<Value> values = getValues(table, column).iterator();
 		while (values.hasNext()) {
 			Value value = values.next();
 			List<Property> props = propsByValue.get(value);
 			if (props != null) {
-				result.addAll(props);
+				properties.addAll(props);
 			}
 		}
-		return result;
+		result = Collections.unmodifiableList(properties);
+		List<Property> existing = propertiesByColumn.putIfAbsent(columnFQN, result);
+		return existing == null ? result : existing;
 	}
 
 	/**
@@ -0,0 +1,55 @@
+package org.hibernate.tool.hbmlint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * IssueCollector that can be reported to from several threads at once.
+ * Issues are handed out sorted so the result does not depend on the order 
+ * in which detectors happened to run.
+ */
+public class ConcurrentIssueCollector implements IssueCollector {
+
+	/** Highest priority first, then by type and description. */
+	public static final Comparator<Issue> ISSUE_ORDER = new Comparator<Issue>() {
+		public int compare(Issue o1, Issue o2) {
+			if(o1.getPriority()!=o2.getPriority()) {
+				return o1.getPriority() > o2.getPriority() ? -1 : 1;
+			}
+			int result = compare(o1.getType(), o2.getType());
+			if(result==0) {
+				result = compare(o1.getDescription(), o2.getDescription());
+			}
+			return result;
+		}
+
+		private int compare(String s1, String s2) {
+			if(s1==null) return s2==null ? 0 : -1;
+			if(s2==null) return 1;
+			return s1.compareTo(s2);
+		}
+	};
+	
+	private final Queue<Issue> issues = new ConcurrentLinkedQueue<Issue>();
+	
+	public void reportIssue(Issue issue) {
+		issues.add(issue);
+	}
+	
+	/**
+	 * @return a sorted copy of the issues reported so far
+	 */
+	public List<Issue> getSortedIssues() {
+		List<Issue> result = new ArrayList<Issue>(issues);
+		Collections.sort(result, ISSUE_ORDER);
+		return result;
+	}
+	
+	public void clear() {
+		issues.clear();
+	}
+}
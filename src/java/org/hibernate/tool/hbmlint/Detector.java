@@ -1,5 +1,8 @@
 package org.hibernate.tool.hbmlint;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.hibernate.boot.Metadata;
 
 public abstract class Detector {
@@ -16,5 +19,18 @@ public abstract class Detector {
 
 	abstract public void visit(IssueCollector collector);
 	
+	/**
+	 * Splits the work done by {@link #visit(IssueCollector)} into tasks that 
+	 * can run concurrently. The collector must be thread safe.
+	 * By default the whole detector runs as one task.
+	 */
+	public List<Runnable> getVisitTasks(final IssueCollector collector) {
+		return Collections.<Runnable>singletonList(new Runnable() {
+			public void run() {
+				visit(collector);
+			}
+		});
+	}
+	
 	abstract public String getName();
 }
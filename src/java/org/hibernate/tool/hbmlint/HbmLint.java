@@ -1,8 +1,15 @@
 package org.hibernate.tool.hbmlint;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import org.hibernate.HibernateException;
 import org.hibernate.boot.Metadata;
 import org.hibernate.tool.hbmlint.detector.BadCachingDetector;
 import org.hibernate.tool.hbmlint.detector.InstrumentationDetector;
@@ -14,29 +21,81 @@ public class HbmLint implements IssueCollector {
 	
 	final Detector[] detectors;
 	
+	private int threads = 1;
+	
 	public HbmLint(Detector[] detectors) {
 		this.detectors = detectors;
 	}
 	
-	List<Issue> results = new ArrayList<Issue>();
+	final ConcurrentIssueCollector results = new ConcurrentIssueCollector();
+	
+	/**
+	 * Number of threads used to run the detectors. With more than one thread
+	 * each detector is split into per entity/per table tasks run on a fork-join pool.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+	
+	public int getThreads() {
+		return threads;
+	}
 	
 	public void analyze(Metadata metadata) {
+		if(threads<=1) {
+			for (int i = 0; i < detectors.length; i++) {
+				detectors[i].initialize(metadata);
+				detectors[i].visit(this);
+			}
+			return;
+		}
+		
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
 		for (int i = 0; i < detectors.length; i++) {
 			detectors[i].initialize(metadata);
-			detectors[i].visit(this);
+			for (Iterator<Runnable> iter = detectors[i].getVisitTasks(this).iterator(); iter.hasNext();) {
+				tasks.add(Executors.callable(iter.next()));
+			}
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<Future<Object>> futures = pool.invokeAll(tasks);
+			for (Iterator<Future<Object>> iter = futures.iterator(); iter.hasNext();) {
+				iter.next().get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HibernateException("Interrupted while running hbmlint detectors", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new HibernateException("Error while running hbmlint detectors", cause);
+		}
+		finally {
+			pool.shutdownNow();
 		}
-					
 	}
 	
 	/* (non-Javadoc)
 	 * @see org.hibernate.tool.hbmlint.IssueCollector#reportProblem(org.hibernate.tool.hbmlint.Issue)
 	 */
 	public void reportIssue(Issue analyze) {
-		results.add(analyze);
+		results.reportIssue(analyze);
 	}
 	
+	/**
+	 * @return the issues found, ordered by priority, type and description
+	 */
 	public List<Issue> getResults() {
-		return results;	
+		return results.getSortedIssues();	
 	}
 
 	public static HbmLint createInstance() {
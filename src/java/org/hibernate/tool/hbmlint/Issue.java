@@ -21,6 +21,10 @@ public class Issue {
 		return type + ":" + description;
 	}
 
+	public String getType() {
+		return type;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -0,0 +1,190 @@
+package org.hibernate.tool.hbmlint.detector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.cfg.reveng.DatabaseCollector;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.SchemaSelection;
+import org.hibernate.internal.util.StringHelper;
+import org.hibernate.mapping.Table;
+
+/**
+ * In-memory view of the tables and sequences in the database, read with a single
+ * pass over the metadata so the schema checks of hbmlint do not have to go
+ * back to the database for every mapped table or identifier generator.
+ *
+ * Lookups follow the rules of a metadata search: a null catalog or schema
+ * matches any catalog or schema and names are compared case insensitively
+ * unless the mapped name is quoted.
+ */
+public class DatabaseSnapshot {
+
+	private final Map<String, List<Table>> tablesByName = new HashMap<String, List<Table>>();
+	private final Set<String> sequences;
+	private int tableCount = 0;
+
+	public DatabaseSnapshot(Collection<Table> tables, Set<String> sequences) {
+		Set<Table> seen = Collections.newSetFromMap(new IdentityHashMap<Table, Boolean>());
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			if(!seen.add(table)) continue; // overlapping selections report a table twice
+			String key = normalize(table.getName());
+			List<Table> list = tablesByName.get(key);
+			if(list==null) {
+				list = new ArrayList<Table>(1);
+				tablesByName.put(key, list);
+			}
+			list.add(table);
+			tableCount++;
+		}
+		this.sequences = sequences==null ? Collections.<String>emptySet() : sequences;
+	}
+
+	/**
+	 * Reads the given tables, the tables behind table based generator keys and
+	 * the sequences in one go. Keys naming a sequence need no table.
+	 *
+	 * @param tableNames catalog/schema/name triples of the mapped tables, catalog and schema may be null
+	 * @param generatorKeys keys of the identifier generators, of the form [[catalog.]schema.]name
+	 * @param sequenceQuery the dialect's sequence query or null if sequences are not supported
+	 */
+	public static DatabaseSnapshot read(JDBCReader reader, TableSelectorStrategy tableSelector, DatabaseCollector dbc, Collection<String[]> tableNames, Collection<?> generatorKeys, String defaultCatalog, String defaultSchema, String sequenceQuery) {
+		Set<String> sequences = null;
+		if(sequenceQuery!=null) {
+			sequences = reader.readSequences(sequenceQuery);
+		}
+		List<String[]> names = new ArrayList<String[]>(tableNames);
+		for (Iterator<?> iter = generatorKeys.iterator(); iter.hasNext();) {
+			Object key = iter.next();
+			if(key instanceof String && !isSequence(sequences, key)) {
+				String[] strings = StringHelper.split(".", (String) key);
+				if(strings.length==3) {
+					names.add(strings);
+				} else if(strings.length==2) {
+					names.add(new String[] { null, strings[0], strings[1] });
+				} else if(strings.length==1) {
+					names.add(new String[] { null, null, strings[0] });
+				}
+			}
+		}
+		List<Table> tables = Collections.emptyList();
+		List<SchemaSelection> selections = selectionsFor(names, defaultCatalog, defaultSchema);
+		if(!selections.isEmpty()) { // no selection at all would read every table
+			tableSelector.clearSchemaSelections();
+			for (Iterator<SchemaSelection> iter = selections.iterator(); iter.hasNext();) {
+				tableSelector.addSchemaSelection(iter.next());
+			}
+			tables = reader.readDatabaseSchema(dbc, null, null);
+		}
+		return new DatabaseSnapshot(tables, sequences);
+	}
+
+	/**
+	 * Computes one selection per table, so only the tables that are checked are read.
+	 * A table without catalog or schema is looked up in the configured default.
+	 *
+	 * @param names catalog/schema/name triples, catalog and schema may be null
+	 */
+	public static List<SchemaSelection> selectionsFor(Collection<String[]> names, String defaultCatalog, String defaultSchema) {
+		Map<String, SchemaSelection> selections = new LinkedHashMap<String, SchemaSelection>();
+		for (Iterator<String[]> iter = names.iterator(); iter.hasNext();) {
+			String[] name = iter.next();
+			String catalog = name[0]==null ? defaultCatalog : name[0];
+			String schema = name[1]==null ? defaultSchema : name[1];
+			String key = catalog + "." + schema + "." + name[2];
+			if(!selections.containsKey(key)) {
+				selections.put(key, new SchemaSelection(catalog, schema, name[2]));
+			}
+		}
+		return new ArrayList<SchemaSelection>(selections.values());
+	}
+
+	/**
+	 * @return the tables in the database matching the given name, never null
+	 */
+	public List<Table> findTables(String catalog, String schema, String name) {
+		List<Table> candidates = tablesByName.get(normalize(name));
+		if(candidates==null) {
+			return Collections.emptyList();
+		}
+		List<Table> result = new ArrayList<Table>(candidates.size());
+		for (Iterator<Table> iter = candidates.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			if(matches(name, table.getName()) && matches(catalog, table.getCatalog()) && matches(schema, table.getSchema())) {
+				result.add(table);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param key a generator key of the form [[catalog.]schema.]name
+	 */
+	public boolean isTable(Object key) {
+		if(key instanceof String) {
+			String[] strings = StringHelper.split(".", (String) key);
+			if(strings.length==1) {
+				return !findTables(null, null, strings[0]).isEmpty();
+			} else if(strings.length==2) {
+				return !findTables(null, strings[0], strings[1]).isEmpty();
+			} else if(strings.length==3) {
+				return !findTables(strings[0], strings[1], strings[2]).isEmpty();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param key a generator key of the form [[catalog.]schema.]name
+	 */
+	public boolean isSequence(Object key) {
+		return isSequence(sequences, key);
+	}
+
+	private static boolean isSequence(Set<String> sequences, Object key) {
+		if(sequences!=null && key instanceof String) {
+			if ( sequences.contains( key ) || sequences.contains( ((String) key).toLowerCase(Locale.ROOT) ) ) {
+				return true;
+			} else {
+				String[] strings = StringHelper.split(".", (String) key);
+				if(strings.length==3) {
+					return sequences.contains(strings[2].toLowerCase(Locale.ROOT));
+				} else if (strings.length==2) {
+					return sequences.contains(strings[1].toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+		return false;
+	}
+
+	public int getTableCount() {
+		return tableCount;
+	}
+
+	private static boolean matches(String wanted, String actual) {
+		if(wanted==null) {
+			return true;
+		}
+		if(actual==null) {
+			return false;
+		}
+		if(wanted.startsWith("`") || wanted.startsWith("\"")) {
+			return StringHelper.unquote(wanted).equals(actual);
+		}
+		return wanted.equalsIgnoreCase(actual);
+	}
+
+	private static String normalize(String name) {
+		return StringHelper.unquote(name).toLowerCase(Locale.ROOT);
+	}
+}
@@ -1,6 +1,8 @@
 package org.hibernate.tool.hbmlint.detector;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.mapping.Property;
@@ -16,6 +18,19 @@ public abstract class EntityModelDetector extends Detector {
 		}
 	}
 	
+	public List<Runnable> getVisitTasks(final IssueCollector collector) {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (Iterator<PersistentClass> iter = getMetadata().getEntityBindings().iterator(); iter.hasNext();) {
+			final PersistentClass clazz = iter.next();
+			tasks.add(new Runnable() {
+				public void run() {
+					visit(clazz, collector);
+				}
+			});
+		}
+		return tasks;
+	}
+	
 	protected void visit(PersistentClass clazz, IssueCollector collector) {
 		visitProperties(clazz, collector );
 	}
@@ -1,6 +1,8 @@
 package org.hibernate.tool.hbmlint.detector;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Table;
@@ -16,6 +18,19 @@ public abstract class RelationalModelDetector extends Detector {
 		}					
 	}
 	
+	public List<Runnable> getVisitTasks(final IssueCollector collector) {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (Iterator<Table> iter = getMetadata().collectTableMappings().iterator(); iter.hasNext();) {
+			final Table table = iter.next();
+			tasks.add(new Runnable() {
+				public void run() {
+					visit(table, collector);
+				}
+			});
+		}
+		return tasks;
+	}
+	
 	abstract protected void visit(Table table, Column col, IssueCollector collector);
 
 	protected void visitColumns(Table table, IssueCollector collector) {
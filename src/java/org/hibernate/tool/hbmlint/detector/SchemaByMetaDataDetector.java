@@ -1,13 +1,11 @@
 package org.hibernate.tool.hbmlint.detector;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
-import java.util.Set;
 import java.util.TreeMap;
 
-import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
@@ -18,13 +16,11 @@ import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.JDBCToHibernateTypeHelper;
-import org.hibernate.cfg.reveng.SchemaSelection;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.id.IdentifierGenerator;
 import org.hibernate.id.PersistentIdentifierGenerator;
-import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Collection;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.IdentifierCollection;
@@ -35,9 +31,13 @@ import org.hibernate.service.ServiceRegistry;
 import org.hibernate.tool.hbmlint.Issue;
 import org.hibernate.tool.hbmlint.IssueCollector;
 import org.hibernate.tool.util.TableNameQualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
+	private static final Logger log = LoggerFactory.getLogger(SchemaByMetaDataDetector.class);
+
 	public String getName() {
 		return "schema";
 	}
@@ -52,8 +52,16 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
 	private Mapping mapping;
 	
-	/** current table as read from the database */
-	Table currentDbTable = null;
+	private String defaultCatalog;
+	
+	private String defaultSchema;
+	
+	private DatabaseSnapshot snapshot;
+
+	private List<IdentifierGenerator> generatorList;
+	
+	/** current table as read from the database, per thread as tables may be visited concurrently */
+	final ThreadLocal<Table> currentDbTable = new ThreadLocal<Table>();
 
 	public void initialize(Metadata metadata) {
 		super.initialize( metadata);
@@ -61,14 +69,19 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		ServiceRegistry serviceRegistry = builder.build();
 		
 		dialect = serviceRegistry.getService(JdbcServices.class).getDialect();
+		Properties properties = (Properties)builder.getSettings();
+		defaultCatalog = properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
+		defaultSchema = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
 
 		tableSelector = new TableSelectorStrategy(
 				new DefaultReverseEngineeringStrategy() );
 		reader = JDBCReaderFactory.newJDBCReader( 
-				(Properties)builder.getSettings(),
+				properties,
 				tableSelector, 
 				serviceRegistry);
 		dbc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		snapshot = null;
+		generatorList = null;
 	}
 
 	public void visit(IssueCollector collector) {
@@ -76,19 +89,26 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		visitGenerators(collector);				
 	}
 	
+	public List<Runnable> getVisitTasks(final IssueCollector collector) {
+		getSnapshot(); // read once up front instead of blocking the first tasks
+		List<Runnable> tasks = new ArrayList<Runnable>(super.getVisitTasks(collector));
+		tasks.add(new Runnable() {
+			public void run() {
+				visitGenerators(collector);
+			}
+		});
+		return tasks;
+	}
+	
 	public void visitGenerators(IssueCollector collector) {
-		Iterator<?> iter = iterateGenerators();
+		Iterator<IdentifierGenerator> iter = getGenerators().iterator();
+		DatabaseSnapshot snapshot = getSnapshot();
 		
-		Set<?> sequences = Collections.EMPTY_SET;
-		if(dialect.supportsSequences()) {
-			sequences = reader.readSequences(dialect.getQuerySequencesString());
-		}
-
 		// TODO: move this check into something that could check per class or collection instead.
 		while ( iter.hasNext() ) {
 			PersistentIdentifierGenerator generator = (PersistentIdentifierGenerator) iter.next();
 			Object key = generator.generatorKey();
-			if ( !isSequence(key, sequences) && !isTable( key ) ) {
+			if ( !snapshot.isSequence(key) && !snapshot.isTable( key ) ) {
 				collector.reportIssue( new Issue( "MISSING_ID_GENERATOR", Issue.HIGH_PRIORITY, "Missing sequence or table: " + key));
 			}
 		}
@@ -96,54 +116,46 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		
 	}
 
-	private boolean isSequence(Object key, Set<?> sequences) {
-		if(key instanceof String) {
-			if ( sequences.contains( key ) ) {
-				return true;
-			} else {
-				String[] strings = StringHelper.split(".", (String) key);
-				if(strings.length==3) {
-					return sequences.contains(strings[2]);
-				} else if (strings.length==2) {
-					return sequences.contains(strings[1]);
+	/**
+	 * Reads the mapped tables, the generator tables and the sequences with a single metadata scan.
+	 * Every table and generator check afterwards is answered from memory.
+	 */
+	public synchronized DatabaseSnapshot getSnapshot() {
+		if(snapshot==null) {
+			List<String[]> tableNames = new ArrayList<String[]>();
+			Iterator<Table> tables = getMetadata().collectTableMappings().iterator();
+			while ( tables.hasNext() ) {
+				Table table = tables.next();
+				if(table.isPhysicalTable()) {
+					tableNames.add(new String[] { table.getCatalog(), table.getSchema(), table.getName() });
 				}
 			}
-		}
-		return false;
-	}
-
-	private boolean isTable(Object key) throws HibernateException {
-		// BIG HACK - should probably utilize the table cache before going to the jdbcreader :(
-		if(key instanceof String) {
-			String[] strings = StringHelper.split(".", (String) key);
-			if(strings.length==1) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(null,null, strings[0]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
-			} else if(strings.length==3) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(strings[0],strings[1], strings[2]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
-			} else if (strings.length==2) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(null,strings[0], strings[1]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
+			List<Object> generatorKeys = new ArrayList<Object>();
+			Iterator<IdentifierGenerator> generators = getGenerators().iterator();
+			while ( generators.hasNext() ) {
+				generatorKeys.add( ( (PersistentIdentifierGenerator) generators.next() ).generatorKey() );
 			}
+			snapshot = DatabaseSnapshot.read(
+					reader, 
+					tableSelector, 
+					dbc, 
+					tableNames,
+					generatorKeys,
+					defaultCatalog,
+					defaultSchema,
+					dialect.supportsSequences() ? dialect.getQuerySequencesString() : null);
+			log.debug("Read " + snapshot.getTableCount() + " table(s) for schema checks");
 		}
-		return false;
+		return snapshot;
 	}
 	
 	public void visit(Table table, IssueCollector pc) {
 
 		if ( table.isPhysicalTable() ) {
-			setSchemaSelection( table );
-
-			List<?> list = reader.readDatabaseSchema( dbc, null, null );
+			List<Table> list = getSnapshot().findTables( table.getCatalog(), table.getSchema(), table.getQuotedName() );
 
 			if ( list.isEmpty() ) {
+				currentDbTable.remove();
 				pc.reportIssue( new Issue( "SCHEMA_TABLE_MISSING",
 						Issue.HIGH_PRIORITY, "Missing table "
 								+ TableNameQualifier.qualify( table.getCatalog(), table
@@ -151,6 +163,7 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 				return;
 			}
 			else if ( list.size() > 1 ) {
+				currentDbTable.remove();
 				pc.reportIssue( new Issue( "SCHEMA_TABLE_MISSING",
 						Issue.NORMAL_PRIORITY, "Found "
 								+ list.size()
@@ -160,7 +173,7 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 				return;
 			}
 			else {
-				currentDbTable = (Table) list.get( 0 );
+				currentDbTable.set( list.get( 0 ) );
 				visitColumns(table,pc);				
 			}
 		}
@@ -177,11 +190,12 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 			Table table, 
 			Column col,
 			IssueCollector pc) {
-		if ( currentDbTable == null ) {
+		Table dbTable = currentDbTable.get();
+		if ( dbTable == null ) {
 			return;
 		}
 
-		Column dbColumn = currentDbTable
+		Column dbColumn = dbTable
 				.getColumn( new Column( col.getName() ) );
 
 		if ( dbColumn == null ) {
@@ -204,29 +218,20 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		}
 	}
 
-	private void setSchemaSelection(Table table) {
-		tableSelector.clearSchemaSelections();
-		tableSelector.addSchemaSelection( new SchemaSelection( table
-				.getCatalog(), table.getSchema(), table.getName() ) );
-
-	}
-
 	/**
 	 * 
 	 * @param cfg 
-	 * @return iterator over all the IdentifierGenerator's found in the entitymodel and return a list of unique IdentifierGenerators
+	 * @return all the IdentifierGenerator's found in the entitymodel and return a list of unique IdentifierGenerators
 	 * @throws MappingException
 	 */
 	@SuppressWarnings("deprecation")
-	private Iterator<IdentifierGenerator> iterateGenerators() throws MappingException {
+	private synchronized List<IdentifierGenerator> getGenerators() throws MappingException {
+		if(generatorList!=null) {
+			return generatorList;
+		}
 
 		TreeMap<Object, IdentifierGenerator> generators = 
 				new TreeMap<Object, IdentifierGenerator>();
-		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
-		Properties properties = (Properties)builder.getSettings();
-		String defaultCatalog = properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
-		String defaultSchema = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
-
 		Iterator<PersistentClass> persistentClassIterator = getMetadata().getEntityBindings().iterator();
 		while ( persistentClassIterator.hasNext() ) {
 			PersistentClass pc = persistentClassIterator.next();
@@ -271,7 +276,8 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 			}
 		}
 
-		return generators.values().iterator();
+		generatorList = new ArrayList<IdentifierGenerator>(generators.values());
+		return generatorList;
 	}
 
 }
@@ -17,9 +17,18 @@ public class AntlrSimpleHQLLexer implements SimpleHQLLexer {
 
 	private HqlBaseLexer lexer;
 	private Token token;
+	private final int offset;
 
 	public AntlrSimpleHQLLexer(char[] cs, int length) {
-		lexer = new HqlBaseLexer(new CharArrayReader(cs, 0, length)) {
+		this(cs, 0, length);
+	}
+	
+	/**
+	 * Lexes length characters starting at offset. Token offsets are relative to the start of cs.
+	 */
+	public AntlrSimpleHQLLexer(char[] cs, int offset, int length) {
+		this.offset = offset;
+		lexer = new HqlBaseLexer(new CharArrayReader(cs, offset, length)) {
 			public void newline() {
 				//super.newline();
 			}
@@ -39,7 +48,7 @@ public class AntlrSimpleHQLLexer implements SimpleHQLLexer {
 	}
 
 	public int getTokenOffset() {
-		return token.getColumn()-1;
+		return token.getColumn()-1+offset;
 	}
 
 	public int nextTokenId() {
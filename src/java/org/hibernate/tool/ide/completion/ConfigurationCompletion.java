@@ -1,5 +1,7 @@
 package org.hibernate.tool.ide.completion;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -8,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.hibernate.HibernateException;
 import org.hibernate.boot.Metadata;
@@ -30,10 +33,36 @@ import org.hibernate.tool.hbm2x.pojo.EntityPOJOClass;
  */
 class ConfigurationCompletion {
 
+	/** A property together with the name of the entity declaring it */
+	static class EntityProperty {
+		final String entityName;
+		final Property property;
+		
+		EntityProperty(String entityName, Property property) {
+			this.entityName = entityName;
+			this.property = property;
+		}
+	}
+	
 	private final Metadata metadata;
+	
+	/** import name to entity name, built once as the metadata does not change */
+	private final PrefixIndex<Entry<String, String>> importIndex;
+	
+	/** entity name to index of its properties including inherited ones, built on first use */
+	private final Map<String, PrefixIndex<EntityProperty>> propertyIndexes = new ConcurrentHashMap<String, PrefixIndex<EntityProperty>>();
 
 	public ConfigurationCompletion(Metadata md) {
 		this.metadata = md;
+		List<String> names = new ArrayList<String>();
+		List<Entry<String, String>> imports = new ArrayList<Entry<String, String>>();
+		Iterator<Entry<String, String>> iterator = metadata.getImports().entrySet().iterator();
+		while ( iterator.hasNext() ) {
+			Entry<String, String> entry = iterator.next();
+			names.add( entry.getKey() );
+			imports.add( new SimpleImmutableEntry<String, String>( entry ) );
+		}
+		this.importIndex = new PrefixIndex<Entry<String, String>>( names, imports );
 	}
 
 	public void getMatchingImports(String prefix , IHQLCompletionRequestor collector) {
@@ -41,19 +70,16 @@ class ConfigurationCompletion {
 	}
 	
 	public void getMatchingImports(String prefix, int cursorPosition, IHQLCompletionRequestor collector) {
-		Iterator<Entry<String, String>> iterator = metadata.getImports().entrySet().iterator();
+		Iterator<Entry<String, String>> iterator = importIndex.find( prefix ).iterator();
 		while ( iterator.hasNext() ) {
 			Entry<String, String> entry = iterator.next();
-			String entityImport = (String) entry.getKey();
-			String entityName = (String) entry.getValue();
+			String entityImport = entry.getKey();
+			String entityName = entry.getValue();
 			
-			if(entityImport.toLowerCase().startsWith(prefix.toLowerCase())) {
-				HQLCompletionProposal proposal = createStartWithCompletionProposal( prefix, cursorPosition, HQLCompletionProposal.ENTITY_NAME, entityImport );
-				proposal.setShortEntityName( entityImport );
-				proposal.setEntityName( entityName );
-				collector.accept(proposal);				
-								
-			}
+			HQLCompletionProposal proposal = createStartWithCompletionProposal( prefix, cursorPosition, HQLCompletionProposal.ENTITY_NAME, entityImport );
+			proposal.setShortEntityName( entityImport );
+			proposal.setEntityName( entityName );
+			collector.accept(proposal);				
 		}		
 	}
 	
@@ -170,25 +196,40 @@ class ConfigurationCompletion {
             prefix = "";
         }
         
-        // Add superclass's properties too
-        while (cmd != null){
-        	EntityPOJOClass pc = new EntityPOJOClass(cmd, new Cfg2JavaTool()); // TODO: we should extract the needed functionallity from this hbm2java class.
-            
-        	Iterator<Property> allPropertiesIterator = pc.getAllPropertiesIterator();
-            while ( allPropertiesIterator.hasNext() ) {
-    			Property property = allPropertiesIterator.next();
-    			String candidate = property.getName();
-    		    if (prefix.length() == 0 || candidate.toLowerCase().startsWith(prefix.toLowerCase())) {
-    		    	HQLCompletionProposal proposal = createStartWithCompletionProposal( prefix, cursorPosition, HQLCompletionProposal.PROPERTY, candidate );
-    		    	proposal.setEntityName( cmd.getEntityName() );
-    		    	proposal.setProperty( property );
-    		    	proposal.setPropertyName( candidate );		    	
-    				hcc.accept( proposal);		    	                
-                }
-            }
-            cmd = cmd.getSuperclass();
+        Iterator<EntityProperty> properties = getPropertyIndex( cmd ).find( prefix ).iterator();
+        while ( properties.hasNext() ) {
+        	EntityProperty entityProperty = properties.next();
+        	String candidate = entityProperty.property.getName();
+        	HQLCompletionProposal proposal = createStartWithCompletionProposal( prefix, cursorPosition, HQLCompletionProposal.PROPERTY, candidate );
+        	proposal.setEntityName( entityProperty.entityName );
+        	proposal.setProperty( entityProperty.property );
+        	proposal.setPropertyName( candidate );		    	
+        	hcc.accept( proposal);		    	                
         }
-           	
+	}
+
+	private PrefixIndex<EntityProperty> getPropertyIndex(PersistentClass root) {
+		PrefixIndex<EntityProperty> index = propertyIndexes.get( root.getEntityName() );
+		if(index==null) {
+			List<String> names = new ArrayList<String>();
+			List<EntityProperty> entries = new ArrayList<EntityProperty>();
+			// Add superclass's properties too
+			PersistentClass cmd = root;
+			while (cmd != null){
+				EntityPOJOClass pc = new EntityPOJOClass(cmd, new Cfg2JavaTool()); // TODO: we should extract the needed functionallity from this hbm2java class.
+				
+				Iterator<Property> allPropertiesIterator = pc.getAllPropertiesIterator();
+				while ( allPropertiesIterator.hasNext() ) {
+					Property property = allPropertiesIterator.next();
+					names.add( property.getName() );
+					entries.add( new EntityProperty( cmd.getEntityName(), property ) );
+				}
+				cmd = cmd.getSuperclass();
+			}
+			index = new PrefixIndex<EntityProperty>( names, entries );
+			propertyIndexes.put( root.getEntityName(), index );
+		}
+		return index;
 	}
 
 	private HQLCompletionProposal createStartWithCompletionProposal(String prefix, int cursorPosition, int kind, String candidate) {
@@ -97,6 +97,10 @@ public class HQLAnalyzer {
     	return new AntlrSimpleHQLLexer(chars,chars.length);
     }
     
+    protected SimpleHQLLexer getLexer(char chars[], int offset, int length) {
+    	return new AntlrSimpleHQLLexer(chars,offset,length);
+    }
+    
     /**
      * Returns true if the position is at a location where an entityname makes sense.
      * e.g. "from Pr| where x" 
@@ -14,6 +14,9 @@ public class HQLCodeAssist implements IHQLCodeAssist {
 	private ConfigurationCompletion completion;
 	private Metadata metadata;
 	
+	/** kept between calls so only the edited part of the query is analyzed again */
+	private final IncrementalHQLAnalyzer analyzer = new IncrementalHQLAnalyzer();
+	
 	private static final char[] charSeparators;	
 	static {
 		charSeparators = new char[]{',', '(', ')'};
@@ -33,7 +36,7 @@ public class HQLCodeAssist implements IHQLCodeAssist {
 		
 		boolean showEntityNames;
 		try {
-			showEntityNames = new HQLAnalyzer().shouldShowEntityNames( query, position );
+			showEntityNames = analyzer.shouldShowEntityNames( query, position );
 		
 		if(showEntityNames) {
 			if(hasConfiguration()) {
@@ -42,7 +45,7 @@ public class HQLCodeAssist implements IHQLCodeAssist {
 				collector.completionFailure("Configuration not available nor open");
 			}
 		} else {
-			List<EntityNameReference> visible = new HQLAnalyzer().getVisibleEntityNames( query.toCharArray(), position );
+			List<EntityNameReference> visible = analyzer.getVisibleEntityNames( query.toCharArray(), position );
 			int dotIndex = prefix.lastIndexOf(".");
             if (dotIndex == -1) {
                 // It's a simple path, not a dot separated one (find aliases that matches)
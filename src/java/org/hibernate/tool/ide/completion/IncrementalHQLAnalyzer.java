@@ -0,0 +1,301 @@
+package org.hibernate.tool.ide.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.hql.internal.antlr.HqlSqlTokenTypes;
+
+/**
+ * HQLAnalyzer meant to be kept around while a query is being edited.
+ *
+ * The tokens of the previous query are remembered. When asked about a new
+ * version of the query only the region between the common prefix and common
+ * suffix of the two versions is lexed again; lexing stops as soon as it
+ * produces a token already known (shifted) from the previous version.
+ * The subqueries are computed once per version of the query and reused for
+ * every cursor position.
+ *
+ * Instances are not meant to be shared between editors, but are safe to use
+ * from several threads.
+ */
+public class IncrementalHQLAnalyzer extends HQLAnalyzer {
+
+	/** tokens kept before the edit are re-lexed if they are this close to it, as the lexer looks ahead */
+	private static final int LOOKAHEAD_TOKENS = 1;
+
+	private static final class LexedToken {
+		final int id;
+		final int offset;
+		final int length;
+		final String text;
+
+		LexedToken(int id, int offset, int length, String text) {
+			this.id = id;
+			this.offset = offset;
+			this.length = length;
+			this.text = text;
+		}
+
+		int end() {
+			return offset + length;
+		}
+
+		LexedToken shift(int delta) {
+			return delta==0 ? this : new LexedToken(id, offset + delta, length, text);
+		}
+	}
+
+	/** Replays tokens, optionally followed by tokens from another lexer. */
+	private static final class ReplayLexer implements SimpleHQLLexer {
+		private final List<LexedToken> tokens;
+		private final SimpleHQLLexer tail;
+		private final LexedToken eof;
+		private int index = -1;
+		private boolean inTail = false;
+
+		ReplayLexer(List<LexedToken> tokens, SimpleHQLLexer tail, LexedToken eof) {
+			this.tokens = tokens;
+			this.tail = tail;
+			this.eof = eof;
+		}
+
+		public int nextTokenId() throws SimpleLexerException {
+			if(!inTail) {
+				index++;
+				if(index < tokens.size()) {
+					return tokens.get(index).id;
+				}
+				inTail = tail!=null;
+				if(!inTail) {
+					return eof.id;
+				}
+			}
+			return tail.nextTokenId();
+		}
+
+		public int getTokenOffset() {
+			if(inTail) return tail.getTokenOffset();
+			return index < tokens.size() ? tokens.get(index).offset : eof.offset;
+		}
+
+		public int getTokenLength() {
+			if(inTail) return tail.getTokenLength();
+			return index < tokens.size() ? tokens.get(index).length : eof.length;
+		}
+	}
+
+	private char[] text;
+
+	private List<LexedToken> tokens;
+
+	private LexedToken eof;
+
+	private List<SubQuery> subQueries;
+
+	private int[] parenOffsets;
+
+	private int[] depthAfterParen;
+
+	private int lexedTokenCount;
+
+	public synchronized boolean shouldShowEntityNames(char[] chars, int cursorPosition) {
+		return super.shouldShowEntityNames(chars, cursorPosition);
+	}
+
+	public synchronized List<SubQuery> getVisibleSubQueries(char[] chars, int position) {
+		return super.getVisibleSubQueries(chars, position);
+	}
+
+	public synchronized List<EntityNameReference> getVisibleEntityNames(char[] chars, int position) {
+		return super.getVisibleEntityNames(chars, position);
+	}
+
+	protected synchronized SubQueryList getSubQueries(char[] query, int position) {
+		update(query);
+		if(subQueries==null) {
+			subQueries = Collections.unmodifiableList(super.getSubQueries(query, position).subQueries);
+		}
+		SubQueryList sql = new SubQueryList();
+		sql.caretDepth = getCaretDepth(position);
+		sql.subQueries = subQueries;
+		return sql;
+	}
+
+	/** Replays the cached tokens of the whole query. */
+	protected SimpleHQLLexer getLexer(char[] chars) {
+		update(chars);
+		return new ReplayLexer(tokens, null, eof);
+	}
+
+	/** Replays the cached tokens up to end, the token end is in is lexed again up to end. */
+	protected SimpleHQLLexer getLexer(char[] chars, int end) {
+		try {
+			update(chars);
+		}
+		catch (SimpleLexerException e) {
+			// the error may be after end, where it should not matter
+			return super.getLexer(chars, end);
+		}
+		int count = 0;
+		while (count < tokens.size() && tokens.get(count).end() <= end) {
+			count++;
+		}
+		SimpleHQLLexer tail = null;
+		if(count < tokens.size() && tokens.get(count).offset < end) {
+			int offset = tokens.get(count).offset;
+			tail = getLexer(chars, offset, end - offset);
+		}
+		return new ReplayLexer(tokens.subList(0, count), tail, new LexedToken(HqlSqlTokenTypes.EOF, end, 0, null));
+	}
+
+	/**
+	 * Brings the cached tokens up to date with the given query.
+	 */
+	public synchronized void update(char[] chars) {
+		if(text!=null && Arrays.equals(text, chars)) {
+			return;
+		}
+		List<LexedToken> previous = tokens==null ? Collections.<LexedToken>emptyList() : tokens;
+		int oldLength = text==null ? 0 : text.length;
+
+		// the edited region is what is left between the common prefix and suffix
+		int prefix = 0;
+		int max = Math.min(oldLength, chars.length);
+		while (prefix < max && text[prefix]==chars[prefix]) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < oldLength - prefix && suffix < chars.length - prefix
+				&& text[oldLength - 1 - suffix]==chars[chars.length - 1 - suffix]) {
+			suffix++;
+		}
+		int oldEditEnd = oldLength - suffix;
+		int newEditEnd = chars.length - suffix;
+		int delta = chars.length - oldLength;
+
+		int keep = 0;
+		while (keep < previous.size() && previous.get(keep).end() < prefix) {
+			keep++;
+		}
+		keep = Math.max(0, keep - LOOKAHEAD_TOKENS);
+		// the lexer stopped right after the last kept token, so it can continue from there
+		int restart = keep==0 ? 0 : previous.get(keep - 1).end();
+
+		int reuse = keep;
+		while (reuse < previous.size() && previous.get(reuse).offset < oldEditEnd) {
+			reuse++;
+		}
+
+		List<LexedToken> result = new ArrayList<LexedToken>(previous.size() + 16);
+		result.addAll(previous.subList(0, keep));
+		LexedToken newEof = null;
+		int lexed = 0;
+		try {
+			SimpleHQLLexer lexer = getLexer(chars, restart, chars.length - restart);
+			int id;
+			while ((id = lexer.nextTokenId()) != HqlSqlTokenTypes.EOF) {
+				int offset = lexer.getTokenOffset();
+				int length = lexer.getTokenLength();
+				lexed++;
+				if(offset >= newEditEnd) {
+					while (reuse < previous.size() && previous.get(reuse).offset + delta < offset) {
+						reuse++;
+					}
+					if(reuse < previous.size()) {
+						LexedToken old = previous.get(reuse);
+						if(old.offset + delta==offset && old.id==id && old.length==length) {
+							// back in sync, the rest of the query lexes as before
+							for (int i = reuse; i < previous.size(); i++) {
+								result.add(previous.get(i).shift(delta));
+							}
+							newEof = eof.shift(delta);
+							break;
+						}
+					}
+				}
+				result.add(new LexedToken(id, offset, length, String.valueOf(chars, offset, length)));
+			}
+			if(newEof==null) {
+				newEof = new LexedToken(HqlSqlTokenTypes.EOF, lexer.getTokenOffset(), lexer.getTokenLength(), null);
+			}
+		}
+		catch (SimpleLexerException e) {
+			text = null;
+			tokens = null;
+			eof = null;
+			subQueries = null;
+			throw e;
+		}
+
+		text = chars.clone();
+		tokens = result;
+		eof = newEof;
+		subQueries = null;
+		lexedTokenCount = lexed;
+		indexParentheses();
+	}
+
+	/**
+	 * @return number of tokens the lexer produced during the last update that changed the query
+	 */
+	public synchronized int getLexedTokenCount() {
+		return lexedTokenCount;
+	}
+
+	/**
+	 * @return the text of the tokens of the current query
+	 */
+	public synchronized List<String> getTokenTexts() {
+		List<String> result = new ArrayList<String>(tokens==null ? 0 : tokens.size());
+		if(tokens!=null) {
+			for (int i = 0; i < tokens.size(); i++) {
+				result.add(tokens.get(i).text);
+			}
+		}
+		return result;
+	}
+
+	private void indexParentheses() {
+		int count = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			int id = tokens.get(i).id;
+			if(id==HqlSqlTokenTypes.OPEN || id==HqlSqlTokenTypes.CLOSE) {
+				count++;
+			}
+		}
+		parenOffsets = new int[count];
+		depthAfterParen = new int[count];
+		int depth = 0;
+		int j = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			LexedToken token = tokens.get(i);
+			if(token.id==HqlSqlTokenTypes.OPEN) {
+				depth++;
+			} else if(token.id==HqlSqlTokenTypes.CLOSE) {
+				depth--;
+			} else {
+				continue;
+			}
+			parenOffsets[j] = token.offset;
+			depthAfterParen[j] = depth;
+			j++;
+		}
+	}
+
+	/** depth after the last parenthesis before position, same as HQLAnalyzer.getSubQueries computes */
+	private int getCaretDepth(int position) {
+		int low = 0;
+		int high = parenOffsets.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if(parenOffsets[mid] < position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low==0 ? 0 : depthAfterParen[low - 1];
+	}
+}
@@ -0,0 +1,74 @@
+package org.hibernate.tool.ide.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable case insensitive prefix index. Names are kept in a sorted array so
+ * a lookup is a binary search for the first match followed by a scan over the
+ * matching range.
+ * package protected for now - not meant to be used externally.
+ */
+class PrefixIndex<T> {
+
+	private final String[] keys;
+	private final List<T> values;
+
+	PrefixIndex(List<String> names, List<T> entries) {
+		final String[] lowerCased = new String[names.size()];
+		Integer[] order = new Integer[names.size()];
+		for (int i = 0; i < lowerCased.length; i++) {
+			lowerCased[i] = names.get(i).toLowerCase();
+			order[i] = Integer.valueOf(i);
+		}
+		// stable sort keeps the original order of names that only differ in case
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer o1, Integer o2) {
+				return lowerCased[o1.intValue()].compareTo(lowerCased[o2.intValue()]);
+			}
+		});
+		keys = new String[order.length];
+		values = new ArrayList<T>(order.length);
+		for (int i = 0; i < order.length; i++) {
+			keys[i] = lowerCased[order[i].intValue()];
+			values.add(entries.get(order[i].intValue()));
+		}
+	}
+
+	/**
+	 * @return the entries whose name starts with prefix ignoring case, in name order
+	 */
+	List<T> find(String prefix) {
+		if(prefix==null || prefix.length()==0) {
+			return Collections.unmodifiableList(values);
+		}
+		String key = prefix.toLowerCase();
+		int from = lowerBound(key);
+		int to = from;
+		while (to < keys.length && keys[to].startsWith(key)) {
+			to++;
+		}
+		return Collections.unmodifiableList(values.subList(from, to));
+	}
+
+	int size() {
+		return keys.length;
+	}
+
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if(keys[mid].compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
@@ -41,21 +41,17 @@ public class JavaFormatter {
 	 * @return
 	 */
 	public boolean formatFile(File file) throws ExporterException {
-		IDocument doc = new Document();
 		try {
 			String contents = new String(org.eclipse.jdt.internal.compiler.util.Util.getFileCharContent(file, null));
-			doc.set(contents);
-			TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, contents, 0, contents.length(), 0, null);
-			if (edit != null) {
-				edit.apply(doc);
-			} else {				
+			String formatted = format(contents);
+			if (formatted == null) {
 				return false; // most likely syntax errror
 			}
 
 			// write the file
 			final BufferedWriter out = new BufferedWriter(new FileWriter(file));
 			try {
-				out.write(doc.get());
+				out.write(formatted);
 				out.flush();
 			} finally {
 				try {
@@ -67,9 +63,27 @@ public class JavaFormatter {
 			return true;
 		} catch (IOException e) {
 			throw new ExporterException("Could not format " + file, e);
+		} catch (ExporterException e) {
+			throw new ExporterException("Could not format " + file, e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the formatted source or null if the formatting could not finish because of errors in the input.
+	 */
+	public String format(String contents) throws ExporterException {
+		IDocument doc = new Document();
+		doc.set(contents);
+		TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, contents, 0, contents.length(), 0, null);
+		if (edit == null) {
+			return null;
+		}
+		try {
+			edit.apply(doc);
 		} catch (BadLocationException e) {			
-			throw new ExporterException("Could not format " + file, e);
+			throw new ExporterException("Could not format source", e);
 		}
+		return doc.get();
 	}
 
 }
@@ -0,0 +1,229 @@
+package org.hibernate.tool.ide.formatting;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.tool.hbm2x.ExporterException;
+import org.hibernate.tool.util.DigestHelper;
+
+/**
+ * Formats java files on a bounded thread pool. A CodeFormatter is not thread safe,
+ * thus every thread works with its own {@link JavaFormatter} created from the same settings.
+ * 
+ * If a hash file is set, the hash of every file is recorded after formatting and files
+ * which have not changed since are skipped the next time. The hash file also records a hash
+ * of the formatter settings; when the settings differ all files are formatted again.
+ */
+public class ParallelJavaFormatter {
+
+	/** the file was formatted and written */
+	public static final int FORMATTED = 0;
+	/** the file was not touched since it was last formatted */
+	public static final int UNCHANGED = 1;
+	/** the formatter could not finish, most likely because of syntax errors */
+	public static final int FAILED = 2;
+	/** the file could not be read or written */
+	public static final int ERROR = 3;
+	
+	/** Outcome of formatting one file. */
+	public static final class Result {
+		private final File file;
+		private final int status;
+		private final long millis;
+		private final ExporterException error;
+		
+		Result(File file, int status, long millis, ExporterException error) {
+			this.file = file;
+			this.status = status;
+			this.millis = millis;
+			this.error = error;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		/** time spent on the file in milliseconds */
+		public long getMillis() {
+			return millis;
+		}
+
+		public ExporterException getError() {
+			return error;
+		}
+	}
+	
+	private final Map<Object, Object> settings;
+	private final int threads;
+	private final ThreadLocal<JavaFormatter> formatters = new ThreadLocal<JavaFormatter>() {
+		protected JavaFormatter initialValue() {
+			return new JavaFormatter(settings==null ? null : new HashMap<Object, Object>(settings));
+		}
+	};
+	
+	/** key of the settings hash in the hash file, the other keys are absolute paths */
+	static final String SETTINGS_KEY = "@settings";
+	
+	private File hashFile;
+	// path -> hash of the content as left by the last formatting
+	private final Properties hashes = new Properties();
+	
+	public ParallelJavaFormatter(Map<Object, Object> settings, int threads) {
+		this.settings = settings;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Reads the hashes recorded by a previous run from the file and enables skipping of unchanged files.
+	 * Hashes recorded with other settings are dropped.
+	 */
+	public void setHashFile(File hashFile) throws IOException {
+		this.hashFile = hashFile;
+		hashes.clear();
+		if(hashFile!=null && hashFile.exists()) {
+			InputStream in = new FileInputStream(hashFile);
+			try {
+				hashes.load(in);
+			} finally {
+				in.close();
+			}
+		}
+		String settingsHash = hashSettings();
+		if(!settingsHash.equals(hashes.getProperty(SETTINGS_KEY))) {
+			// files formatted with other settings are not up to date
+			hashes.clear();
+			hashes.setProperty(SETTINGS_KEY, settingsHash);
+		}
+	}
+
+	private String hashSettings() {
+		StringBuffer buf = new StringBuffer();
+		if(settings==null) {
+			buf.append("defaults"); // not the same as no settings at all
+		} 
+		else {
+			Map<String, Object> sorted = new TreeMap<String, Object>();
+			for (Iterator<Map.Entry<Object, Object>> iter = settings.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<Object, Object> entry = iter.next();
+				sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+			}
+			for (Iterator<Map.Entry<String, Object>> iter = sorted.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, Object> entry = iter.next();
+				buf.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+			}
+		}
+		return DigestHelper.hash(buf.toString());
+	}
+
+	/**
+	 * Writes the hashes of the formatted files to the hash file, if any.
+	 */
+	public void storeHashes() throws IOException {
+		if(hashFile==null) {
+			return;
+		}
+		File parent = hashFile.getAbsoluteFile().getParentFile();
+		if(parent!=null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		OutputStream out = new FileOutputStream(hashFile);
+		try {
+			hashes.store(out, "Hashes of formatted java files");
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Formats the files and returns the results in the order of the given files.
+	 */
+	public List<Result> formatFiles(File[] files) {
+		List<Result> results = new ArrayList<Result>(files.length);
+		if(threads==1 || files.length<2) {
+			for (int i = 0; i < files.length; i++) {
+				results.add(formatFile(files[i]));
+			}
+			return results;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.length));
+		try {
+			List<Future<Result>> futures = new ArrayList<Future<Result>>(files.length);
+			for (int i = 0; i < files.length; i++) {
+				final File file = files[i];
+				futures.add(executor.submit(new Callable<Result>() {
+					public Result call() {
+						return formatFile(file);
+					}
+				}));
+			}
+			for (Iterator<Future<Result>> iter = futures.iterator(); iter.hasNext();) {
+				results.add(iter.next().get());
+			}
+			return results;
+		}
+		catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new ExporterException("Java formatting failed", e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExporterException("Interrupted while formatting", e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	Result formatFile(File file) {
+		long start = System.nanoTime();
+		String key = file.getAbsolutePath();
+		try {
+			if(hashFile!=null && hashes.containsKey(key) && hashes.getProperty(key).equals(DigestHelper.hash(file))) {
+				return new Result(file, UNCHANGED, elapsed(start), null);
+			}
+			if(!formatters.get().formatFile(file)) {
+				hashes.remove(key);
+				return new Result(file, FAILED, elapsed(start), null);
+			}
+			if(hashFile!=null) {
+				hashes.setProperty(key, DigestHelper.hash(file));
+			}
+			return new Result(file, FORMATTED, elapsed(start), null);
+		}
+		catch (ExporterException e) {
+			hashes.remove(key);
+			return new Result(file, ERROR, elapsed(start), e);
+		}
+		catch (IOException e) {
+			hashes.remove(key);
+			return new Result(file, ERROR, elapsed(start), new ExporterException("Could not format " + file, e));
+		}
+	}
+
+	private static long elapsed(long start) {
+		return (System.nanoTime() - start) / 1000000;
+	}
+}
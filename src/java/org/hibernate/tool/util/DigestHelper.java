@@ -0,0 +1,62 @@
+package org.hibernate.tool.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.hibernate.HibernateException;
+
+/**
+ * MD5 hashes as hex strings, used to recognize unchanged files and schema elements between runs.
+ */
+public class DigestHelper {
+
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new HibernateException("MD5 digest not available", e);
+		}
+	}
+
+	public static String toHex(byte[] hash) {
+		StringBuffer hex = new StringBuffer(hash.length * 2);
+		for (int i = 0; i < hash.length; i++) {
+			String b = Integer.toHexString(hash[i] & 0xff);
+			if(b.length()==1) hex.append('0');
+			hex.append(b);
+		}
+		return hex.toString();
+	}
+
+	public static String hash(String value) {
+		try {
+			return toHex(newDigest().digest(value.getBytes("UTF-8")));
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new HibernateException("UTF-8 encoding not available", e);
+		}
+	}
+
+	public static String hash(File file) throws IOException {
+		MessageDigest digest = newDigest();
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		finally {
+			in.close();
+		}
+		return toHex(digest.digest());
+	}
+
+}
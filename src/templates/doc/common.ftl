@@ -32,4 +32,15 @@
 		 --></a><#--
 	 --></li><#--
  --></#if>
-</#macro>
\ No newline at end of file
+</#macro>
+
+<#-- links to the neighbouring pages of a list split by doc.pagesize -->
+<#macro pageLinks>
+	<#if pageCount??>
+		<p class="ListPages">
+			<#if previousPage??><a href="${docFileManager.getRef(docFile, previousPage)}">&laquo; Previous</a></#if>
+			Page ${page} of ${pageCount}
+			<#if nextPage??><a href="${docFileManager.getRef(docFile, nextPage)}">Next &raquo;</a></#if>
+		</p>
+	</#if>
+</#macro>
@@ -1,3 +1,4 @@
+<#import "/doc/common.ftl" as common>
 <!DOCTYPE html PUBLIC "-//W3C//DTD XHTML 1.0 Transitional//EN" "http://www.w3.org/TR/xhtml1/DTD/xhtml1-transitional.dtd">
 
 <html>
@@ -17,5 +18,7 @@
 			</#foreach>
 		</p>
 
+		<@common.pageLinks/>
+
 	</body>
 </html>
@@ -9,6 +9,7 @@ import org.hibernate.cfg.reveng.dialect.HSQLMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.JDBCMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.MySQLMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.OracleMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.PostgreSQLMetaDataDialect;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.dialect.H2Dialect;
 import org.hibernate.dialect.HSQLDialect;
@@ -17,6 +18,8 @@ import org.hibernate.dialect.MySQL5InnoDBDialect;
 import org.hibernate.dialect.Oracle10gDialect;
 import org.hibernate.dialect.Oracle8iDialect;
 import org.hibernate.dialect.Oracle9iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.PostgreSQL82Dialect;
 
 import junit.framework.TestCase;
 
@@ -54,6 +57,18 @@ public class MetaDataDialectFactoryTest extends TestCase {
 				"property should override specific dialect", 
 				H2MetaDataDialect.class, 
 				MetaDataDialectFactory.createMetaDataDialect(new MySQL5Dialect(), p));			
+		assertSameClass(
+				"PostgreSQL is read through the driver unless asked otherwise", 
+				JDBCMetaDataDialect.class, 
+				MetaDataDialectFactory.createMetaDataDialect(
+						new PostgreSQL82Dialect(), 
+						new Properties()));
+		p.setProperty(
+				"hibernatetool.metadatadialect", 
+				PostgreSQLMetaDataDialect.class.getName());
+		assertSameClass(
+				PostgreSQLMetaDataDialect.class, 
+				MetaDataDialectFactory.createMetaDataDialect(new PostgreSQL82Dialect(), p));
 	}
 
 	public void testCreateMetaDataDialectNonExistingOverride(Properties p) {
@@ -91,6 +106,12 @@ public class MetaDataDialectFactoryTest extends TestCase {
 		assertSameClass(
 				HSQLMetaDataDialect.class,
 				MetaDataDialectFactory.fromDialect(new HSQLDialect()));
+		assertSameClass(
+				null,
+				MetaDataDialectFactory.fromDialect(new PostgreSQL81Dialect()));
+		assertSameClass(
+				null,
+				MetaDataDialectFactory.fromDialect(new PostgreSQL82Dialect()));
 		
 	}
 
@@ -116,6 +137,9 @@ public class MetaDataDialectFactoryTest extends TestCase {
 		assertSameClass(
 				HSQLMetaDataDialect.class, 
 				MetaDataDialectFactory.fromDialectName(HSQLDialect.class.getName()));
+		assertSameClass(
+				null, 
+				MetaDataDialectFactory.fromDialectName("org.hibernate.dialect.PostgresPlusDialect"));
 		
 	}
 
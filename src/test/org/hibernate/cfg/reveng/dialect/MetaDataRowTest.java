@@ -0,0 +1,85 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.cfg.reveng.NamePool;
+
+import junit.framework.TestCase;
+
+public class MetaDataRowTest extends TestCase {
+
+	public void testTypedAndMapAccess() {
+		MetaDataRow row = new MetaDataRow(MetaDataRow.COLUMNS);
+		row.setString(MetaDataRow.TABLE_NAME, "ORDERS");
+		row.setString(MetaDataRow.COLUMN_NAME, "ID");
+		row.setInt(MetaDataRow.DATA_TYPE, 4);
+
+		assertEquals("ORDERS", row.get("TABLE_NAME"));
+		assertEquals(Integer.valueOf(4), row.get("DATA_TYPE"));
+		assertNull("numbers not set are null through the map", row.get("NULLABLE"));
+		assertTrue(row.isNull(MetaDataRow.NULLABLE));
+		assertEquals(0, row.getInt(MetaDataRow.NULLABLE));
+		assertTrue(row.containsKey("REMARKS"));
+
+		row.put("NULLABLE", Integer.valueOf(1));
+		row.put("HIBERNATE_STRATEGY", "identity");
+		assertEquals(1, row.getInt(MetaDataRow.NULLABLE));
+		assertEquals("identity", row.get("HIBERNATE_STRATEGY"));
+		assertEquals(MetaDataRow.COLUMNS.size() + 1, row.size());
+
+		Map<String, Object> copy = new HashMap<String, Object>(row);
+		assertEquals(copy, row);
+		assertEquals(row, copy);
+	}
+
+	public void testMapValuesKeepTheirTypes() {
+		MetaDataRow row = new MetaDataRow(MetaDataRow.INDEX_INFO);
+		row.setBoolean(MetaDataRow.NON_UNIQUE, true);
+		row.setInt(MetaDataRow.TYPE, 3);
+		assertEquals(Boolean.TRUE, row.get("NON_UNIQUE"));
+		assertEquals(Short.valueOf((short) 3), row.get("TYPE"));
+	}
+
+	public void testCopyIsNotAffectedByReuse() {
+		MetaDataRow row = new MetaDataRow(MetaDataRow.PRIMARY_KEYS);
+		row.setString(MetaDataRow.COLUMN_NAME, "A");
+		row.setInt(MetaDataRow.KEY_SEQ, 1);
+		Map<String, Object> copy = MetaDataRow.copyOf(row);
+
+		row.clear();
+		row.setString(MetaDataRow.COLUMN_NAME, "B");
+		assertEquals("A", copy.get("COLUMN_NAME"));
+		assertEquals(Short.valueOf((short) 1), copy.get("KEY_SEQ"));
+		assertNull(row.get("KEY_SEQ"));
+	}
+
+	public void testWrapPlainMap() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("FKTABLE_NAME", "CHILD");
+		map.put("KEY_SEQ", Short.valueOf((short) 2));
+		MetaDataRow row = new MetaDataRow(MetaDataRow.EXPORTED_KEYS);
+		MetaDataRow wrapped = row.wrap(map);
+		assertSame(row, wrapped);
+		assertEquals("CHILD", wrapped.getString(MetaDataRow.FKTABLE_NAME));
+		assertEquals(2, wrapped.getShort(MetaDataRow.KEY_SEQ));
+
+		MetaDataRow other = new MetaDataRow(MetaDataRow.EXPORTED_KEYS);
+		assertSame("rows of the same layout are used as is", wrapped, other.wrap(wrapped));
+	}
+
+	public void testNamesAreShared() {
+		NamePool names = new NamePool();
+		MetaDataRow row = new MetaDataRow(MetaDataRow.COLUMNS, names);
+		row.setString(MetaDataRow.TABLE_NAME, new String("ORDERS"));
+		Map<String, Object> first = MetaDataRow.copyOf(row);
+		row.put("TABLE_NAME", new String("ORDERS"));
+		row.put("REMARKS", new String("the orders"));
+		Map<String, Object> second = MetaDataRow.copyOf(row);
+
+		assertSame(first.get("TABLE_NAME"), second.get("TABLE_NAME"));
+		assertEquals("remarks are not names", 1, names.size());
+		assertNull(names.intern(null));
+	}
+
+}
@@ -5,12 +5,14 @@
 package org.hibernate.tool.ant;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.hibernate.tool.ide.formatting.JavaFormatter;
+import org.hibernate.tool.ide.formatting.ParallelJavaFormatter;
 
 /**
  * @author max
@@ -127,6 +129,50 @@ public class JavaFormatterTest extends BuildFileTestCase {
 	}
 	
 	
+	public void testSkipUnchangedFiles() {
+		
+		executeTarget("prepare");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		
+		File file = new File(project.getProperty( "build.dir" ), "formatting/SimpleOne.java");
+		long before = file.lastModified();
+		waitASec();
+		executeTarget("hashtest");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		assertTrue( before<file.lastModified() );
+		assertTrue( new File(project.getProperty( "build.dir" ), "formatting.hashes").exists() );
+		
+		long formatted = file.lastModified();
+		waitASec();
+		executeTarget("hashtest");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		assertEquals("unchanged file should not be formatted again", formatted, file.lastModified() );
+	}
+	
+	public void testChangedSettingsFormatAgain() throws IOException {
+		
+		executeTarget("prepare");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		
+		File file = new File(project.getProperty( "build.dir" ), "formatting/SimpleOne.java");
+		File hashFile = new File(project.getProperty( "build.dir" ), "settings.hashes");
+		assertEquals(ParallelJavaFormatter.FORMATTED, format(null, hashFile, file));
+		assertEquals(ParallelJavaFormatter.UNCHANGED, format(null, hashFile, file));
+		
+		HashMap<Object, Object> settings = new HashMap<Object, Object>();
+		settings.put("org.eclipse.jdt.core.formatter.tabulation.char", "space");
+		assertTrue("files formatted with other settings are not up to date", 
+				ParallelJavaFormatter.UNCHANGED!=format(settings, hashFile, file));
+	}
+
+	private int format(HashMap<Object, Object> settings, File hashFile, File file) throws IOException {
+		ParallelJavaFormatter formatter = new ParallelJavaFormatter(settings, 1);
+		formatter.setHashFile(hashFile);
+		int status = formatter.formatFiles(new File[] { file }).get(0).getStatus();
+		formatter.storeHashes();
+		return status;
+	}
+	
 	public static Test suite() {
 		return new TestSuite(JavaFormatterTest.class);
 	}
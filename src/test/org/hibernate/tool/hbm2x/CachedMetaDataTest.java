@@ -4,6 +4,7 @@
  */
 package org.hibernate.tool.hbm2x;
 
+import java.io.File;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
@@ -18,7 +19,9 @@ import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
 import org.hibernate.cfg.reveng.dialect.CachedMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.LastDDLTimeProbe;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.SnapshotMetaDataDialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.mapping.Table;
 import org.hibernate.service.ServiceRegistry;
@@ -119,6 +122,19 @@ public class CachedMetaDataTest extends JDBCMetaDataBinderTestCase {
 		
 	}
 	
+	public class ProbingMetaDataDialect extends MockedMetaDataDialect implements LastDDLTimeProbe {
+
+		Long lastDDLTime;
+
+		public ProbingMetaDataDialect(MetaDataDialect realMetaData) {
+			super(realMetaData);
+		}
+
+		public Long getLastDDLTime() {
+			return lastDDLTime;
+		}
+	}
+	
 	public void testCachedDialect() {
 		
 		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
@@ -150,6 +166,91 @@ public class CachedMetaDataTest extends JDBCMetaDataBinderTestCase {
 		
 		
 		
+	}
+
+	public void testSnapshotDialect() {
+		
+		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
+		ServiceRegistry serviceRegistry = builder.build();
+		
+		Properties properties = cfg.getProperties();
+
+		MetaDataDialect realMetaData = MetaDataDialectFactory.createMetaDataDialect( serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties() );
+		
+		File file = new File(getOutputDir(), "metadata.snapshot");
+		MockedMetaDataDialect mock = new MockedMetaDataDialect(realMetaData);
+		SnapshotMetaDataDialect dialect = new SnapshotMetaDataDialect(mock, file, "testdb", 0);
+		
+		JDBCReader reader = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema( dc, null, null );
+		validate( dc );
+		assertFileAndExists( file );
+		
+		// a new dialect instance must be able to work from the snapshot only
+		mock.setFailOnDelegateAccess(true);
+		dialect = new SnapshotMetaDataDialect(mock, file, "testdb", 0);
+		reader = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+		dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema( dc, null, null );
+		validate( dc );
+		
+		// a snapshot from another database is not used
+		dialect = new SnapshotMetaDataDialect(mock, file, "otherdb", 0);
+		reader = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+		dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		try {
+			reader.readDatabaseSchema( dc, null, null );
+			fail("Snapshot for another database should not be used");
+		} catch(IllegalStateException e) {
+			// expected, delegate is not accessible
+		}
+	}
+
+	public void testExpiredSnapshotIsNotUsed() throws InterruptedException {
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().build();
+		MockedMetaDataDialect mock = new MockedMetaDataDialect(MetaDataDialectFactory.createMetaDataDialect( serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties() ));
+		File file = new File(getOutputDir(), "expiring.snapshot");
+		file.delete();
+		
+		readSchema( new SnapshotMetaDataDialect(mock, file, "testdb", 60000), serviceRegistry );
+		mock.setFailOnDelegateAccess(true);
+		readSchema( new SnapshotMetaDataDialect(mock, file, "testdb", 60000), serviceRegistry );
+		
+		Thread.sleep(10);
+		try {
+			readSchema( new SnapshotMetaDataDialect(mock, file, "testdb", 1), serviceRegistry );
+			fail("Expired snapshot should not be used");
+		} catch(IllegalStateException e) {
+			// expected, delegate is not accessible
+		}
+	}
+
+	public void testSnapshotIsNotUsedAfterDDLChange() {
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().build();
+		ProbingMetaDataDialect probe = new ProbingMetaDataDialect(MetaDataDialectFactory.createMetaDataDialect( serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties() ));
+		File file = new File(getOutputDir(), "probed.snapshot");
+		file.delete();
+		
+		probe.lastDDLTime = Long.valueOf(1000);
+		readSchema( new SnapshotMetaDataDialect(probe, file, "testdb", 0), serviceRegistry );
+		probe.setFailOnDelegateAccess(true);
+		readSchema( new SnapshotMetaDataDialect(probe, file, "testdb", 0), serviceRegistry );
+		
+		probe.lastDDLTime = Long.valueOf(2000);
+		try {
+			readSchema( new SnapshotMetaDataDialect(probe, file, "testdb", 0), serviceRegistry );
+			fail("Snapshot taken before the last DDL change should not be used");
+		} catch(IllegalStateException e) {
+			// expected, delegate is not accessible
+		}
+	}
+
+	private void readSchema(MetaDataDialect dialect, ServiceRegistry serviceRegistry) {
+		JDBCReader reader = JDBCReaderFactory.newJDBCReader( cfg.getProperties(), new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema( dc, null, null );
+		validate( dc );
 	}
 
 	private void validate(DatabaseCollector dc) {
@@ -3,10 +3,16 @@ package org.hibernate.tool.hbm2x;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Properties;
 
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
 import org.hibernate.tool.NonReflectiveTestCase;
+import org.hibernate.tool.hbm2x.doc.DocHelper;
 import org.w3c.tidy.Tidy;
 
 public class DocExporterTest extends NonReflectiveTestCase {
@@ -35,9 +41,14 @@ public class DocExporterTest extends NonReflectiveTestCase {
 	}
 	protected void setUp() throws Exception {
 		super.setUp();
-		DocExporter exporter = new DocExporter(getCfg(), getOutputDir() );
+		export( getOutputDir(), "1" );
+	}
+
+	private void export(File outputDir, String threads) {
+		DocExporter exporter = new DocExporter(getCfg(), outputDir );
 		Properties properties = new Properties();
 		properties.put( "jdk5", "true"); // test generics
+		properties.put( ExporterSettings.THREADS, threads );
 		if(File.pathSeparator.equals(";")) { // to work around windows/jvm not seeming to respect executing just "dot"
 			properties.put("dot.executable", System.getProperties().getProperty("dot.executable","dot.exe"));
 		} else {
@@ -118,6 +129,145 @@ public class DocExporterTest extends NonReflectiveTestCase {
 		assertNotNull("Missing inherited property", findFirstString("firstName", entityFile));
 	}
 
+	public void testParallelOutputIsIdentical() {
+		final File parallelDir = new File(getOutputDir(), "parallel");
+		export( parallelDir, "4" );
+		final int[] compared = new int[1];
+		new FileVisitor() {
+			protected void process(File file) {
+				if(file.isFile() && file.getName().endsWith( ".html" ) && !file.getPath().startsWith( parallelDir.getPath() )) {
+					String relative = file.getPath().substring( getOutputDir().getPath().length() );
+					File parallel = new File(parallelDir, relative);
+					assertFileAndExists( parallel );
+					try {
+						assertTrue(relative + " differs", Arrays.equals( Files.readAllBytes(file.toPath()), Files.readAllBytes(parallel.toPath()) ) );
+					}
+					catch (IOException e) {
+						fail(e.getMessage());
+					}
+					compared[0]++;
+				}
+			}
+		}.visit( getOutputDir() );
+		assertTrue(compared[0] > 10);
+	}
+
+	public void testUnchangedGraphsAreNotRendered() throws IOException {
+		if(File.pathSeparator.equals(";")) {
+			return; // the fake dot is a shell script
+		}
+		File fakeDot = new File(getOutputDir(), "fakedot/dot.sh");
+		File invocations = new File(fakeDot.getParentFile(), "invocations.log");
+		fakeDot.getParentFile().mkdirs();
+		// called as: dot -T<format> <dot file> -o <image>
+		Files.write(fakeDot.toPath(), ("#!/bin/sh\necho \"$@\" >> " + invocations.getAbsolutePath() + "\ncp \"$2\" \"$4\"\n").getBytes());
+		assertTrue(fakeDot.setExecutable(true));
+		File outputDir = new File(getOutputDir(), "graphs");
+
+		DocExporter first = graphExporter(outputDir, fakeDot);
+		first.start();
+		assertEquals(6, Files.readAllLines(invocations.toPath()).size());
+		assertEquals(2, first.getArtifactCollector().getFileCount("png"));
+		File graph = first.getArtifactCollector().getFiles("png")[0];
+		assertTrue(first.getArtifactCollector().getGenerationTime(graph) >= 0);
+
+		DocExporter second = graphExporter(outputDir, fakeDot);
+		second.start();
+		assertEquals("unchanged graphs are not rendered again", 6, Files.readAllLines(invocations.toPath()).size());
+		assertEquals(0, second.getArtifactCollector().getFileCount("png"));
+		assertEquals(2, second.getArtifactCollector().getSkippedFileCount("png"));
+
+		assertTrue(new File(outputDir, "tables/tablegraph.svg").delete());
+		graphExporter(outputDir, fakeDot).start();
+		assertEquals("a missing image renders its graph again", 9, Files.readAllLines(invocations.toPath()).size());
+	}
+
+	private DocExporter skippingExporter(File outputDir) {
+		DocExporter exporter = new DocExporter(getCfg(), outputDir );
+		Properties properties = new Properties();
+		properties.put( "jdk5", "true");
+		properties.put( ExporterSettings.SKIP_UNCHANGED, "true" );
+		exporter.setProperties( properties );
+		return exporter;
+	}
+
+	private DocExporter graphExporter(File outputDir, File dotExecutable) {
+		DocExporter exporter = new DocExporter(getCfg(), outputDir );
+		Properties properties = new Properties();
+		properties.put( "jdk5", "true");
+		properties.put( "dot.executable", dotExecutable.getAbsolutePath() );
+		exporter.setProperties( properties );
+		return exporter;
+	}
+
+	public void testPaginatedLists() {
+		File outputDir = new File(getOutputDir(), "paged");
+		DocExporter exporter = new DocExporter(getCfg(), outputDir );
+		exporter.getProperties().setProperty( DocExporter.PAGE_SIZE, "2" );
+		exporter.start();
+
+		File first = new File(outputDir, "tables/alltables.html");
+		File second = new File(outputDir, "tables/alltables-2.html");
+		assertFileAndExists( first );
+		assertFileAndExists( second );
+		assertNotNull(findFirstString("alltables-2.html", first));
+		assertNotNull(findFirstString("alltables.html", second));
+		assertFileAndExists(new File(outputDir, "entities/allentities-2.html") );
+		assertFalse("lists are not split by default", new File(getOutputDir(), "tables/alltables-2.html").exists());
+
+		new FileVisitor() {
+			protected void process(File dir) {
+				if(dir.isFile() && dir.getName().endsWith( ".html" )) {
+					testHtml( new Tidy(), dir );
+				}
+			}
+		}.visit( new File(outputDir, "tables") );
+	}
+
+	public void testSearchIndex() {
+		File index = new File(getOutputDir(), "search-index.json");
+		assertFileAndExists( index );
+		assertNotNull(findFirstString("[\"Customer\",\"PUBLIC.PUBLIC\",\"tables/PUBLIC.PUBLIC/Customer.html\"]", index));
+		assertNotNull(findFirstString("entities/org/hibernate/tool/hbm2x/Customer.html", index));
+	}
+
+	public void testDotCommand() throws IOException {
+		assertEquals(Arrays.asList("dot"), DocExporter.dotCommand("dot"));
+		assertEquals(Arrays.asList("dot", "-Gdpi=150"), DocExporter.dotCommand("dot  -Gdpi=150"));
+		File withSpace = new File(getOutputDir(), "graph viz/dot");
+		withSpace.getParentFile().mkdirs();
+		withSpace.createNewFile();
+		assertEquals(Arrays.asList(withSpace.getPath()), DocExporter.dotCommand(withSpace.getPath()));
+	}
+
+	public void testUnchangedSearchIndexIsSkipped() {
+		File outputDir = new File(getOutputDir(), "skipping");
+		DocExporter first = skippingExporter(outputDir);
+		first.start();
+		assertEquals(1, first.getArtifactCollector().getFileCount("json"));
+
+		DocExporter second = skippingExporter(outputDir);
+		second.start();
+		assertEquals(0, second.getArtifactCollector().getFileCount("json"));
+		assertEquals(1, second.getArtifactCollector().getSkippedFileCount("json"));
+		assertNotNull(findFirstString("Customer.html", new File(outputDir, "search-index.json")));
+	}
+
+	public void testDocHelperCachesColumnProperties() {
+		DocHelper docHelper = new DocHelper( getCfg(), new Cfg2JavaTool() );
+		Table customer = null;
+		for (Table table : docHelper.getTables()) {
+			if("Customer".equals(table.getName())) {
+				customer = table;
+			}
+		}
+		assertNotNull(customer);
+		Column column = customer.getColumn(new Column("name"));
+		assertFalse(docHelper.getProperties( customer, column ).isEmpty());
+		assertSame(docHelper.getProperties( customer, column ), docHelper.getProperties( customer, column ));
+		assertFalse("N/D".equals(docHelper.getSQLTypeName( column )));
+	}
+
 	private void testHtml(final Tidy tidy, File dir) {
 		try {
 			tidy.parse( new FileInputStream(dir), (OutputStream)null );
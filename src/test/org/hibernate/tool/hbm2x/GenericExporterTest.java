@@ -7,11 +7,17 @@ package org.hibernate.tool.hbm2x;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
 import org.hibernate.tool.NonReflectiveTestCase;
 import org.hibernate.tool.Version;
+import org.hibernate.tool.test.TestHelper;
 
 /**
  * @author max
@@ -207,6 +213,172 @@ public class GenericExporterTest extends NonReflectiveTestCase {
 		
 	}
 	
+	public void testParallelGenerationMatchesSerial() throws IOException {
+		File serialDir = new File(getOutputDir(), "serial");
+		File parallelDir = new File(getOutputDir(), "parallel");
+		exportClasses(serialDir, "1");
+		exportClasses(parallelDir, "4");
+
+		List<String> files = TestHelper.visitAllFiles(serialDir, new ArrayList<String>(), ".txt");
+		assertFalse(files.isEmpty());
+		assertEquals(files.size(), TestHelper.visitAllFiles(parallelDir, new ArrayList<String>(), ".txt").size());
+		for (Iterator<String> iter = files.iterator(); iter.hasNext();) {
+			File serial = new File(iter.next());
+			String relative = serial.getAbsolutePath().substring(serialDir.getAbsolutePath().length());
+			File parallel = new File(parallelDir, relative);
+			assertFileAndExists(parallel);
+			assertTrue(relative + " differs", Arrays.equals(readBytes(serial), readBytes(parallel)));
+		}
+	}
+
+	public void testParallelGenerationWithException() {
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(getOutputDir());
+		ge.getProperties().setProperty(ExporterSettings.THREADS, "4");
+		ge.setTemplateName("generictemplates/generic-exception.ftl");
+		ge.setFilePattern("{package-name}/generic{class-name}.txt");
+		ge.setForEach("entity");
+		try {
+			ge.start();
+			fail();
+		} catch(ExporterException e) {
+			assertTrue(e.getMessage().startsWith("Error while processing Entity:"));
+		}
+	}
+
+	public void testEmptyOutputIsNotWritten() {
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(getOutputDir());
+		ge.setTemplateName("generictemplates/generic-empty.ftl");
+		ge.setFilePattern("{package-name}/generic{class-name}.txt");
+		ge.start();
+
+		assertFalse(new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt").exists());
+		assertEquals(0, ge.getArtifactCollector().getFileCount("txt"));
+		assertTrue(TestHelper.visitAllFiles(getOutputDir(), new ArrayList<String>(), ".tmp").isEmpty());
+	}
+
+	public void testFailedGenerationKeepsExistingFile() throws IOException {
+		File existing = new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt");
+		existing.getParentFile().mkdirs();
+		FileWriter writer = new FileWriter(existing);
+		try {
+			writer.write("previous");
+		} finally {
+			writer.close();
+		}
+
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(getOutputDir());
+		ge.setTemplateName("generictemplates/generic-exception.ftl");
+		ge.setFilePattern("{package-name}/generic{class-name}.txt");
+		ge.setForEach("entity");
+		try {
+			ge.start();
+			fail();
+		} catch(ExporterException e) {
+			// expected
+		}
+
+		assertEquals("previous", findFirstString("previous", existing));
+		assertTrue(TestHelper.visitAllFiles(getOutputDir(), new ArrayList<String>(), ".tmp").isEmpty());
+	}
+
+	public void testSkipUnchanged() throws IOException {
+		GenericExporter first = skippingExporter("generictemplates/pojo/generic-class.ftl", "{package-name}/generic{class-name}.txt");
+		first.start();
+		int generated = first.getArtifactCollector().getFileCount("txt");
+		assertTrue(generated > 0);
+		assertTrue(new File(getOutputDir(), ArtifactCollector.MANIFEST_FILE_NAME).exists());
+
+		File article = new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt");
+		File author = new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericAuthor.txt");
+		long past = article.lastModified() - 100000;
+		article.setLastModified(past);
+		FileWriter writer = new FileWriter(author);
+		try {
+			writer.write("edited");
+		} finally {
+			writer.close();
+		}
+
+		GenericExporter second = skippingExporter("generictemplates/pojo/generic-class.ftl", "{package-name}/generic{class-name}.txt");
+		second.start();
+		assertEquals(1, second.getArtifactCollector().getFileCount("txt"));
+		assertEquals(author, second.getArtifactCollector().getFiles("txt")[0]);
+		assertEquals(generated - 1, second.getArtifactCollector().getSkippedFileCount("txt"));
+		assertEquals(past, article.lastModified());
+		assertNull(findFirstString("edited", author));
+	}
+
+	public void testSkipUnchangedCreatedFiles() {
+		GenericExporter first = skippingExporter("generictemplates/generic-createfile.ftl", "{package-name}/created{class-name}.txt");
+		first.start();
+		int created = first.getArtifactCollector().getFileCount("properties");
+		assertTrue(created > 0);
+		File article = new File(getOutputDir(), "created/Article.properties");
+		assertEquals("created for org.hibernate.tool.hbm2x.Article", findFirstString("created", article));
+
+		GenericExporter second = skippingExporter("generictemplates/generic-createfile.ftl", "{package-name}/created{class-name}.txt");
+		second.start();
+		assertEquals(0, second.getArtifactCollector().getFileCount("properties"));
+		assertEquals(created, second.getArtifactCollector().getSkippedFileCount("properties"));
+	}
+
+	public void testSkipUnchangedFormattedFiles() {
+		HibernateMappingExporter first = new HibernateMappingExporter(getCfg(), getOutputDir());
+		first.getProperties().setProperty(ExporterSettings.SKIP_UNCHANGED, "true");
+		first.start();
+		int generated = first.getArtifactCollector().getFileCount("hbm.xml");
+		assertTrue(generated > 0);
+
+		HibernateMappingExporter second = new HibernateMappingExporter(getCfg(), getOutputDir());
+		second.getProperties().setProperty(ExporterSettings.SKIP_UNCHANGED, "true");
+		second.start();
+		assertEquals(0, second.getArtifactCollector().getFileCount("hbm.xml"));
+		assertEquals(generated, second.getArtifactCollector().getSkippedFileCount("hbm.xml"));
+	}
+
+	private GenericExporter skippingExporter(String templateName, String filePattern) {
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(getOutputDir());
+		ge.getProperties().setProperty(ExporterSettings.SKIP_UNCHANGED, "true");
+		ge.setTemplateName(templateName);
+		ge.setFilePattern(filePattern);
+		return ge;
+	}
+
+	private void exportClasses(File outputDir, String threads) {
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(outputDir);
+		ge.getProperties().setProperty(ExporterSettings.THREADS, threads);
+		ge.getProperties().setProperty("proptest", "A value");
+		ge.setTemplateName("generictemplates/pojo/generic-class.ftl");
+		ge.setFilePattern("{package-name}/generic{class-name}.txt");
+		ge.start();
+	}
+
+	private byte[] readBytes(File file) throws IOException {
+		FileInputStream is = new FileInputStream(file);
+		try {
+			byte[] result = new byte[(int) file.length()];
+			int read = 0;
+			while (read < result.length) {
+				int count = is.read(result, read, result.length - read);
+				if (count < 0) break;
+				read += count;
+			}
+			return result;
+		} finally {
+			is.close();
+		}
+	}
+	
 	protected String getBaseForMappings() {
 		return "org/hibernate/tool/hbm2x/";
 	}
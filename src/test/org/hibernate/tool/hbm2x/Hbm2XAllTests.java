@@ -32,6 +32,8 @@ public class Hbm2XAllTests {
 		suite.addTestSuite(IncrementalSchemaReadingTest.class);
 		suite.addTestSuite(Hbm2JavaEjb3Test.class);
 		suite.addTestSuite(XMLPrettyPrinterTest.class);
+		suite.addTestSuite(StreamingXMLPrettyPrinterTest.class);
+		suite.addTestSuite(TemplateConfigurationCacheTest.class);
 		suite.addTestSuite(GenericExporterTest.class);
 		suite.addTestSuite(Hbm2JavaTest.class);		
 		//$JUnit-END$
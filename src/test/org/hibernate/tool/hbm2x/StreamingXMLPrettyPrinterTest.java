@@ -0,0 +1,120 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.tool.test.TestHelper;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the StAX based pretty printer used to format generated xml files.
+ */
+public class StreamingXMLPrettyPrinterTest extends TestCase {
+
+	private static final String NL = System.getProperty("line.separator");
+
+	public void testIndentation() throws IOException {
+		String result = prettyPrint(new StreamingXMLPrettyPrinter(),
+				"<hibernate-mapping><class name='A'>\n\n<id name=\"id\"></id><property name='p'/></class></hibernate-mapping>");
+		assertEquals(
+				"<hibernate-mapping>" + NL +
+				"    <class name=\"A\">" + NL +
+				"        <id name=\"id\" />" + NL +
+				"        <property name=\"p\" />" + NL +
+				"    </class>" + NL +
+				"</hibernate-mapping>" + NL, result);
+	}
+
+	public void testTextCommentsAndCData() throws IOException {
+		String result = prettyPrint(new StreamingXMLPrettyPrinter(),
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+				"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" \"http://www.hibernate.org/dtd/hibernate-mapping-3.0.dtd\">\n" +
+				"<!-- Generated -->\n" +
+				"<hibernate-mapping><meta attribute='x'>  a &amp; b </meta><sql-query name='q'><![CDATA[select 1 where 1 < 2]]></sql-query></hibernate-mapping>");
+		assertEquals(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NL +
+				"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" \"http://www.hibernate.org/dtd/hibernate-mapping-3.0.dtd\">" + NL +
+				"<!-- Generated -->" + NL +
+				"<hibernate-mapping>" + NL +
+				"    <meta attribute=\"x\">a &amp; b</meta>" + NL +
+				"    <sql-query name=\"q\"><![CDATA[select 1 where 1 < 2]]></sql-query>" + NL +
+				"</hibernate-mapping>" + NL, result);
+	}
+
+	public void testTidyLayoutSettings() throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("indent", "yes");
+		properties.setProperty("indent-spaces", "2");
+		properties.setProperty("wrap", "30");
+		String result = prettyPrint(new StreamingXMLPrettyPrinter(properties),
+				"<a><b first='1111111111' second='2222222222' third='3'/></a>");
+		assertEquals(
+				"<a>" + NL +
+				"  <b first=\"1111111111\"" + NL +
+				"    second=\"2222222222\"" + NL +
+				"    third=\"3\" />" + NL +
+				"</a>" + NL, result);
+
+		properties.setProperty("indent", "no");
+		properties.setProperty("wrap", "0");
+		assertEquals("<a>" + NL + "<b c=\"1\" />" + NL + "</a>" + NL,
+				prettyPrint(new StreamingXMLPrettyPrinter(properties), "<a><b c='1'/></a>"));
+	}
+
+	public void testFormatFilesInParallel() throws IOException {
+		File dir = new File("toolstestoutput", getClass().getName());
+		dir.mkdirs();
+		try {
+			List<File> files = new ArrayList<File>();
+			for (int i = 0; i < 8; i++) {
+				File file = new File(dir, "file" + i + ".xml");
+				write(file, "<root><child index='" + i + "'/></root>");
+				files.add(file);
+			}
+			File broken = new File(dir, "broken.xml");
+			write(broken, "<root><child></root>");
+			files.add(broken);
+
+			new StreamingXMLPrettyPrinter().prettyPrintFiles(files, 4, true);
+
+			for (int i = 0; i < 8; i++) {
+				assertEquals("    <child index=\"" + i + "\" />", TestHelper.findFirstString("child", files.get(i)));
+			}
+			assertEquals("<root><child></root>", TestHelper.findFirstString("root", broken));
+
+			try {
+				new StreamingXMLPrettyPrinter().prettyPrintFiles(files, 4, false);
+				fail("broken file should not be formatted");
+			}
+			catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().indexOf(broken.getAbsolutePath())>=0);
+			}
+		}
+		finally {
+			TestHelper.deleteDir(dir);
+		}
+	}
+
+	private String prettyPrint(StreamingXMLPrettyPrinter printer, String xml) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		printer.prettyPrint(new ByteArrayInputStream(xml.getBytes("UTF-8")), out);
+		return out.toString("UTF-8");
+	}
+
+	private void write(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.hibernate.tool.test.TestHelper;
+
+import junit.framework.TestCase;
+
+/**
+ * Verifies that exporters share parsed templates and still see edited templates.
+ */
+public class TemplateConfigurationCacheTest extends TestCase {
+
+	private File templateDir;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		templateDir = new File("toolstestoutput", getClass().getName());
+		templateDir.mkdirs();
+		TemplateConfigurationCache.clear();
+	}
+
+	protected void tearDown() throws Exception {
+		TemplateConfigurationCache.clear();
+		TestHelper.deleteDir(templateDir);
+		super.tearDown();
+	}
+
+	public void testSharedConfiguration() {
+		TemplateHelper first = new TemplateHelper();
+		first.init(null, new String[] { templateDir.getPath() });
+		TemplateHelper second = new TemplateHelper();
+		second.init(null, new String[] { templateDir.getPath() });
+		assertSame(first.freeMarkerEngine, second.freeMarkerEngine);
+
+		TemplateHelper classpathOnly = new TemplateHelper();
+		classpathOnly.init(null, new String[0]);
+		assertNotSame(first.freeMarkerEngine, classpathOnly.freeMarkerEngine);
+		assertEquals(2, TemplateConfigurationCache.size());
+	}
+
+	public void testSharedConfigurationCannotBeChanged() throws Exception {
+		TemplateHelper helper = new TemplateHelper();
+		helper.init(null, new String[] { templateDir.getPath() });
+		try {
+			helper.freeMarkerEngine.setSharedVariable("changed", "by one exporter");
+			fail("a change would be seen by every exporter using the same template paths");
+		}
+		catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertNull(helper.freeMarkerEngine.getSharedVariable("changed"));
+	}
+
+	public void testLeastRecentlyUsedConfigurationIsDropped() {
+		TemplateHelper first = new TemplateHelper();
+		first.init(null, new String[] { templateDir.getPath() });
+		for (int i = 0; i < TemplateConfigurationCache.MAX_CONFIGURATIONS; i++) {
+			File dir = new File(templateDir, "dir" + i);
+			dir.mkdirs();
+			TemplateHelper other = new TemplateHelper();
+			other.init(null, new String[] { dir.getPath() });
+		}
+		assertEquals(TemplateConfigurationCache.MAX_CONFIGURATIONS, TemplateConfigurationCache.size());
+
+		TemplateHelper again = new TemplateHelper();
+		again.init(null, new String[] { templateDir.getPath() });
+		assertNotSame("the first configuration was the least recently used one", first.freeMarkerEngine, again.freeMarkerEngine);
+		assertEquals(TemplateConfigurationCache.MAX_CONFIGURATIONS, TemplateConfigurationCache.size());
+	}
+
+	public void testModifiedTemplateIsReloaded() throws IOException, InterruptedException {
+		File template = new File(templateDir, "cachetest.ftl");
+		write(template, "first");
+		assertEquals("first", process());
+
+		write(template, "second");
+		template.setLastModified(template.lastModified() + 10000);
+		Thread.sleep(1100); // template update delay
+		assertEquals("second", process());
+	}
+
+	private String process() {
+		TemplateHelper helper = new TemplateHelper();
+		helper.init(null, new String[] { templateDir.getPath() });
+		helper.setupContext();
+		StringWriter output = new StringWriter();
+		helper.processTemplate("cachetest.ftl", output, null);
+		return output.toString();
+	}
+
+	private void write(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
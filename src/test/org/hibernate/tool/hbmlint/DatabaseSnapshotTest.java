@@ -0,0 +1,75 @@
+package org.hibernate.tool.hbmlint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.cfg.reveng.SchemaSelection;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.hbmlint.detector.DatabaseSnapshot;
+
+import junit.framework.TestCase;
+
+public class DatabaseSnapshotTest extends TestCase {
+
+	private DatabaseSnapshot snapshot;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		Table order = table("PUBLIC", "SALES", "ORDERS");
+		snapshot = new DatabaseSnapshot(
+				Arrays.asList(new Table[] { order, order, table("PUBLIC", "SALES", "Item"), table("PUBLIC", "ARCHIVE", "ITEM") }),
+				new HashSet<String>(Arrays.asList(new String[] { "order_seq" })));
+	}
+
+	public void testTableLookup() {
+		assertEquals(3, snapshot.getTableCount());
+		assertEquals(1, snapshot.findTables(null, null, "orders").size());
+		assertEquals(1, snapshot.findTables("public", "sales", "Orders").size());
+		assertTrue(snapshot.findTables(null, "archive", "orders").isEmpty());
+		assertTrue(snapshot.findTables(null, null, "missing").isEmpty());
+
+		assertEquals(2, snapshot.findTables(null, null, "item").size());
+		assertEquals("ARCHIVE", snapshot.findTables(null, "archive", "item").get(0).getSchema());
+		assertEquals(1, snapshot.findTables(null, null, "`Item`").size());
+		assertTrue(snapshot.findTables(null, null, "`item`").isEmpty());
+	}
+
+	public void testGeneratorKeys() {
+		assertTrue(snapshot.isTable("orders"));
+		assertTrue(snapshot.isTable("sales.orders"));
+		assertTrue(snapshot.isTable("public.sales.orders"));
+		assertFalse(snapshot.isTable("archive.orders"));
+		assertFalse(snapshot.isTable(new Object()));
+
+		assertTrue(snapshot.isSequence("order_seq"));
+		assertTrue(snapshot.isSequence("ORDER_SEQ"));
+		assertTrue(snapshot.isSequence("sales.order_seq"));
+		assertFalse(snapshot.isSequence("orders"));
+	}
+
+	public void testSelections() {
+		List<String[]> names = new ArrayList<String[]>();
+		names.add(new String[] { null, "SALES", "ORDERS" });
+		names.add(new String[] { null, "SALES", "ORDERS" });
+		names.add(new String[] { "PUBLIC", "ARCHIVE", "ITEM" });
+		names.add(new String[] { null, null, "CUSTOMER" });
+		List<SchemaSelection> selections = DatabaseSnapshot.selectionsFor(names, null, "APP");
+		assertEquals(3, selections.size());
+		assertEquals("ORDERS", selections.get(0).getMatchTable());
+		assertEquals("SALES", selections.get(0).getMatchSchema());
+		assertEquals("ITEM", selections.get(1).getMatchTable());
+		// tables without schema are looked for in the default schema only
+		assertEquals("CUSTOMER", selections.get(2).getMatchTable());
+		assertEquals("APP", selections.get(2).getMatchSchema());
+		assertNull(selections.get(2).getMatchCatalog());
+	}
+
+	private Table table(String catalog, String schema, String name) {
+		Table table = new Table(name);
+		table.setCatalog(catalog);
+		table.setSchema(schema);
+		return table;
+	}
+}
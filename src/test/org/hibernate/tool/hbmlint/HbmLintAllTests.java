@@ -10,6 +10,7 @@ public class HbmLintAllTests {
 		//$JUnit-BEGIN$
 		suite.addTestSuite(SchemaAnalyzerTest.class);
 		suite.addTestSuite(HbmLintTest.class);
+		suite.addTestSuite(DatabaseSnapshotTest.class);
 		//$JUnit-END$
 		return suite;
 	}
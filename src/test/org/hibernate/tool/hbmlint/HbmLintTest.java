@@ -1,5 +1,8 @@
 package org.hibernate.tool.hbmlint;
 
+import java.util.List;
+
+import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.tool.JDBCMetaDataBinderTestCase;
@@ -47,6 +50,30 @@ public class HbmLintTest extends JDBCMetaDataBinderTestCase {
 		assertEquals(analyzer.getResults().toString(), 2,analyzer.getResults().size());
 	}
 	
+	public void testParallelMatchesSerial() {
+		MetadataSources metadataSources = new MetadataSources();
+		addMappings( getMappings(), metadataSources );
+		Metadata metadata = metadataSources.buildMetadata();
+		
+		HbmLint serial = new HbmLint(createEntityDetectors());
+		serial.analyze(metadata);
+		HbmLint parallel = new HbmLint(createEntityDetectors());
+		parallel.setThreads(4);
+		parallel.analyze(metadata);
+		
+		assertEquals(4, serial.getResults().size());
+		assertEquals(serial.getResults().toString(), parallel.getResults().toString());
+		
+		List<Issue> results = parallel.getResults();
+		for (int i = 1; i < results.size(); i++) {
+			assertTrue(ConcurrentIssueCollector.ISSUE_ORDER.compare(results.get(i-1), results.get(i)) <= 0);
+		}
+	}
+	
+	private Detector[] createEntityDetectors() {
+		return new Detector[] { new BadCachingDetector(), new InstrumentationDetector(), new ShadowedIdentifierDetector() };
+	}
+	
 	protected String[] getCreateSQL() {
 		return new String[0];// { "create table Category (id numeric(5), parent_id numeric(5))" };
 	}
@@ -9,6 +9,7 @@ import org.hibernate.cfg.Configuration;
 import org.hibernate.mapping.Table;
 import org.hibernate.tool.JDBCMetaDataBinderTestCase;
 import org.hibernate.tool.hbm2x.HbmLintExporter;
+import org.hibernate.tool.hbmlint.detector.DatabaseSnapshot;
 import org.hibernate.tool.hbmlint.detector.SchemaByMetaDataDetector;
 import org.hibernate.tool.util.MetadataHelper;
 
@@ -69,6 +70,22 @@ public class SchemaAnalyzerTest extends JDBCMetaDataBinderTestCase {
 		assertTrue(issue.getDescription().indexOf( "does_not_exist" ) >=0);		
 	}
 			
+	public void testSnapshotOnlyContainsMappedTables() {
+		Configuration configuration = new Configuration();
+		addMappings( getMappings(), configuration );
+		SchemaByMetaDataDetector analyzer = new SchemaByMetaDataDetector();
+		analyzer.initialize( MetadataHelper.getMetadata(configuration) );
+		
+		DatabaseSnapshot snapshot = analyzer.getSnapshot();
+		assertEquals(1, snapshot.findTables(null, null, "Category").size());
+		assertEquals(1, snapshot.findTables(null, null, "BadType").size());
+		// read for the table generator, the sequence generator needs no table
+		assertTrue(snapshot.isTable("hilo_table"));
+		assertTrue(snapshot.isSequence("should_be_there"));
+		assertTrue(snapshot.findTables(null, null, "unmapped_table").isEmpty());
+		assertEquals(3, snapshot.getTableCount());
+	}
+			
 	public void testExporter() {		
 		Configuration configuration = new Configuration();
 		new HbmLintExporter(configuration, getOutputDir()).start();			
@@ -78,11 +95,12 @@ public class SchemaAnalyzerTest extends JDBCMetaDataBinderTestCase {
 		return new String[] { "create table Category (id int, parent_id numeric(5))",
 				"create table BadType (id int, name varchar(100))",
 				"create sequence should_be_there start with 1",
-				"create table hilo_table (id int)"};
+				"create table hilo_table (id int)",
+				"create table unmapped_table (id int)"};
 	}
 
 	protected String[] getDropSQL() {
-		return new String[] { "drop table Category", "drop table BadType", "drop sequence should_be_there", "drop table hilo_table" };
+		return new String[] { "drop table Category", "drop table BadType", "drop sequence should_be_there", "drop table hilo_table", "drop table unmapped_table" };
 	}
 	
 }
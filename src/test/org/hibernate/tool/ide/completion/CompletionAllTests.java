@@ -11,7 +11,9 @@ public class CompletionAllTests {
 		//$JUnit-BEGIN$
 		suite.addTestSuite(CompletionHelperTest.class);
 		suite.addTestSuite(HqlAnalyzerTest.class);
+		suite.addTestSuite(IncrementalHQLAnalyzerTest.class);
 		suite.addTestSuite(ModelCompletionTest.class);
+		suite.addTestSuite(PrefixIndexTest.class);
 		//$JUnit-END$
 		return suite;
 	}
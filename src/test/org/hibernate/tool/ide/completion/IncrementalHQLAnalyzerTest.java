@@ -0,0 +1,92 @@
+package org.hibernate.tool.ide.completion;
+
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class IncrementalHQLAnalyzerTest extends TestCase {
+
+	private static final String QUERY = "select a, b from Article a where a in (select s from Store s where s.name = 'x (y)') and a.id in (select p.id from Product p join p.owner o)\r\n order by a.id";
+
+	public void testTypingMatchesFullAnalysis() {
+		IncrementalHQLAnalyzer incremental = new IncrementalHQLAnalyzer();
+		for (int length = 0; length <= QUERY.length(); length++) {
+			char[] query = QUERY.substring(0, length).toCharArray();
+			assertSameAnalysis(incremental, query);
+		}
+	}
+
+	public void testEditsMatchFullAnalysis() {
+		IncrementalHQLAnalyzer incremental = new IncrementalHQLAnalyzer();
+		String[] versions = new String[] {
+				QUERY,
+				QUERY.replace("Store s", "Shop s"),
+				QUERY.replace("Store s", "Shop s").replace("p.owner o", "p.owner"),
+				QUERY.replace("(select s", "(select distinct s"),
+				QUERY.replace("'x (y)'", "'x (y'"),
+				QUERY.replace("'x (y)'", "'x"),
+				QUERY.replace(")\r\n", ")"),
+				"",
+				QUERY,
+		};
+		for (int i = 0; i < versions.length; i++) {
+			assertSameAnalysis(incremental, versions[i].toCharArray());
+		}
+	}
+
+	public void testOnlyEditedRegionIsLexed() {
+		StringBuffer buf = new StringBuffer();
+		for (int i = 0; i < 200; i++) {
+			buf.append("select a").append(i).append(" from Article").append(i).append(" a").append(i).append(" where a").append(i).append(".id in (select s.id from Store s) ");
+		}
+		IncrementalHQLAnalyzer incremental = new IncrementalHQLAnalyzer();
+		incremental.update(buf.toString().toCharArray());
+		int fullCount = incremental.getLexedTokenCount();
+		assertEquals(fullCount, incremental.getTokenTexts().size());
+
+		buf.insert(buf.indexOf("Article100 "), "Product p, ");
+		char[] edited = buf.toString().toCharArray();
+		incremental.update(edited);
+		assertTrue("lexed " + incremental.getLexedTokenCount() + " of " + fullCount, incremental.getLexedTokenCount() < 10);
+		assertEquals(fullCount + 3, incremental.getTokenTexts().size());
+
+		IncrementalHQLAnalyzer fresh = new IncrementalHQLAnalyzer();
+		fresh.update(edited);
+		assertEquals(fresh.getTokenTexts(), incremental.getTokenTexts());
+	}
+
+	private void assertSameAnalysis(IncrementalHQLAnalyzer incremental, char[] query) {
+		for (int position = 0; position <= query.length; position++) {
+			String message = new String(query) + " at " + position;
+			assertEquals(message, describe(new HQLAnalyzer(), query, position), describe(incremental, query, position));
+		}
+	}
+
+	private String describe(HQLAnalyzer analyzer, char[] query, int position) {
+		StringBuffer buf = new StringBuffer();
+		try {
+			buf.append(analyzer.shouldShowEntityNames(query, position)).append('|');
+		}
+		catch (SimpleLexerException e) {
+			buf.append("error|");
+		}
+		try {
+			HQLAnalyzer.SubQueryList list = analyzer.getSubQueries(query, position);
+			buf.append(list.caretDepth).append('|');
+			for (Iterator<SubQuery> iter = list.subQueries.iterator(); iter.hasNext();) {
+				SubQuery sq = iter.next();
+				buf.append(sq.startOffset).append('-').append(sq.endOffset).append('@').append(sq.depth).append(sq.tokenText).append(sq.tokenIds).append(';');
+			}
+			List<EntityNameReference> names = analyzer.getVisibleEntityNames(query, position);
+			for (Iterator<EntityNameReference> iter = names.iterator(); iter.hasNext();) {
+				EntityNameReference ref = iter.next();
+				buf.append(ref.getAlias()).append('=').append(ref.getEntityName()).append(',');
+			}
+		}
+		catch (SimpleLexerException e) {
+			buf.append("error");
+		}
+		return buf.toString();
+	}
+}
@@ -0,0 +1,29 @@
+package org.hibernate.tool.ide.completion;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class PrefixIndexTest extends TestCase {
+
+	public void testCaseInsensitivePrefix() {
+		List<String> names = Arrays.asList(new String[] { "StoreCity", "Product", "product", "ProductOwnerAddress", "Store", "Universe" });
+		PrefixIndex<String> index = new PrefixIndex<String>(names, names);
+		
+		assertEquals(6, index.size());
+		assertEquals(Arrays.asList(new String[] { "Product", "product", "ProductOwnerAddress" }), index.find("pRO"));
+		assertEquals(Arrays.asList(new String[] { "StoreCity" }), index.find("StoreC"));
+		assertEquals(Arrays.asList(new String[] { "Store", "StoreCity" }), index.find("store"));
+		assertEquals(6, index.find("").size());
+		assertEquals(6, index.find(null).size());
+		assertTrue(index.find("x").isEmpty());
+		assertTrue(index.find("zzz").isEmpty());
+		assertTrue(index.find(" ").isEmpty());
+	}
+	
+	public void testEmptyIndex() {
+		List<String> names = Arrays.asList(new String[0]);
+		assertTrue(new PrefixIndex<String>(names, names).find("a").isEmpty());
+	}
+}
@@ -0,0 +1,121 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.dialect.HSQLMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.JDBCMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Verifies that reading metadata with one query per schema gives the same model as per table reads.
+ */
+public class BulkReadingTest extends JDBCMetaDataBinderTestCase {
+
+	public static class CountingHSQLMetaDataDialect extends HSQLMetaDataDialect {
+		List<String> columnTables = new ArrayList<String>();
+		public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+			columnTables.add(table);
+			return super.getColumns(catalog, schema, table, column);
+		}
+	}
+
+	public static class CountingJDBCMetaDataDialect extends JDBCMetaDataDialect {
+		List<String> columnTables = new ArrayList<String>();
+		public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+			columnTables.add(table);
+			return super.getColumns(catalog, schema, table, column);
+		}
+	}
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table bulkmaster ( id int not null, name varchar(20), primary key (id) )",
+				"create table bulkchild ( id int not null, masterref int, primary key (id), constraint bulkchildfk foreign key (masterref) references bulkmaster(id) )",
+				"create unique index bulkmasteridx on bulkmaster(name)",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[] {
+				"drop table bulkchild",
+				"drop table bulkmaster",
+		};
+	}
+
+	public void testBulkMatchesPerTable() {
+		CountingHSQLMetaDataDialect bulkDialect = new CountingHSQLMetaDataDialect();
+		DefaultDatabaseCollector bulk = read(bulkDialect, true);
+		assertFalse(bulkDialect.columnTables.isEmpty());
+		for (Iterator<String> iter = bulkDialect.columnTables.iterator(); iter.hasNext();) {
+			assertNull("columns should only be read per schema", iter.next());
+		}
+
+		DefaultDatabaseCollector perTable = read(new HSQLMetaDataDialect(), false);
+
+		String[] names = new String[] { identifier("bulkmaster"), identifier("bulkchild") };
+		for (int i = 0; i < names.length; i++) {
+			Table expected = perTable.getTable("PUBLIC", "PUBLIC", names[i]);
+			Table actual = bulk.getTable("PUBLIC", "PUBLIC", names[i]);
+			assertNotNull(expected);
+			assertNotNull(actual);
+			assertEquals(columnNames(expected.getColumnIterator()), columnNames(actual.getColumnIterator()));
+			assertEquals(columnNames(expected.getPrimaryKey().getColumnIterator()), columnNames(actual.getPrimaryKey().getColumnIterator()));
+			assertEquals(expected.getForeignKeys().size(), actual.getForeignKeys().size());
+			assertEquals(expected.getUniqueKeys().keySet(), actual.getUniqueKeys().keySet());
+		}
+		assertEquals(perTable.getOneToManyCandidates().keySet(), bulk.getOneToManyCandidates().keySet());
+	}
+
+	public void testFallbackWithoutBulkSupport() {
+		CountingJDBCMetaDataDialect dialect = new CountingJDBCMetaDataDialect();
+		read(dialect, true);
+		assertTrue(dialect.columnTables.contains(identifier("bulkmaster")));
+		assertFalse(dialect.columnTables.contains(null));
+	}
+
+	private DefaultDatabaseCollector read(MetaDataDialect dialect, boolean bulk) {
+		Properties properties = new Properties();
+		properties.putAll(cfg.getProperties());
+		properties.setProperty(JDBCReaderFactory.READER_BULK, Boolean.toString(bulk));
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		try {
+			JDBCReader reader = JDBCReaderFactory.newJDBCReader(properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry);
+			assertEquals(bulk, reader.isBulkRead());
+			DefaultDatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+			reader.readDatabaseSchema(dc, null, null);
+			return dc;
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	private List<String> columnNames(Iterator<?> columns) {
+		List<String> result = new ArrayList<String>();
+		while (columns.hasNext()) {
+			result.add(((Column) columns.next()).getName());
+		}
+		return result;
+	}
+
+	public static Test suite() {
+		return new TestSuite(BulkReadingTest.class);
+	}
+
+}
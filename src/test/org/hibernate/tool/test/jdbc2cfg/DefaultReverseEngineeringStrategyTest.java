@@ -12,6 +12,7 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.hibernate.cfg.reveng.CachingReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.DelegatingReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.ReverseEngineeringSettings;
@@ -139,6 +140,49 @@ public class DefaultReverseEngineeringStrategyTest extends TestCase {
     public void testReservedKeywordsHandling() {
     	assertEquals("class_", rns.columnToPropertyName(new TableIdentifier("blah"), "class"));    	
     }
+
+    public void testCachingNamingDecisions() {
+    	final int[] classNameCalls = new int[1];
+    	DefaultReverseEngineeringStrategy defaultStrategy = new DefaultReverseEngineeringStrategy() {
+    		public String tableToClassName(TableIdentifier tableIdentifier) {
+    			classNameCalls[0]++;
+    			return super.tableToClassName(tableIdentifier);
+    		}
+    	};
+    	CachingReverseEngineeringStrategy caching = new CachingReverseEngineeringStrategy(defaultStrategy);
+    	ReverseEngineeringSettings settings = new ReverseEngineeringSettings(caching).setDefaultPackageName("org.test").setCacheNamingDecisions(true);
+    	defaultStrategy.setSettings(settings);
+    	caching.setSettings(settings);
+
+    	TableIdentifier fromTable = new TableIdentifier("company");
+    	TableIdentifier toTable = new TableIdentifier("address");
+    	List<Column> fromColumns = new ArrayList<Column>();
+    	fromColumns.add(new Column("bill_adr") );
+    	List<Column> toColumns = new ArrayList<Column>();
+    	toColumns.add(new Column("id") );
+
+    	for (int i = 0; i < 3; i++) {
+    		assertEquals("org.test.Company", caching.tableToClassName(fromTable) );
+    		assertEquals("billAdr", caching.columnToPropertyName(fromTable, "BILL_ADR") );
+    		assertEquals("addressByBillAdr", caching.foreignKeyToEntityName("billing", fromTable, fromColumns, toTable, toColumns, false) );
+    		assertEquals("companiesForBillAdr", caching.foreignKeyToCollectionName("billing", fromTable, fromColumns, toTable, toColumns, false) );
+    	}
+    	// the names of company and address are computed once, even when delegates ask the root for them
+    	assertEquals(2, classNameCalls[0]);
+    	assertEquals(5, caching.getMissCount() );
+    	assertEquals(9, caching.getHitCount() );
+
+    	// keys are distinguished by the column names
+    	fromColumns.set(0, new Column("ship_adr") );
+    	assertEquals("addressByShipAdr", caching.foreignKeyToEntityName("billing", fromTable, fromColumns, toTable, toColumns, false) );
+
+    	caching.setSettings(new ReverseEngineeringSettings(caching) );
+    	assertEquals(0, caching.getHitCount() );
+    	assertEquals("Company", caching.tableToClassName(fromTable) );
+    	assertEquals("Company", caching.tableToClassName(fromTable) );
+    	assertEquals(0, caching.getHitCount() );
+    	assertEquals(0, caching.getMissCount() );
+    }
      
 	
 	public static Test suite() {
@@ -0,0 +1,168 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.reveng.SchemaFingerprints;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+import org.hibernate.tool.hbm2x.POJOExporter;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Verifies that only tables changed since the last run, and their foreign key neighbours, are regenerated.
+ */
+public class IncrementalReverseEngineeringTest extends JDBCMetaDataBinderTestCase {
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table incmaster ( id int not null, name varchar(20), primary key (id) )",
+				"create table incchild ( id int not null, masterref int, primary key (id), constraint incchildfk foreign key (masterref) references incmaster(id) )",
+				"create table incother ( id int not null, description varchar(40), primary key (id) )",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[] {
+				"drop table incchild",
+				"drop table incmaster",
+				"drop table incother",
+		};
+	}
+
+	public void testOnlyChangedTablesAreRegenerated() throws SQLException, IOException {
+		File fingerprintFile = new File(getOutputDir(), "fingerprints.properties");
+
+		JDBCMetaDataConfiguration first = read(fingerprintFile);
+		assertEquals(3, first.getSchemaFingerprints().getChangedTables().size());
+		export(first);
+		first.storeSchemaFingerprints();
+		assertTrue(fingerprintFile.exists());
+
+		JDBCMetaDataConfiguration unchanged = read(fingerprintFile);
+		assertTrue(unchanged.getSchemaFingerprints().getChangedTables().isEmpty());
+
+		File master = javaFile("incmaster");
+		File child = javaFile("incchild");
+		File other = javaFile("incother");
+		markFile(master);
+		markFile(child);
+		markFile(other);
+
+		executeDDL(new String[] { "alter table incmaster add column extra varchar(10)" }, false);
+		JDBCMetaDataConfiguration changed = read(fingerprintFile);
+		SchemaFingerprints fingerprints = changed.getSchemaFingerprints();
+		assertTrue(fingerprints.isChanged(getTable(changed, identifier("incmaster"))));
+		assertTrue(fingerprints.isChanged(getTable(changed, identifier("incchild"))));
+		assertFalse(fingerprints.isChanged(getTable(changed, identifier("incother"))));
+
+		export(changed);
+		assertNull(findFirstString("untouched", master));
+		assertNull(findFirstString("untouched", child));
+		assertNotNull(findFirstString("untouched", other));
+	}
+
+	public void testConfigurationChangeRegeneratesAll() throws IOException {
+		File fingerprintFile = new File(getOutputDir(), "configfingerprints.properties");
+		File outputDir = new File(getOutputDir(), "config");
+
+		JDBCMetaDataConfiguration first = read(fingerprintFile);
+		export(first, outputDir, "false");
+		first.storeSchemaFingerprints();
+
+		File other = javaFile(outputDir, "incother");
+		markFile(other);
+		JDBCMetaDataConfiguration unchanged = read(fingerprintFile);
+		export(unchanged, outputDir, "false");
+		unchanged.storeSchemaFingerprints();
+		assertNotNull(findFirstString("untouched", other));
+
+		// a different exporter property regenerates every artifact of the exporter
+		JDBCMetaDataConfiguration properties = read(fingerprintFile);
+		assertTrue(properties.getSchemaFingerprints().getChangedTables().isEmpty());
+		export(properties, outputDir, "true");
+		properties.storeSchemaFingerprints();
+		assertNull(findFirstString("untouched", other));
+
+		// different settings make every table count as changed
+		JDBCMetaDataConfiguration settings = new JDBCMetaDataConfiguration();
+		settings.setFingerprintFile(fingerprintFile);
+		settings.setStrategyDescription("package=org.changed");
+		settings.readFromJDBC();
+		assertEquals(3, settings.getSchemaFingerprints().getChangedTables().size());
+	}
+
+	public void testDroppedTableIsReported() throws SQLException {
+		File fingerprintFile = new File(getOutputDir(), "dropfingerprints.properties");
+		File outputDir = new File(getOutputDir(), "drop");
+		executeDDL(new String[] { "create table incdropped ( id int not null, primary key (id) )" }, false);
+		try {
+			JDBCMetaDataConfiguration first = read(fingerprintFile);
+			export(first, outputDir, "false");
+			first.storeSchemaFingerprints();
+			assertTrue(first.getSchemaFingerprints().getOrphanedArtifacts().isEmpty());
+		}
+		finally {
+			executeDDL(new String[] { "drop table incdropped" }, false);
+		}
+		File dropped = javaFile(outputDir, "incdropped");
+
+		JDBCMetaDataConfiguration second = read(fingerprintFile);
+		export(second, outputDir, "false");
+		assertEquals(1, second.getSchemaFingerprints().getOrphanedArtifacts().size());
+		assertEquals(dropped.getAbsoluteFile(), second.getSchemaFingerprints().getOrphanedArtifacts().get(0));
+	}
+
+	public void testWithoutFingerprintFile() {
+		assertNull(cfg.getSchemaFingerprints());
+	}
+
+	private JDBCMetaDataConfiguration read(File fingerprintFile) {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setFingerprintFile(fingerprintFile);
+		configuration.readFromJDBC();
+		return configuration;
+	}
+
+	private void export(JDBCMetaDataConfiguration configuration) {
+		export(configuration, getOutputDir(), null);
+	}
+
+	private void export(JDBCMetaDataConfiguration configuration, File outputDir, String jdk5) {
+		POJOExporter exporter = new POJOExporter(configuration, outputDir);
+		exporter.setTemplatePath(new String[0]);
+		if(jdk5!=null) {
+			exporter.getProperties().setProperty("jdk5", jdk5);
+		}
+		exporter.start();
+	}
+
+	private File javaFile(String table) {
+		return javaFile(getOutputDir(), table);
+	}
+
+	private File javaFile(File outputDir, String table) {
+		File file = new File(outputDir, toClassName(identifier(table)) + ".java");
+		assertFileAndExists(file);
+		return file;
+	}
+
+	private void markFile(File file) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write("// untouched");
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	public static Test suite() {
+		return new TestSuite(IncrementalReverseEngineeringTest.class);
+	}
+
+}
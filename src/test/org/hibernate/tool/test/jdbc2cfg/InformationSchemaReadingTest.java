@@ -0,0 +1,124 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.dialect.HSQLMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.InformationSchemaMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Verifies that reading the information_schema views gives the same model as the driver metadata.
+ */
+public class InformationSchemaReadingTest extends JDBCMetaDataBinderTestCase {
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table ismaster ( id int not null, name varchar(20), price numeric(10,2), primary key (id) )",
+				"create table ischild ( id int not null, masterref int, primary key (id), constraint ischildfk foreign key (masterref) references ismaster(id) )",
+				"create table iscomp ( a int not null, b varchar(5) not null, primary key (a, b) )",
+				"create table iscompref ( id int primary key, x varchar(5), y int, constraint iscompfk foreign key (y, x) references iscomp(a, b) )",
+				"create unique index ismasteridx on ismaster(name)",
+				"create view isview as select id, name from ismaster",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[] {
+				"drop view isview",
+				"drop table iscompref",
+				"drop table iscomp",
+				"drop table ischild",
+				"drop table ismaster",
+		};
+	}
+
+	public void testBulkMatchesDriver() {
+		assertSameModel(read(new InformationSchemaMetaDataDialect(), true), read(new HSQLMetaDataDialect(), false));
+	}
+
+	public void testPerTableMatchesDriver() {
+		assertSameModel(read(new InformationSchemaMetaDataDialect(), false), read(new HSQLMetaDataDialect(), false));
+	}
+
+	public void testViewsAreReported() {
+		Table expected = read(new HSQLMetaDataDialect(), false).getTable("PUBLIC", "PUBLIC", identifier("isview"));
+		Table actual = read(new InformationSchemaMetaDataDialect(), true).getTable("PUBLIC", "PUBLIC", identifier("isview"));
+		assertNotNull(expected);
+		assertNotNull(actual);
+		assertEquals(describe(expected.getColumnIterator()), describe(actual.getColumnIterator()));
+	}
+
+	private void assertSameModel(DefaultDatabaseCollector actualCollector, DefaultDatabaseCollector expectedCollector) {
+		String[] names = new String[] { identifier("ismaster"), identifier("ischild"), identifier("iscomp"), identifier("iscompref") };
+		for (int i = 0; i < names.length; i++) {
+			Table expected = expectedCollector.getTable("PUBLIC", "PUBLIC", names[i]);
+			Table actual = actualCollector.getTable("PUBLIC", "PUBLIC", names[i]);
+			assertNotNull(expected);
+			assertNotNull(actual);
+			assertEquals(describe(expected.getColumnIterator()), describe(actual.getColumnIterator()));
+			assertEquals(describe(expected.getPrimaryKey().getColumnIterator()), describe(actual.getPrimaryKey().getColumnIterator()));
+			assertEquals(foreignKeys(expected), foreignKeys(actual));
+			assertEquals(expected.getUniqueKeys().keySet(), actual.getUniqueKeys().keySet());
+		}
+		assertEquals(expectedCollector.getOneToManyCandidates().keySet(), actualCollector.getOneToManyCandidates().keySet());
+	}
+
+	private DefaultDatabaseCollector read(MetaDataDialect dialect, boolean bulk) {
+		Properties properties = new Properties();
+		properties.putAll(cfg.getProperties());
+		properties.setProperty(JDBCReaderFactory.READER_BULK, Boolean.toString(bulk));
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		try {
+			JDBCReader reader = JDBCReaderFactory.newJDBCReader(properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry);
+			assertEquals(bulk, reader.isBulkRead());
+			DefaultDatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+			reader.readDatabaseSchema(dc, null, "PUBLIC");
+			return dc;
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	private List<String> foreignKeys(Table table) {
+		List<String> result = new ArrayList<String>();
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey fk = (ForeignKey) iter.next();
+			result.add(fk.getName() + describe(fk.getColumnIterator()) + "->" + fk.getReferencedTable().getName());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private List<String> describe(Iterator<?> columns) {
+		List<String> result = new ArrayList<String>();
+		while (columns.hasNext()) {
+			Column column = (Column) columns.next();
+			result.add(column.getName() + ":" + column.getSqlTypeCode() + ":" + column.isNullable()
+					+ ":" + column.getLength() + ":" + column.getPrecision() + ":" + column.getScale());
+		}
+		return result;
+	}
+
+	public static Test suite() {
+		return new TestSuite(InformationSchemaReadingTest.class);
+	}
+
+}
@@ -20,6 +20,11 @@ public class Jdbc2CfgAllTests {
 		suite.addTest(CompositeIdTest.suite());
 		suite.addTest(SearchEscapeStringTest.suite());
 		suite.addTest(PerformanceTest.suite());
+		suite.addTest(ParallelReadingTest.suite());
+		suite.addTest(BulkReadingTest.suite());
+		suite.addTest(InformationSchemaReadingTest.suite());
+		suite.addTest(IncrementalReverseEngineeringTest.suite());
+		suite.addTest(PipelinedBindingTest.suite());
 		suite.addTest(ForeignKeysTest.suite());
 		suite.addTest(BasicMultiSchemaTest.suite());
 		suite.addTest(MetaDataTest.suite());
@@ -355,6 +355,73 @@ public class OverrideBinderTest extends JDBCMetaDataBinderTestCase {
 		assertNull(tf.exclude(new TableIdentifier("notxam") ) );
 		assertTrue(tf.exclude(new TableIdentifier("heremaxsub") ).booleanValue() );
 	}
+
+	public void testTableExcludeRegex() {
+		TableFilter tf = new TableFilter();
+		tf.setExclude(Boolean.TRUE);
+		tf.setMatchName("ORD(ER)?S_[0-9]+");
+		assertTrue(tf.exclude(new TableIdentifier("ORDERS_2010") ).booleanValue() );
+		assertTrue(tf.exclude(new TableIdentifier("ORDS_1") ).booleanValue() );
+		assertNull(tf.exclude(new TableIdentifier("ORDERS_") ) );
+		assertNull(tf.exclude(new TableIdentifier("orders_1") ) );
+		tf.setMatchName("(?i)orders");
+		assertTrue(tf.exclude(new TableIdentifier("ORDERS") ).booleanValue() );
+		// names that happen to contain regex characters still match themselves
+		tf.setMatchName("BIN$1");
+		assertTrue(tf.exclude(new TableIdentifier("BIN$1") ).booleanValue() );
+		tf.setMatchName("[X");
+		assertTrue(tf.exclude(new TableIdentifier("[X") ).booleanValue() );
+	}
+
+	public void testRecycleBinFilter() {
+		TableFilter tf = new TableFilter();
+		tf.setExclude(Boolean.TRUE);
+		tf.setMatchName("BIN$.*");
+		assertTrue(tf.exclude(new TableIdentifier("BIN$XYZ") ).booleanValue() );
+		assertTrue(tf.exclude(new TableIdentifier("BIN$ABC==$0") ).booleanValue() );
+		assertNull(tf.exclude(new TableIdentifier("BIN") ) );
+		assertNull(tf.exclude(new TableIdentifier("BINARIES") ) );
+	}
+
+	public void testRecycleBinFilterFromRevengXml() {
+		OverrideRepository or = buildOverrideRepository();
+		or.addResource(OVERRIDETEST_REVENG_XML);
+		ReverseEngineeringStrategy res = or.getReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy() );
+		assertTrue(res.excludeTable(new TableIdentifier(null, null, "BIN$ABC==$0") ) );
+		assertTrue(res.excludeTable(new TableIdentifier(null, null, "BIN$XYZ") ) );
+		assertFalse(res.excludeTable(new TableIdentifier(null, null, "BINARIES") ) );
+	}
+
+	public void testTableFilterOrderWithIndex() {
+		OverrideRepository or = new OverrideRepository();
+		or.addTableFilter(tableFilter(".*", "AUDIT_.*", Boolean.TRUE, null) );
+		or.addTableFilter(tableFilter(".*", "ORDERS", null, "org.orders") );
+		or.addTableFilter(tableFilter(".*", "ORD(ER)?S.*", Boolean.FALSE, "org.ord") );
+		or.addTableFilter(tableFilter("PUBLIC", ".*_LOG", Boolean.FALSE, "org.log") );
+
+		ReverseEngineeringStrategy res = or.getReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy() );
+		assertTrue(res.excludeTable(new TableIdentifier(null, "PUBLIC", "AUDIT_LOG") ) );
+		assertFalse(res.excludeTable(new TableIdentifier(null, "PUBLIC", "ORDERS") ) );
+		assertFalse(res.excludeTable(new TableIdentifier(null, "PUBLIC", "SYS_LOG") ) );
+		assertTrue(res.excludeTable(new TableIdentifier(null, "OTHER", "SYS_LOG") ) );
+		// an include is specified so tables no filter is relevant for are excluded
+		assertTrue(res.excludeTable(new TableIdentifier(null, "PUBLIC", "CUSTOMER") ) );
+		assertEquals("org.orders.Orders", res.tableToClassName(new TableIdentifier(null, "PUBLIC", "ORDERS") ) );
+		assertEquals("org.ord.OrdsHistory", res.tableToClassName(new TableIdentifier(null, "PUBLIC", "ORDS_HISTORY") ) );
+
+		// filters added later are taken into account
+		or.addTableFilter(tableFilter(".*", "CUSTOMER", Boolean.FALSE, null) );
+		assertFalse(res.excludeTable(new TableIdentifier(null, "PUBLIC", "CUSTOMER") ) );
+	}
+
+	private TableFilter tableFilter(String schema, String name, Boolean exclude, String packageName) {
+		TableFilter tf = new TableFilter();
+		tf.setMatchSchema(schema);
+		tf.setMatchName(name);
+		tf.setExclude(exclude);
+		tf.setPackage(packageName);
+		return tf;
+	}
 	
 	public void testColumnExclude() {
 		
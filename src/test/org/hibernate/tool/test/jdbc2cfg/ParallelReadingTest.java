@@ -0,0 +1,145 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.ProgressListener;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Verifies that reading metadata with multiple threads gives the same model as the serial read.
+ */
+public class ParallelReadingTest extends JDBCMetaDataBinderTestCase {
+
+	static final int TABLECOUNT = 12;
+
+	protected String[] getCreateSQL() {
+		List<String> sql = new ArrayList<String>();
+		for (int i = 0; i < TABLECOUNT; i++) {
+			sql.add("create table partest" + i + " ( id int not null, name varchar(20), parentref int, primary key (id) )");
+			sql.add("create index partestidx" + i + " on partest" + i + "(name)");
+		}
+		for (int i = 1; i < TABLECOUNT; i++) {
+			sql.add("alter table partest" + i + " add constraint partestfk" + i + " foreign key (parentref) references partest" + (i-1) + "(id)");
+		}
+		return sql.toArray(new String[sql.size()]);
+	}
+
+	protected String[] getDropSQL() {
+		List<String> sql = new ArrayList<String>();
+		for (int i = TABLECOUNT-1; i >= 0; i--) {
+			sql.add("drop table partest" + i);
+		}
+		return sql.toArray(new String[sql.size()]);
+	}
+
+	public void testParallelMatchesSerial() {
+		Set<String> serialThreads = new HashSet<String>();
+		DefaultDatabaseCollector serial = read(1, serialThreads);
+		Set<String> parallelThreads = new HashSet<String>();
+		DefaultDatabaseCollector parallel = read(4, parallelThreads);
+
+		assertEquals(1, serialThreads.size());
+		assertTrue(serialThreads.contains(Thread.currentThread().getName()));
+		parallelThreads.remove(Thread.currentThread().getName());
+		assertFalse("columns and keys should be read by worker threads", parallelThreads.isEmpty());
+
+		List<Table> serialTables = getTables(serial);
+		assertEquals(TABLECOUNT, serialTables.size());
+		assertEquals(serialTables.size(), getTables(parallel).size());
+
+		for (Iterator<Table> iter = serialTables.iterator(); iter.hasNext();) {
+			Table expected = iter.next();
+			Table actual = parallel.getTable(expected.getSchema(), expected.getCatalog(), expected.getName());
+			assertNotNull(actual);
+			assertEquals(columnNames(expected.getColumnIterator()), columnNames(actual.getColumnIterator()));
+			assertEquals(columnNames(expected.getPrimaryKey().getColumnIterator()), columnNames(actual.getPrimaryKey().getColumnIterator()));
+			assertEquals(expected.getForeignKeys().size(), actual.getForeignKeys().size());
+			assertEquals(expected.getIndexes().keySet(), actual.getIndexes().keySet());
+		}
+
+		Map<String, List<ForeignKey>> expectedCandidates = serial.getOneToManyCandidates();
+		Map<String, List<ForeignKey>> actualCandidates = parallel.getOneToManyCandidates();
+		assertEquals(expectedCandidates.keySet(), actualCandidates.keySet());
+		for (Iterator<String> iter = expectedCandidates.keySet().iterator(); iter.hasNext();) {
+			String key = iter.next();
+			assertEquals(fkNames(expectedCandidates.get(key)), fkNames(actualCandidates.get(key)));
+		}
+	}
+
+	/** @param threadNames collects the names of the threads reporting progress */
+	private DefaultDatabaseCollector read(int threads, final Set<String> threadNames) {
+		Properties properties = new Properties();
+		properties.putAll(cfg.getProperties());
+		properties.setProperty(JDBCReaderFactory.READER_THREADS, Integer.toString(threads));
+		// every reader thread needs its own connection
+		properties.setProperty(AvailableSettings.POOL_SIZE, Integer.toString(threads + 1));
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		try {
+			JDBCReader reader = JDBCReaderFactory.newJDBCReader(properties, new DefaultReverseEngineeringStrategy(), serviceRegistry);
+			assertEquals(threads, reader.getThreadCount());
+			DefaultDatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+			reader.readDatabaseSchema(dc, null, null, new ProgressListener() {
+				public void startSubTask(String name) {
+					// called by one thread at a time, see JDBCReader.SynchronizedProgressListener
+					threadNames.add(Thread.currentThread().getName());
+				}
+			});
+			return dc;
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	private List<Table> getTables(DefaultDatabaseCollector dc) {
+		List<Table> result = new ArrayList<Table>();
+		Iterator<Table> iter = dc.iterateTables();
+		while (iter.hasNext()) {
+			Table table = iter.next();
+			if(table.getName().toLowerCase().startsWith("partest")) {
+				result.add(table);
+			}
+		}
+		return result;
+	}
+
+	private List<String> columnNames(Iterator<?> columns) {
+		List<String> result = new ArrayList<String>();
+		while (columns.hasNext()) {
+			result.add(((Column) columns.next()).getName());
+		}
+		return result;
+	}
+
+	private List<String> fkNames(List<ForeignKey> fks) {
+		List<String> result = new ArrayList<String>();
+		for (Iterator<ForeignKey> iter = fks.iterator(); iter.hasNext();) {
+			result.add(iter.next().getName());
+		}
+		return result;
+	}
+
+	public static Test suite() {
+		return new TestSuite(ParallelReadingTest.class);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.SimpleValue;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Verifies that guessing column types while the metadata is read gives the same model as binding afterwards.
+ */
+public class PipelinedBindingTest extends JDBCMetaDataBinderTestCase {
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table pipecustomer ( id int not null, name varchar(20), born date, credit decimal(10,2), active char(1), primary key (id) )",
+				"create table pipeorder ( customerref int not null, ordernum int not null, placed timestamp, note varchar(200), primary key (customerref, ordernum), constraint pipeorderfk foreign key (customerref) references pipecustomer(id) )",
+				"create table pipeline ( id bigint not null, customerref int, ordernum int, quantity smallint, primary key (id), constraint pipelinefk foreign key (customerref, ordernum) references pipeorder(customerref, ordernum) )",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[] {
+				"drop table pipeline",
+				"drop table pipeorder",
+				"drop table pipecustomer",
+		};
+	}
+
+	public void testPipelinedMatchesSerial() {
+		JDBCMetaDataConfiguration pipelined = new JDBCMetaDataConfiguration();
+		pipelined.setProperty(JDBCReaderFactory.READER_PIPELINED, "true");
+		pipelined.readFromJDBC();
+		// the guesses made while reading were actually used
+		assertTrue(pipelined.getReusedTypeGuessCount() > 0);
+		assertEquals(0, cfg.getReusedTypeGuessCount());
+
+		String[] tables = new String[] { "pipecustomer", "pipeorder", "pipeline" };
+		for (int i = 0; i < tables.length; i++) {
+			String entityName = toClassName(identifier(tables[i]));
+			PersistentClass expected = cfg.getMetadata().getEntityBinding(entityName);
+			PersistentClass actual = pipelined.getMetadata().getEntityBinding(entityName);
+			assertNotNull(entityName, expected);
+			assertNotNull(entityName, actual);
+			assertEquals(entityName, describe(expected), describe(actual));
+		}
+	}
+
+	private String describe(PersistentClass pc) {
+		TreeMap<String, String> result = new TreeMap<String, String>();
+		List<Property> properties = new ArrayList<Property>();
+		properties.add(pc.getIdentifierProperty());
+		for (Iterator<?> iter = pc.getPropertyIterator(); iter.hasNext();) {
+			properties.add((Property) iter.next());
+		}
+		for (Iterator<Property> iter = properties.iterator(); iter.hasNext();) {
+			Property property = iter.next();
+			StringBuffer buf = new StringBuffer();
+			if(property.getValue() instanceof SimpleValue) {
+				buf.append(((SimpleValue) property.getValue()).getTypeName());
+			}
+			for (Iterator<?> columns = property.getColumnIterator(); columns.hasNext();) {
+				Column column = (Column) columns.next();
+				buf.append(' ').append(column.getName()).append(':').append(column.getSqlTypeCode());
+			}
+			result.put(property.getName(), buf.toString());
+		}
+		return result.toString();
+	}
+
+	public static Test suite() {
+		return new TestSuite(PipelinedBindingTest.class);
+	}
+
+}
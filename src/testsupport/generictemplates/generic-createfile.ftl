@@ -0,0 +1,3 @@
+<#-- writes a second file per class through templates.createFile -->
+${templates.createFile("created for " + pojo.qualifiedDeclarationName, "created/" + pojo.shortName + ".properties")}
+${pojo.shortName}
@@ -0,0 +1,3 @@
+<#-- renders nothing but whitespace -->
+
+   